@@ -0,0 +1,137 @@
+package com.crm_bancaire.common.security.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache concurrent borné dont chaque entrée expire à une date absolue
+ * (typiquement le claim {@code exp} d'un token).
+ *
+ * - Lecture sans verrou: un simple {@link ConcurrentHashMap#get} suivi d'une comparaison de date
+ * - Taille bornée: au-delà de {@code maxSize}, un seul thread purge d'abord les entrées expirées,
+ *   puis une fraction arbitraire des entrées restantes si nécessaire
+ * - Statistiques hit/miss/eviction exposées pour les métriques
+ *
+ * @param <K> Type de clé
+ * @param <V> Type de valeur
+ */
+public final class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return La valeur si elle est présente et non expirée, sinon null
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Ajoute une valeur qui expire à la date donnée (epoch millis).
+     * Une valeur déjà expirée n'est pas stockée.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Purge les entrées expirées, puis ~10% des entrées si le cache est toujours plein.
+     * Un seul thread purge à la fois; les autres continuent sans attendre.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().getValue().expiresAtMillis <= now) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+
+            int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+            it = entries.entrySet().iterator();
+            while (excess-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAtMillis;
+
+        Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.crm_bancaire.common.security.cache;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Petit pool d'objets réutilisables (buffers, MessageDigest), sans verrou.
+ *
+ * Remplace les {@code ThreadLocal} de cache: avec des threads virtuels, chaque thread
+ * éphémère allouerait sa propre copie et la réutilisation ne jouerait jamais. Ici, les objets
+ * sont partagés entre tous les threads via quelques slots adressés par l'identité du thread.
+ *
+ * {@link #acquire()} ne bloque jamais: si le slot est vide, un nouvel objet est créé.
+ *
+ * @param <T> Type des objets mis en commun
+ */
+public final class StripedPool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final Supplier<T> factory;
+
+    /**
+     * @param stripes Nombre de slots (arrondi à la puissance de 2 supérieure)
+     * @param factory Création d'un objet quand le slot est vide
+     */
+    public StripedPool(int stripes, Supplier<T> factory) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.factory = factory;
+    }
+
+    /**
+     * Prend un objet du pool (ou en crée un). L'appelant en a l'usage exclusif jusqu'à {@link #release}.
+     */
+    public T acquire() {
+        T value = slots.getAndSet(slot(), null);
+        return value != null ? value : factory.get();
+    }
+
+    /**
+     * Rend un objet au pool; il est abandonné si le slot est déjà occupé.
+     */
+    public void release(T value) {
+        slots.compareAndSet(slot(), null, value);
+    }
+
+    private int slot() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & mask;
+    }
+}
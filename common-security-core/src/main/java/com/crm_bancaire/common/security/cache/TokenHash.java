@@ -0,0 +1,55 @@
+package com.crm_bancaire.common.security.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Empreinte SHA-256 d'un token, utilisée comme clé de cache.
+ *
+ * Une empreinte cryptographique évite de garder les tokens en mémoire et empêche
+ * de forger un token différent qui partagerait la même entrée de cache.
+ */
+public final class TokenHash {
+
+    private static final int STRIPES = Runtime.getRuntime().availableProcessors() * 2;
+    private static final int MAX_REUSED_BUFFER = 16 * 1024;
+
+    private static final StripedPool<MessageDigest> DIGESTS = new StripedPool<>(STRIPES, () -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+    private static final StripedPool<byte[]> BUFFERS = new StripedPool<>(STRIPES, () -> new byte[2048]);
+
+    private TokenHash() {
+    }
+
+    /**
+     * @return Le SHA-256 du token encodé en Base64URL (43 caractères)
+     */
+    public static String sha256(String token) {
+        int length = token.length();
+        byte[] buffer = BUFFERS.acquire();
+        if (buffer.length < length) {
+            buffer = new byte[length];
+        }
+        MessageDigest digest = DIGESTS.acquire();
+        try {
+            // Les tokens sont en ASCII (Base64URL + '.'): copie directe sans encodeur de charset
+            for (int i = 0; i < length; i++) {
+                buffer[i] = (byte) token.charAt(i);
+            }
+            digest.update(buffer, 0, length);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } finally {
+            digest.reset();
+            DIGESTS.release(digest);
+            if (buffer.length <= MAX_REUSED_BUFFER) {
+                BUFFERS.release(buffer);
+            }
+        }
+    }
+}
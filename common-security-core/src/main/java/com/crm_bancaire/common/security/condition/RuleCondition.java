@@ -0,0 +1,287 @@
+package com.crm_bancaire.common.security.condition;
+
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Condition d'accès d'un {@code @SecuredEndpoint(condition = ...)}, compilée une seule fois
+ * au chargement des règles en un arbre de prédicats (aucune réflexion, aucun moteur d'expressions).
+ *
+ * Grammaire volontairement réduite (pas d'appel de méthode, pas d'accès arbitraire):
+ * <pre>
+ * expr       := and ( ("or" | "||") and )*
+ * and        := unary ( ("and" | "&amp;&amp;") unary )*
+ * unary      := ("not" | "!") unary | "(" expr ")" | "role(" 'ROLE' ")" | comparison
+ * comparison := operand ("==" | "!=") operand
+ * operand    := path.&lt;variable&gt; | claim.&lt;nom&gt; | 'littéral'
+ * </pre>
+ *
+ * Exemples:
+ * <pre>
+ * path.id == claim.sub
+ * role('ADMIN') or path.customerId == claim.sub
+ * claim.tenant_id == path.tenant and claim.email_verified == 'true'
+ * </pre>
+ *
+ * Un opérande absent (variable ou claim inexistant) rend la comparaison indéterminée, avec {@code ==}
+ * comme avec {@code !=}. L'indéterminé se propage (logique à trois valeurs): {@code not} le laisse
+ * indéterminé, {@code and} / {@code or} ne le lèvent que si l'autre branche suffit
+ * ({@code false and ?} est faux, {@code true or ?} est vrai). Une condition indéterminée refuse l'accès:
+ * elle ne s'ouvre jamais par manque d'information, même sous un {@code not}.
+ * {@code role(...)} tient compte de la {@link RoleHierarchy}.
+ */
+public final class RuleCondition {
+
+    private final String expression;
+    private final Node root;
+
+    private RuleCondition(String expression, Node root) {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    /**
+     * Compile une condition.
+     *
+     * @throws IllegalArgumentException si l'expression est invalide
+     */
+    public static RuleCondition compile(String expression, RoleHierarchy hierarchy) {
+        Parser parser = new Parser(tokenize(expression), hierarchy);
+        Node root = parser.parseExpression();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek() + "' in condition: " + expression);
+        }
+        return new RuleCondition(expression, root);
+    }
+
+    /**
+     * @param pathVariables Variables extraites du chemin par le pattern de la règle
+     * @param claims        Claims du token
+     * @param roles         Rôles de l'utilisateur
+     */
+    public boolean test(Map<String, String> pathVariables, Map<String, Object> claims, Collection<String> roles) {
+        return root.eval(pathVariables, claims, roles) == Truth.TRUE;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Valeur d'un nœud: {@code UNKNOWN} quand un opérande manque.
+     */
+    private enum Truth {
+        TRUE, FALSE, UNKNOWN;
+
+        static Truth of(boolean value) {
+            return value ? TRUE : FALSE;
+        }
+
+        Truth not() {
+            return this == TRUE ? FALSE : this == FALSE ? TRUE : UNKNOWN;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        Truth eval(Map<String, String> pathVariables, Map<String, Object> claims, Collection<String> roles);
+    }
+
+    @FunctionalInterface
+    private interface Operand {
+        String value(Map<String, String> pathVariables, Map<String, Object> claims);
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int length = expression.length();
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'') {
+                int end = expression.indexOf('\'', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated literal in condition: " + expression);
+                }
+                tokens.add(expression.substring(i, end + 1));
+                i = end + 1;
+            } else if (expression.startsWith("==", i) || expression.startsWith("!=", i)
+                    || expression.startsWith("&&", i) || expression.startsWith("||", i)) {
+                tokens.add(expression.substring(i, i + 2));
+                i += 2;
+            } else if (c == '(' || c == ')' || c == '!') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(expression.charAt(i))
+                        || "_.-".indexOf(expression.charAt(i)) >= 0)) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' in condition: " + expression);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+        private final List<String> tokens;
+        private final RoleHierarchy hierarchy;
+        private int position;
+
+        Parser(List<String> tokens, RoleHierarchy hierarchy) {
+            this.tokens = tokens;
+            this.hierarchy = hierarchy;
+        }
+
+        boolean atEnd() {
+            return position >= tokens.size();
+        }
+
+        String peek() {
+            return atEnd() ? "<end>" : tokens.get(position);
+        }
+
+        private boolean accept(String... candidates) {
+            if (!atEnd()) {
+                for (String candidate : candidates) {
+                    if (tokens.get(position).equalsIgnoreCase(candidate)) {
+                        position++;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private String next() {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Unexpected end of condition");
+            }
+            return tokens.get(position++);
+        }
+
+        private void expect(String token) {
+            String actual = next();
+            if (!actual.equals(token)) {
+                throw new IllegalArgumentException("Expected '" + token + "' but found '" + actual + "'");
+            }
+        }
+
+        Node parseExpression() {
+            Node left = parseAnd();
+            while (accept("or", "||")) {
+                Node l = left;
+                Node r = parseAnd();
+                left = (vars, claims, roles) -> {
+                    Truth a = l.eval(vars, claims, roles);
+                    if (a == Truth.TRUE) {
+                        return Truth.TRUE;
+                    }
+                    Truth b = r.eval(vars, claims, roles);
+                    return b == Truth.TRUE ? Truth.TRUE : a == Truth.FALSE && b == Truth.FALSE ? Truth.FALSE : Truth.UNKNOWN;
+                };
+            }
+            return left;
+        }
+
+        private Node parseAnd() {
+            Node left = parseUnary();
+            while (accept("and", "&&")) {
+                Node l = left;
+                Node r = parseUnary();
+                left = (vars, claims, roles) -> {
+                    Truth a = l.eval(vars, claims, roles);
+                    if (a == Truth.FALSE) {
+                        return Truth.FALSE;
+                    }
+                    Truth b = r.eval(vars, claims, roles);
+                    return b == Truth.FALSE ? Truth.FALSE : a == Truth.TRUE && b == Truth.TRUE ? Truth.TRUE : Truth.UNKNOWN;
+                };
+            }
+            return left;
+        }
+
+        private Node parseUnary() {
+            if (accept("not", "!")) {
+                Node operand = parseUnary();
+                return (vars, claims, roles) -> operand.eval(vars, claims, roles).not();
+            }
+            if (accept("(")) {
+                Node inner = parseExpression();
+                expect(")");
+                return inner;
+            }
+            if (accept("role")) {
+                expect("(");
+                String literal = next();
+                if (!literal.startsWith("'")) {
+                    throw new IllegalArgumentException("role(...) expects a quoted role name, found " + literal);
+                }
+                expect(")");
+                // Étendu une fois: role('AGENT') accepte aussi les rôles qui incluent AGENT
+                Set<String> satisfying = hierarchy.rolesSatisfying(List.of(unquote(literal)));
+                return (vars, claims, roles) -> Truth.of(!Collections.disjoint(satisfying, roles));
+            }
+            Operand left = parseOperand();
+            String operator = next();
+            Operand right = parseOperand();
+            return switch (operator) {
+                case "==" -> (vars, claims, roles) -> compare(left, right, vars, claims, true);
+                case "!=" -> (vars, claims, roles) -> compare(left, right, vars, claims, false);
+                default -> throw new IllegalArgumentException("Expected '==' or '!=' but found '" + operator + "'");
+            };
+        }
+
+        private static Truth compare(Operand left, Operand right, Map<String, String> vars, Map<String, Object> claims,
+                                     boolean equal) {
+            String a = left.value(vars, claims);
+            String b = a != null ? right.value(vars, claims) : null;
+            if (a == null || b == null) {
+                return Truth.UNKNOWN;
+            }
+            return Truth.of(a.equals(b) == equal);
+        }
+
+        private Operand parseOperand() {
+            String token = next();
+            if (token.startsWith("'")) {
+                String literal = unquote(token);
+                return (vars, claims) -> literal;
+            }
+            if (token.startsWith("path.") && token.length() > 5) {
+                String name = token.substring(5);
+                return (vars, claims) -> vars.get(name);
+            }
+            if (token.startsWith("claim.") && token.length() > 6) {
+                String name = token.substring(6);
+                return (vars, claims) -> {
+                    Object value = claims.get(name);
+                    return value != null ? Objects.toString(value) : null;
+                };
+            }
+            throw new IllegalArgumentException("Expected path.<variable>, claim.<name> or 'literal' but found '"
+                + token + "'");
+        }
+
+        private static String unquote(String literal) {
+            return literal.substring(1, literal.length() - 1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.crm_bancaire.common.security.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO représentant la décision d'accès de l'utilisateur courant pour un endpoint,
+ * retourné par {@code /security/permissions} du Gateway
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointPermission {
+    /**
+     * Service déclarant la règle (null si aucune règle ne correspond)
+     */
+    private String service;
+
+    /**
+     * Méthode HTTP (GET, POST, PUT, DELETE, PATCH)
+     */
+    private String method;
+
+    /**
+     * Chemin demandé, ou pattern de la règle pour un manifeste (ex: /api/users/{id})
+     */
+    private String path;
+
+    /**
+     * Décision du Gateway
+     */
+    private Decision decision;
+
+    public enum Decision {
+        /** Accès autorisé */
+        ALLOWED,
+        /** Accès refusé */
+        DENIED,
+        /** Rôle suffisant, mais la règle a une condition qui dépend des valeurs du chemin */
+        CONDITIONAL
+    }
+}
@@ -40,6 +40,26 @@ public class EndpointRule {
      */
     private boolean isPublic;
 
+    /**
+     * Condition sur les variables du chemin et les claims (ex: "path.id == claim.sub"), null si aucune
+     */
+    private String condition;
+
+    /**
+     * Nombre maximum de requêtes par utilisateur (ou IP si public) sur {@code rateLimitPeriod}, 0 = pas de limite
+     */
+    private int rateLimit;
+
+    /**
+     * Fenêtre de la limite de débit, en secondes
+     */
+    private int rateLimitPeriod;
+
+    /**
+     * Durée de cache de la réponse par le Gateway, en secondes (endpoints publics uniquement), 0 = pas de cache
+     */
+    private int cacheTtl;
+
     /**
      * Retourne le chemin complet de l'endpoint
      */
@@ -0,0 +1,114 @@
+package com.crm_bancaire.common.security.gateway;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chemin de requête découpé une fois en segments, pour être comparé à tous les {@link PathTemplate}
+ * des règles sans être reparsé.
+ *
+ * Chaque segment est décodé ({@code %20} → espace) et privé de ses paramètres matrix
+ * ({@code ;jsessionid=...}), comme les voit le routage de Spring MVC / WebFlux.
+ * Les séparateurs sont conservés: {@code /api/users/} donne {@code ["", "api", "users", ""]}.
+ */
+public final class ParsedPath {
+
+    private final String value;
+    private final String[] segments;
+    /** Segments vides une fois privés de leurs paramètres ({@code /api/;a=b}), ou null s'il n'y en a pas. */
+    private final boolean[] parametersOnly;
+
+    private ParsedPath(String value, String[] segments, boolean[] parametersOnly) {
+        this.value = value;
+        this.segments = segments;
+        this.parametersOnly = parametersOnly;
+    }
+
+    /**
+     * @param path Chemin brut (encodé), ex: {@code /api/users/42}
+     */
+    public static ParsedPath parse(String path) {
+        List<String> segments = new ArrayList<>();
+        boolean[] parametersOnly = null;
+        int begin = 0;
+        while (true) {
+            int end = path.indexOf('/', begin);
+            int segmentEnd = end >= 0 ? end : path.length();
+            if (segmentEnd > begin && path.charAt(begin) == ';') {
+                if (parametersOnly == null) {
+                    parametersOnly = new boolean[path.length() + 1];
+                }
+                parametersOnly[segments.size()] = true;
+            }
+            segments.add(valueToMatch(path, begin, segmentEnd));
+            if (end < 0) {
+                break;
+            }
+            begin = end + 1;
+        }
+        return new ParsedPath(path, segments.toArray(new String[0]), parametersOnly);
+    }
+
+    /**
+     * @return Le chemin brut, tel que reçu
+     */
+    public String value() {
+        return value;
+    }
+
+    int size() {
+        return segments.length;
+    }
+
+    String segment(int index) {
+        return segments[index];
+    }
+
+    /**
+     * @return true si le segment brut est vide (ni valeur ni paramètres): slash final ou double slash
+     */
+    boolean isEmpty(int index) {
+        return segments[index].isEmpty() && (parametersOnly == null || !parametersOnly[index]);
+    }
+
+    /**
+     * Segment sans paramètres matrix, décodé en UTF-8 (laissé tel quel si l'encodage est invalide).
+     */
+    private static String valueToMatch(String path, int begin, int end) {
+        int matrix = path.indexOf(';', begin);
+        if (matrix >= 0 && matrix < end) {
+            end = matrix;
+        }
+        int percent = path.indexOf('%', begin);
+        if (percent < 0 || percent >= end) {
+            return path.substring(begin, end);
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(end - begin);
+        int i = begin;
+        while (i < end) {
+            if (path.charAt(i) != '%') {
+                int next = path.indexOf('%', i);
+                next = next >= 0 && next < end ? next : end;
+                byte[] bytes = path.substring(i, next).getBytes(StandardCharsets.UTF_8);
+                decoded.write(bytes, 0, bytes.length);
+                i = next;
+                continue;
+            }
+            int high = i + 2 < end ? Character.digit(path.charAt(i + 1), 16) : -1;
+            int low = high >= 0 ? Character.digit(path.charAt(i + 2), 16) : -1;
+            if (low < 0) {
+                return path.substring(begin, end);
+            }
+            decoded.write((high << 4) + low);
+            i += 3;
+        }
+        return decoded.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
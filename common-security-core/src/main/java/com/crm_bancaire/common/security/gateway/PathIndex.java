@@ -0,0 +1,119 @@
+package com.crm_bancaire.common.security.gateway;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index (trie de segments) de tous les chemins déclarés par les règles, pour savoir en
+ * O(longueur du chemin) si un chemin peut correspondre à une règle, quelle que soit la méthode.
+ *
+ * - Segment littéral: enfant exact
+ * - Segment avec variable ou joker ({@code {id}}, {@code *}, {@code {id:\d+}}, {@code *.png}): enfant "tout segment"
+ * - {@code **} ou {@code {*path}}: tous les segments restants
+ *
+ * L'index est volontairement plus large que les {@link PathTemplate}: il ne sert qu'à rejeter
+ * les chemins qu'aucune règle ne peut couvrir, jamais à accorder un accès.
+ */
+public final class PathIndex {
+
+    private final Node root = new Node();
+
+    private PathIndex() {
+    }
+
+    /**
+     * Construit l'index à partir des patterns des règles (ex: {@code /api/users/{id}}).
+     */
+    public static PathIndex of(Collection<String> patterns) {
+        PathIndex index = new PathIndex();
+        for (String pattern : patterns) {
+            index.add(pattern);
+        }
+        return index;
+    }
+
+    private void add(String pattern) {
+        Node node = root;
+        for (String segment : segments(pattern)) {
+            if (PathTemplate.isRest(segment)) {
+                node.catchAll = true;
+                return;
+            }
+            if (segment.indexOf('{') >= 0 || segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * @return true si au moins un pattern de l'index peut correspondre au chemin
+     */
+    public boolean contains(String path) {
+        return contains(ParsedPath.parse(path));
+    }
+
+    /**
+     * Comme {@link #contains(String)}, pour un chemin déjà parsé.
+     */
+    public boolean contains(ParsedPath path) {
+        return contains(root, path, nextSegment(path, 0));
+    }
+
+    /**
+     * Parcours direct des segments du chemin (pas de liste intermédiaire): aucune allocation.
+     */
+    private static boolean contains(Node node, ParsedPath path, int position) {
+        if (node.catchAll) {
+            return true;
+        }
+        if (position == path.size()) {
+            return node.terminal;
+        }
+        int next = nextSegment(path, position + 1);
+        Node literal = node.literals.get(path.segment(position));
+        if (literal != null && contains(literal, path, next)) {
+            return true;
+        }
+        return node.wildcard != null && contains(node.wildcard, path, next);
+    }
+
+    /**
+     * Segments vides (slash de tête, slash final, double slash) ignorés: l'index reste plus large que les patterns.
+     */
+    private static int nextSegment(ParsedPath path, int from) {
+        int position = from;
+        while (position < path.size() && path.isEmpty(position)) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Segments non vides du pattern, comme ceux du chemin dans {@link #nextSegment(ParsedPath, int)}.
+     */
+    private static List<String> segments(String pattern) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : PathTemplate.split(pattern)) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private boolean catchAll;
+        private boolean terminal;
+    }
+}
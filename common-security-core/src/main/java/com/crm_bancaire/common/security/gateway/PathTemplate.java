@@ -0,0 +1,292 @@
+package com.crm_bancaire.common.security.gateway;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pattern de chemin compilé, sans dépendance à Spring: même syntaxe et mêmes correspondances que
+ * {@code PathPattern} (Spring MVC / WebFlux), pour que le Gateway décide comme le routage des services.
+ *
+ * - {@code /api/users}: segments littéraux (sensibles à la casse)
+ * - {@code ?}: un caractère, {@code *}: zéro ou plusieurs caractères dans un segment ({@code *.png})
+ * - {@code {id}}: un segment non vide capturé, {@code {id:\d+}}: contraint par une expression régulière
+ * - {@code **}: zéro ou plusieurs segments, {@code {*path}}: idem capturés (uniquement en fin de pattern)
+ *
+ * Le chemin est comparé segment par segment ({@link ParsedPath}: décodé, sans paramètres matrix);
+ * un slash final compte ({@code /api/users/} ne correspond pas à {@code /api/users}).
+ */
+public final class PathTemplate {
+
+    /** Même découpage que {@code RegexPathElement} de Spring pour les segments mixtes ({@code {name}.{ext}}). */
+    private static final Pattern GLOB_PATTERN = Pattern.compile("\\?|\\*|\\{((?:\\{[^/]+?}|[^/{}]|\\\\[{}])+?)}");
+    private static final String DEFAULT_VARIABLE_PATTERN = "(.*)";
+
+    private final String pattern;
+    private final Segment[] segments;
+    /** Fin de pattern {@code **} ou {@code {*name}}: tous les segments restants. */
+    private final boolean matchesRest;
+    /** Variable de {@code {*name}}, ou null. */
+    private final String restVariable;
+
+    private PathTemplate(String pattern, Segment[] segments, boolean matchesRest, String restVariable) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.matchesRest = matchesRest;
+        this.restVariable = restVariable;
+    }
+
+    /**
+     * @throws IllegalArgumentException si le pattern est invalide (accolade non fermée, {@code **} hors fin,
+     *                                  variable en double, expression régulière invalide...)
+     */
+    public static PathTemplate parse(String pattern) {
+        List<String> parts = split(pattern);
+        List<Segment> segments = new ArrayList<>(parts.size());
+        Set<String> variables = new HashSet<>();
+        boolean matchesRest = false;
+        String restVariable = null;
+        for (int i = 0; i < parts.size(); i++) {
+            String part = parts.get(i);
+            if (isRest(part)) {
+                if (i != parts.size() - 1) {
+                    throw new IllegalArgumentException("No more pattern data allowed after {*...} or ** pattern element: " + pattern);
+                }
+                matchesRest = true;
+                restVariable = part.equals("**") ? null : declare(variables, part.substring(2, part.length() - 1), pattern);
+            } else {
+                segments.add(compile(part, variables, pattern));
+            }
+        }
+        return new PathTemplate(pattern, segments.toArray(new Segment[0]), matchesRest, restVariable);
+    }
+
+    public String getPatternString() {
+        return pattern;
+    }
+
+    public boolean matches(ParsedPath path) {
+        if (!matchesLength(path)) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (!segments[i].matches(path, i, isLastSegment(i), null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Les variables du chemin (décodées), ou null si le chemin ne correspond pas
+     */
+    public Map<String, String> matchAndExtract(ParsedPath path) {
+        if (!matchesLength(path)) {
+            return null;
+        }
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (int i = 0; i < segments.length; i++) {
+            if (!segments[i].matches(path, i, isLastSegment(i), variables)) {
+                return null;
+            }
+        }
+        if (restVariable != null) {
+            StringBuilder rest = new StringBuilder();
+            for (int i = segments.length; i < path.size(); i++) {
+                rest.append('/').append(path.segment(i));
+            }
+            variables.put(restVariable, rest.toString());
+        }
+        return variables.isEmpty() ? Collections.emptyMap() : variables;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private boolean matchesLength(ParsedPath path) {
+        return matchesRest ? path.size() >= segments.length : path.size() == segments.length;
+    }
+
+    private boolean isLastSegment(int index) {
+        return !matchesRest && index == segments.length - 1;
+    }
+
+    /**
+     * Segments du pattern séparés par {@code /}, hors accolades ({@code {id:[^/]+}} reste entier).
+     */
+    static List<String> split(String pattern) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int begin = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                if (--depth < 0) {
+                    throw new IllegalArgumentException("Missing open capture '{' in " + pattern);
+                }
+            } else if (c == '/' && depth == 0) {
+                parts.add(pattern.substring(begin, i));
+                begin = i + 1;
+            }
+        }
+        if (depth != 0) {
+            throw new IllegalArgumentException("Missing close capture '}' in " + pattern);
+        }
+        parts.add(pattern.substring(begin));
+        return parts;
+    }
+
+    /**
+     * @return true pour {@code **} ou {@code {*name}}
+     */
+    static boolean isRest(String part) {
+        return part.equals("**") || (part.startsWith("{*") && part.endsWith("}") && part.indexOf('}') == part.length() - 1);
+    }
+
+    private static Segment compile(String part, Set<String> variables, String pattern) {
+        if (part.equals("*")) {
+            return new WildcardSegment();
+        }
+        if (part.startsWith("{") && part.endsWith("}") && part.indexOf('}') == part.length() - 1) {
+            int colon = part.indexOf(':');
+            String name = part.substring(1, colon >= 0 ? colon : part.length() - 1);
+            Pattern constraint = colon >= 0 ? compileRegex(part.substring(colon + 1, part.length() - 1), pattern) : null;
+            if (constraint != null && constraint.matcher("").groupCount() != 0) {
+                throw new IllegalArgumentException("No capture groups allowed in the constraint regex: " + pattern);
+            }
+            return new CaptureSegment(declare(variables, name, pattern), constraint);
+        }
+        if (part.indexOf('{') >= 0 || part.indexOf('*') >= 0 || part.indexOf('?') >= 0) {
+            return RegexSegment.of(part, variables, pattern);
+        }
+        return new LiteralSegment(part);
+    }
+
+    private static String declare(Set<String> variables, String name, String pattern) {
+        if (!variables.add(name)) {
+            throw new IllegalArgumentException("Duplicate capture variable '" + name + "' in " + pattern);
+        }
+        return name;
+    }
+
+    private static Pattern compileRegex(String regex, String pattern) {
+        try {
+            return Pattern.compile(regex);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid regex in " + pattern + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Segment du pattern comparé à un segment du chemin.
+     */
+    private interface Segment {
+
+        /**
+         * @param index     Position du segment dans le chemin
+         * @param last      Dernier segment d'un pattern sans {@code **}
+         * @param variables Variables capturées, ou null si elles ne sont pas demandées
+         */
+        boolean matches(ParsedPath path, int index, boolean last, Map<String, String> variables);
+    }
+
+    /**
+     * Texte exact; vide (slash final, double slash): seulement un segment sans paramètres matrix.
+     */
+    private record LiteralSegment(String text) implements Segment {
+
+        @Override
+        public boolean matches(ParsedPath path, int index, boolean last, Map<String, String> variables) {
+            return text.isEmpty() ? path.isEmpty(index) : text.equals(path.segment(index));
+        }
+    }
+
+    /**
+     * {@code *}: un segment non vide, ou le slash final quand il termine le pattern ({@code /api/*} couvre {@code /api/}).
+     */
+    private record WildcardSegment() implements Segment {
+
+        @Override
+        public boolean matches(ParsedPath path, int index, boolean last, Map<String, String> variables) {
+            return last || !path.segment(index).isEmpty();
+        }
+    }
+
+    private record CaptureSegment(String name, Pattern constraint) implements Segment {
+
+        @Override
+        public boolean matches(ParsedPath path, int index, boolean last, Map<String, String> variables) {
+            String value = path.segment(index);
+            if (value.isEmpty() || (constraint != null && !constraint.matcher(value).matches())) {
+                return false;
+            }
+            if (variables != null) {
+                variables.put(name, value);
+            }
+            return true;
+        }
+    }
+
+    private record RegexSegment(Pattern regex, List<String> names) implements Segment {
+
+        static RegexSegment of(String part, Set<String> variables, String pattern) {
+            StringBuilder regex = new StringBuilder();
+            List<String> names = new ArrayList<>();
+            Matcher matcher = GLOB_PATTERN.matcher(part);
+            int end = 0;
+            while (matcher.find()) {
+                if (matcher.start() > end) {
+                    regex.append(Pattern.quote(part.substring(end, matcher.start())));
+                }
+                String match = matcher.group();
+                if (match.equals("?")) {
+                    regex.append('.');
+                } else if (match.equals("*")) {
+                    regex.append(".*");
+                } else {
+                    int colon = match.indexOf(':');
+                    if (colon < 0) {
+                        regex.append(DEFAULT_VARIABLE_PATTERN);
+                        names.add(declare(variables, matcher.group(1), pattern));
+                    } else {
+                        regex.append('(').append(match, colon + 1, match.length() - 1).append(')');
+                        names.add(declare(variables, match.substring(1, colon), pattern));
+                    }
+                }
+                end = matcher.end();
+            }
+            if (end < part.length()) {
+                regex.append(Pattern.quote(part.substring(end)));
+            }
+            Pattern compiled = compileRegex(regex.toString(), pattern);
+            if (compiled.matcher("").groupCount() != names.size()) {
+                throw new IllegalArgumentException("Use non-capturing groups in the regex of " + pattern);
+            }
+            return new RegexSegment(compiled, names);
+        }
+
+        @Override
+        public boolean matches(ParsedPath path, int index, boolean last, Map<String, String> variables) {
+            Matcher matcher = regex.matcher(path.segment(index));
+            if (!matcher.matches()) {
+                return false;
+            }
+            if (variables != null) {
+                for (int i = 0; i < names.size(); i++) {
+                    variables.put(names.get(i), matcher.group(i + 1));
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.condition.RuleCondition;
+import com.crm_bancaire.common.security.dto.EndpointPermission;
+import com.crm_bancaire.common.security.dto.EndpointRule;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import com.crm_bancaire.common.security.role.RoleIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Règles du Gateway compilées, immuables, publiées en une seule écriture volatile.
+ *
+ * La compilation est faite une fois par version des règles ({@code SecurityRulesLoader#getVersion()}):
+ * - Les patterns de chemin sont parsés une seule fois (et non à chaque requête) en {@link PathTemplate}
+ * - Les rôles requis sont étendus via la {@link RoleHierarchy} puis convertis en bitsets:
+ *   une règle {@code roles = "AGENT"} accepte aussi ADMIN et SUPER_ADMIN, pour le coût d'un ET bit à bit
+ * - Les conditions ({@code path.id == claim.sub}) sont compilées en prédicats ({@link RuleCondition});
+ *   une condition invalide refuse toutes les requêtes de la règle
+ * - Un chemin invalide refuse aussi ses requêtes, au lieu d'être ignoré (ce qui laisserait l'endpoint
+ *   au défaut "authentifié"): la règle devient un refus total sur son préfixe littéral
+ *   ({@code /api/users/{id:(}/orders} → {@code /api/users/**}), à sa place dans l'ordre des règles
+ * - Les chemins de toutes les règles sont indexés dans un {@link PathIndex} (chemins inconnus)
+ * - Les manifestes par rôle ({@link #manifest(Collection)}) sont calculés une fois par snapshot
+ */
+@Slf4j
+public final class RuleSnapshot {
+
+    /** Snapshot sans règle (avant le premier chargement). */
+    public static final RuleSnapshot EMPTY = new RuleSnapshot(-1, RoleIndex.empty(), Collections.emptyList(),
+        PathIndex.of(Collections.emptyList()));
+
+    /** Combinaisons de rôles dont le manifeste est gardé (au-delà: calculé sans être gardé). */
+    private static final int MAX_CACHED_MANIFESTS = 256;
+
+    private static final RuleCondition DENY_ALL = RuleCondition.compile("'deny' == 'invalid condition'", RoleHierarchy.none());
+
+    private final long version;
+    private final RoleIndex index;
+    private final List<CompiledRule> rules;
+    private final PathIndex paths;
+    private final Map<String, List<EndpointPermission>> manifests = new ConcurrentHashMap<>();
+
+    private RuleSnapshot(long version, RoleIndex index, List<CompiledRule> rules, PathIndex paths) {
+        this.version = version;
+        this.index = index;
+        this.rules = rules;
+        this.paths = paths;
+    }
+
+    /**
+     * Compile les règles de tous les services (dans l'ordre des services puis des règles).
+     *
+     * @param version Version des règles compilées
+     */
+    public static RuleSnapshot compile(Map<String, List<EndpointRule>> rulesByService, RoleHierarchy hierarchy,
+                                       long version) {
+        List<EndpointRule> endpoints = new ArrayList<>();
+        List<String> services = new ArrayList<>();
+        List<Set<String>> allowedRoles = new ArrayList<>();
+        List<String> allRoles = new ArrayList<>();
+        for (Map.Entry<String, List<EndpointRule>> serviceRules : rulesByService.entrySet()) {
+            for (EndpointRule rule : serviceRules.getValue()) {
+                Set<String> allowed = rule.getRoles() != null
+                    ? hierarchy.rolesSatisfying(rule.getRoles()) : Collections.emptySet();
+                endpoints.add(rule);
+                services.add(serviceRules.getKey());
+                allowedRoles.add(allowed);
+                allRoles.addAll(allowed);
+            }
+        }
+
+        RoleIndex index = RoleIndex.of(allRoles);
+        List<CompiledRule> compiled = new ArrayList<>(endpoints.size());
+        for (int i = 0; i < endpoints.size(); i++) {
+            EndpointRule rule = endpoints.get(i);
+            Set<String> methods = rule.getMethods() != null ? new HashSet<>(rule.getMethods()) : Collections.emptySet();
+            PathTemplate pattern;
+            try {
+                pattern = PathTemplate.parse(rule.getFullPath());
+            } catch (RuntimeException e) {
+                PathTemplate denied = PathTemplate.parse(literalPrefixOf(rule) + "/**");
+                log.error("❌ Invalid path {} - all {} requests to {} will be denied: {}",
+                    rule.getFullPath(), methods, denied, e.getMessage());
+                compiled.add(new CompiledRule(services.get(i), rule, denied, methods, Collections.emptySet(),
+                    index.maskOf(Collections.emptySet()), DENY_ALL, true));
+                continue;
+            }
+            compiled.add(new CompiledRule(services.get(i), rule, pattern, methods, allowedRoles.get(i), index.maskOf(allowedRoles.get(i)),
+                compileCondition(rule, hierarchy), false));
+        }
+        List<String> patterns = new ArrayList<>(compiled.size());
+        for (CompiledRule rule : compiled) {
+            patterns.add(rule.getPattern());
+        }
+        return new RuleSnapshot(version, index, Collections.unmodifiableList(compiled), PathIndex.of(patterns));
+    }
+
+    /**
+     * Segments littéraux du chemin jusqu'au premier segment à variable ou joker (où le parsing a pu échouer),
+     * ex: {@code /api/users/{id:(}/orders} → {@code /api/users}; vide si le chemin est absent.
+     */
+    private static String literalPrefixOf(EndpointRule rule) {
+        String fullPath;
+        try {
+            fullPath = rule.getFullPath();
+        } catch (RuntimeException e) {
+            return "";
+        }
+        if (fullPath == null) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (String segment : fullPath.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.indexOf('{') >= 0 || segment.indexOf('}') >= 0
+                    || segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+                break;
+            }
+            prefix.append('/').append(segment);
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * @return La condition compilée, {@link #DENY_ALL} si elle est invalide, ou null si la règle n'en a pas
+     */
+    private static RuleCondition compileCondition(EndpointRule rule, RoleHierarchy hierarchy) {
+        if (rule.getCondition() == null || rule.getCondition().isBlank()) {
+            return null;
+        }
+        try {
+            return RuleCondition.compile(rule.getCondition(), hierarchy);
+        } catch (IllegalArgumentException e) {
+            log.error("❌ Invalid condition on {} - all requests will be denied: {}", rule.getFullPath(), e.getMessage());
+            return DENY_ALL;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * @return true si une règle (quelle que soit sa méthode) peut couvrir ce chemin, en O(longueur du chemin)
+     */
+    public boolean isKnownPath(String path) {
+        return paths.contains(path);
+    }
+
+    /**
+     * Comme {@link #isKnownPath(String)}, pour un chemin déjà parsé.
+     */
+    public boolean isKnownPath(ParsedPath path) {
+        return paths.contains(path);
+    }
+
+    /**
+     * @return La première règle correspondant au chemin et à la méthode, ou null
+     */
+    public CompiledRule match(String path, String method) {
+        return match(ParsedPath.parse(path), method);
+    }
+
+    /**
+     * Comme {@link #match(String, String)}, pour un chemin déjà parsé (ex: une fois par requête servlet):
+     * aucune allocation pour trouver la règle.
+     */
+    public CompiledRule match(ParsedPath path, String method) {
+        for (CompiledRule rule : rules) {
+            if (rule.methods.contains(method) && rule.pattern.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Comme {@link #match(String, String)}, en extrayant aussi les variables du chemin pour les règles
+     * qui ont une condition (un seul passage du matcher).
+     *
+     * @return La règle et ses variables, ou null
+     */
+    public Match matchWithVariables(String path, String method) {
+        ParsedPath parsedPath = ParsedPath.parse(path);
+        for (CompiledRule rule : rules) {
+            if (!rule.methods.contains(method)) {
+                continue;
+            }
+            if (rule.condition == null) {
+                if (rule.pattern.matches(parsedPath)) {
+                    return new Match(rule, Collections.emptyMap());
+                }
+            } else {
+                Map<String, String> variables = rule.pattern.matchAndExtract(parsedPath);
+                if (variables != null) {
+                    return new Match(rule, variables);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Règle trouvée et variables extraites du chemin (vides si la règle n'a pas de condition).
+     */
+    public record Match(CompiledRule rule, Map<String, String> pathVariables) {
+    }
+
+    /**
+     * Indique si l'un des rôles de l'utilisateur satisfait la règle (hiérarchie comprise).
+     */
+    public boolean allows(CompiledRule rule, Collection<String> userRoles) {
+        return index.matchesAny(rule.allowedMask, userRoles);
+    }
+
+    /**
+     * Indique si une authority ({@code ROLE_XXX} ou {@code XXX}) satisfait la règle, sans allocation.
+     */
+    public boolean allowsAuthority(CompiledRule rule, String authority) {
+        return index.matchesAuthority(rule.allowedMask, authority);
+    }
+
+    /**
+     * Décision pour des rôles, sans valeurs de chemin: une règle avec condition est
+     * {@link EndpointPermission.Decision#CONDITIONAL} si les rôles suffisent.
+     */
+    public EndpointPermission.Decision decide(CompiledRule rule, Collection<String> userRoles) {
+        if (rule.isPublic()) {
+            return EndpointPermission.Decision.ALLOWED;
+        }
+        if (!allows(rule, userRoles)) {
+            return EndpointPermission.Decision.DENIED;
+        }
+        return rule.condition != null ? EndpointPermission.Decision.CONDITIONAL : EndpointPermission.Decision.ALLOWED;
+    }
+
+    /**
+     * @return Les règles déclarées par un service, dans leur ordre d'évaluation
+     */
+    public List<CompiledRule> rulesOf(String service) {
+        List<CompiledRule> serviceRules = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            if (rule.service.equals(service)) {
+                serviceRules.add(rule);
+            }
+        }
+        return serviceRules;
+    }
+
+    /**
+     * Endpoints accessibles (ALLOWED ou CONDITIONAL) avec ces rôles, une entrée par méthode.
+     *
+     * Calculé une fois par combinaison de rôles connus des règles puis gardé avec ce snapshot:
+     * une nouvelle version des règles repart d'un cache vide. Les rôles absents des règles
+     * ne donnent accès à rien de plus et sont ignorés dans la clé.
+     */
+    public List<EndpointPermission> manifest(Collection<String> userRoles) {
+        List<String> known = new ArrayList<>();
+        for (String role : userRoles) {
+            if (index.bitOf(role) >= 0) {
+                known.add(role);
+            }
+        }
+        Collections.sort(known);
+        String key = String.join(",", known);
+        List<EndpointPermission> cached = manifests.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<EndpointPermission> manifest = computeManifest(known);
+        if (manifests.size() < MAX_CACHED_MANIFESTS) {
+            manifests.putIfAbsent(key, manifest);
+        }
+        return manifest;
+    }
+
+    private List<EndpointPermission> computeManifest(List<String> roles) {
+        List<EndpointPermission> manifest = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            EndpointPermission.Decision decision = decide(rule, roles);
+            if (decision == EndpointPermission.Decision.DENIED || rule.getRule().getMethods() == null) {
+                continue;
+            }
+            for (String method : rule.getRule().getMethods()) {
+                manifest.add(new EndpointPermission(rule.service, method, rule.getPattern(), decision));
+            }
+        }
+        return Collections.unmodifiableList(manifest);
+    }
+
+    /**
+     * Règle compilée: pattern parsé, méthodes et rôles autorisés (étendus par la hiérarchie).
+     */
+    public static final class CompiledRule {
+        private final String service;
+        private final EndpointRule rule;
+        private final PathTemplate pattern;
+        private final Set<String> methods;
+        private final Set<String> allowedRoles;
+        private final long[] allowedMask;
+        private final RuleCondition condition;
+        /** Règle au chemin invalide, compilée en refus total. */
+        private final boolean invalid;
+
+        CompiledRule(String service, EndpointRule rule, PathTemplate pattern, Set<String> methods,
+                     Set<String> allowedRoles, long[] allowedMask, RuleCondition condition, boolean invalid) {
+            this.service = service;
+            this.rule = rule;
+            this.pattern = pattern;
+            this.methods = methods;
+            this.allowedRoles = Collections.unmodifiableSet(allowedRoles);
+            this.allowedMask = allowedMask;
+            this.condition = condition;
+            this.invalid = invalid;
+        }
+
+        /**
+         * @return La condition compilée, ou null si la règle n'en a pas
+         */
+        public RuleCondition getCondition() {
+            return condition;
+        }
+
+        /**
+         * @return Les variables extraites du chemin par le pattern de la règle (vide s'il ne correspond pas)
+         */
+        public Map<String, String> pathVariables(ParsedPath path) {
+            Map<String, String> variables = pattern.matchAndExtract(path);
+            return variables != null ? variables : Collections.emptyMap();
+        }
+
+        /**
+         * @return Le service qui déclare la règle
+         */
+        public String getService() {
+            return service;
+        }
+
+        public EndpointRule getRule() {
+            return rule;
+        }
+
+        public String getPattern() {
+            return pattern.getPatternString();
+        }
+
+        public boolean isPublic() {
+            return !invalid && rule.isPublic();
+        }
+
+        /**
+         * @return true si le chemin déclaré est invalide: la règle refuse toutes ses requêtes
+         */
+        public boolean isInvalid() {
+            return invalid;
+        }
+
+        /**
+         * @return Requêtes autorisées par période et par client, 0 si pas de limite
+         */
+        public int getRateLimit() {
+            return rule.getRateLimit();
+        }
+
+        public long getRateLimitPeriodMillis() {
+            return (rule.getRateLimitPeriod() > 0 ? rule.getRateLimitPeriod() : 60) * 1000L;
+        }
+
+        /**
+         * @return Durée de cache de la réponse (secondes); toujours 0 pour une règle sécurisée
+         */
+        public int getCacheTtl() {
+            return isPublic() ? rule.getCacheTtl() : 0;
+        }
+
+        /**
+         * @return Les rôles acceptés, y compris ceux qui incluent les rôles déclarés
+         */
+        public Set<String> getAllowedRoles() {
+            return allowedRoles;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.crm_bancaire.common.security.gateway;
+
+import java.util.Locale;
+
+/**
+ * Décision du Gateway pour une requête qu'aucune règle ne couvre
+ * ({@code common.security.gateway.unmatched-policy}).
+ *
+ * Ne s'applique ni aux preflights CORS ni aux endpoints de la librairie ({@code /security/permissions/**},
+ * {@code /security/rules}, {@code /admin/security/**}), qui gardent le repli "authentifié".
+ */
+public enum UnmatchedPathPolicy {
+
+    /** Comportement historique: un utilisateur authentifié passe, le service décide. */
+    ALLOW_AUTHENTICATED,
+
+    /** Toute requête sans règle (méthode + chemin) est refusée au Gateway. */
+    DENY,
+
+    /**
+     * Refusée si aucune règle ne déclare ce chemin, quelle que soit la méthode; sinon
+     * (chemin connu, autre méthode) comme {@link #ALLOW_AUTHENTICATED}.
+     */
+    DENY_UNLESS_ROUTE_EXISTS;
+
+    /**
+     * Lit une valeur de configuration, ex: {@code deny-unless-route-exists}.
+     *
+     * @throws IllegalArgumentException si la valeur est inconnue
+     */
+    public static UnmatchedPathPolicy parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALLOW_AUTHENTICATED;
+        }
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
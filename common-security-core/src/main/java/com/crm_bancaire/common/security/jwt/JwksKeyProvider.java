@@ -0,0 +1,204 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fournit les clés publiques d'un JWKS (JSON Web Key Set), avec cache et rotation.
+ *
+ * - Source: URI (ex: endpoint certs de Keycloak), fichier local ou JSON fourni
+ * - Les clés sont rechargées après {@code refreshInterval}
+ * - Un {@code kid} inconnu (rotation de clé côté serveur) force un rechargement,
+ *   limité à un par {@code minRefreshInterval} pour ne pas marteler le serveur
+ *
+ * Types de clés supportés: RSA et EC (P-256, P-384, P-521).
+ */
+@Slf4j
+public class JwksKeyProvider {
+
+    /**
+     * Source du document JWKS.
+     */
+    @FunctionalInterface
+    public interface JwksSource {
+        String load() throws IOException;
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final JwksSource source;
+    private final long refreshIntervalMillis;
+    private final long minRefreshIntervalMillis;
+
+    private volatile Map<String, PublicKey> keys = Collections.emptyMap();
+    private volatile long lastRefreshMillis;
+
+    public JwksKeyProvider(JwksSource source, Duration refreshInterval, Duration minRefreshInterval) {
+        this.source = source;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+    }
+
+    /**
+     * JWKS chargé depuis une URI HTTP(S).
+     */
+    public static JwksSource fromUri(URI uri) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        return () -> {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(5))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IOException("JWKS endpoint " + uri + " returned HTTP " + response.statusCode());
+                }
+                return response.body();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading JWKS from " + uri, e);
+            }
+        };
+    }
+
+    /**
+     * JWKS chargé depuis un fichier local (relu à chaque rafraîchissement).
+     */
+    public static JwksSource fromFile(Path path) {
+        return () -> Files.readString(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * JWKS fixe (tests, clés générées localement).
+     */
+    public static JwksSource fromJson(String json) {
+        return () -> json;
+    }
+
+    /**
+     * Retourne la clé correspondant au {@code kid}, en rechargeant le JWKS si nécessaire.
+     *
+     * @param kid Identifiant de clé du header JWT (peut être null si le JWKS n'a qu'une clé)
+     * @return La clé publique, ou null si introuvable
+     */
+    public PublicKey getKey(String kid) {
+        long now = System.currentTimeMillis();
+        if (lastRefreshMillis == 0 || now - lastRefreshMillis >= refreshIntervalMillis) {
+            refresh(0);
+        }
+
+        PublicKey key = lookup(kid);
+        if (key == null) {
+            // Rotation probable: recharger, au plus une fois par minRefreshInterval
+            refresh(minRefreshIntervalMillis);
+            key = lookup(kid);
+        }
+        return key;
+    }
+
+    private PublicKey lookup(String kid) {
+        Map<String, PublicKey> current = keys;
+        if (kid == null) {
+            return current.size() == 1 ? current.values().iterator().next() : null;
+        }
+        return current.get(kid);
+    }
+
+    /**
+     * Recharge le JWKS si le dernier chargement date de plus de {@code minAgeMillis}.
+     * Un seul thread recharge; les autres réutilisent le résultat.
+     */
+    private synchronized void refresh(long minAgeMillis) {
+        long now = System.currentTimeMillis();
+        if (lastRefreshMillis != 0 && now - lastRefreshMillis < minAgeMillis) {
+            return;
+        }
+        try {
+            Map<String, PublicKey> loaded = parse(source.load());
+            keys = loaded;
+            log.debug("🔑 JWKS loaded with {} key(s): {}", loaded.size(), loaded.keySet());
+        } catch (Exception e) {
+            // On garde les clés précédentes: une panne du serveur JWKS ne doit pas tout bloquer
+            log.warn("⚠️ Could not load JWKS: {}", e.getMessage());
+        } finally {
+            lastRefreshMillis = now;
+        }
+    }
+
+    private static Map<String, PublicKey> parse(String json) throws IOException, GeneralSecurityException {
+        JsonNode root = OBJECT_MAPPER.readTree(json);
+        Map<String, PublicKey> result = new HashMap<>();
+        int anonymous = 0;
+        for (JsonNode jwk : root.path("keys")) {
+            String use = jwk.path("use").asText("sig");
+            if (!"sig".equals(use)) {
+                continue;
+            }
+            PublicKey key = toPublicKey(jwk);
+            if (key != null) {
+                String kid = jwk.hasNonNull("kid") ? jwk.get("kid").asText() : "#" + anonymous++;
+                result.put(kid, key);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static PublicKey toPublicKey(JsonNode jwk) throws GeneralSecurityException {
+        String kty = jwk.path("kty").asText();
+        if ("RSA".equals(kty)) {
+            BigInteger modulus = new BigInteger(1, decode(jwk.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, decode(jwk.path("e").asText()));
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+        }
+        if ("EC".equals(kty)) {
+            String curve = switch (jwk.path("crv").asText()) {
+                case "P-256" -> "secp256r1";
+                case "P-384" -> "secp384r1";
+                case "P-521" -> "secp521r1";
+                default -> null;
+            };
+            if (curve == null) {
+                return null;
+            }
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(curve));
+            ECPoint point = new ECPoint(
+                new BigInteger(1, decode(jwk.path("x").asText())),
+                new BigInteger(1, decode(jwk.path("y").asText())));
+            return KeyFactory.getInstance("EC").generatePublic(
+                new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+        }
+        return null;
+    }
+
+    private static byte[] decode(String base64Url) {
+        return Base64.getUrlDecoder().decode(base64Url);
+    }
+}
@@ -0,0 +1,262 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.cache.StripedPool;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Décodeur de payload JWT en streaming, conçu pour allouer le moins possible.
+ *
+ * Contrairement à {@code split("\\.")} + {@code readTree}, ce décodeur:
+ * - localise le payload par index, sans regex ni tableau de segments
+ * - décode le Base64URL directement dans un buffer réutilisé ({@link StripedPool})
+ * - lit le JSON avec le {@link JsonParser} streaming de Jackson et ne matérialise que
+ *   les claims configurés, plus {@code exp} et {@code resource_access.<client>.roles};
+ *   tout le reste (groupes, scopes, etc.) est sauté sans être construit
+ *
+ * Aucune vérification de signature n'est faite ici.
+ */
+public final class JwtPayloadDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(JSON_FACTORY);
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() { };
+
+    /** Au-delà de cette taille, le buffer n'est pas conservé pour éviter de retenir de gros tableaux */
+    private static final int MAX_REUSED_BUFFER = 16 * 1024;
+    private static final StripedPool<byte[]> BUFFERS =
+        new StripedPool<>(Runtime.getRuntime().availableProcessors() * 2, () -> new byte[2048]);
+
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final String clientName;
+    private final String[] claimNames;
+
+    /**
+     * @param clientName Client dont on lit les rôles dans {@code resource_access.<client>.roles}
+     * @param claimNames Claims texte de premier niveau à extraire (ex: sub, email)
+     */
+    public JwtPayloadDecoder(String clientName, String... claimNames) {
+        this.clientName = clientName;
+        this.claimNames = claimNames.clone();
+    }
+
+    /**
+     * Décode le payload d'un token JWT brut.
+     *
+     * @param token Le token JWT (header.payload.signature)
+     * @return Les claims extraits
+     * @throws IllegalArgumentException si le token n'a pas 3 parties ou si le Base64URL est invalide
+     * @throws IOException si le JSON du payload est invalide
+     */
+    public Claims decode(String token) throws IOException {
+        return readPayload(token, this::parse);
+    }
+
+    /**
+     * Décode tous les claims du payload dans une Map (pour l'accès à des claims arbitraires).
+     *
+     * @param token Le token JWT (header.payload.signature)
+     * @return Tous les claims du payload
+     * @throws IllegalArgumentException si le token n'a pas 3 parties ou si le Base64URL est invalide
+     * @throws IOException si le JSON du payload est invalide
+     */
+    public static Map<String, Object> decodeAll(String token) throws IOException {
+        return readPayload(token, (buffer, length) -> {
+            try (JsonParser parser = JSON_FACTORY.createParser(buffer, 0, length)) {
+                return OBJECT_MAPPER.readValue(parser, CLAIMS_TYPE);
+            }
+        });
+    }
+
+    /**
+     * Décode le payload dans un buffer du pool (agrandi si nécessaire) puis le lit.
+     */
+    private static <T> T readPayload(String token, PayloadReader<T> reader) throws IOException {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0 || token.indexOf('.', second + 1) >= 0) {
+            throw new IllegalArgumentException("JWT format invalide - doit avoir 3 parties (header.payload.signature)");
+        }
+
+        int maxLength = decodedLength(second - first - 1);
+        byte[] buffer = BUFFERS.acquire();
+        if (buffer.length < maxLength) {
+            buffer = new byte[maxLength];
+        }
+        try {
+            int length = decodeBase64Url(token, first + 1, second, buffer);
+            return reader.read(buffer, length);
+        } finally {
+            if (buffer.length <= MAX_REUSED_BUFFER) {
+                BUFFERS.release(buffer);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PayloadReader<T> {
+        T read(byte[] buffer, int length) throws IOException;
+    }
+
+    private Claims parse(byte[] buffer, int length) throws IOException {
+        Claims claims = new Claims(claimNames);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(buffer, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("JWT payload is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("exp".equals(name)) {
+                    if (value.isNumeric()) {
+                        claims.expiresAt = parser.getLongValue();
+                    }
+                } else if ("resource_access".equals(name) && value == JsonToken.START_OBJECT) {
+                    readResourceAccess(parser, claims);
+                } else {
+                    int index = indexOf(name);
+                    if (index >= 0 && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                        claims.values[index] = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Parcourt {@code resource_access} et ne lit que {@code <client>.roles}.
+     */
+    private void readResourceAccess(JsonParser parser, Claims claims) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String client = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!clientName.equals(client) || value != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && "roles".equals(field)) {
+                    List<String> roles = new ArrayList<>(4);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                            roles.add(parser.getText());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    claims.roles = roles;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < claimNames.length; i++) {
+            if (claimNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int decodedLength(int encodedLength) {
+        return (encodedLength * 3) / 4 + 3;
+    }
+
+    /**
+     * Décode le Base64URL de {@code src[start, end)} dans {@code dst}, padding optionnel.
+     *
+     * @return Le nombre d'octets écrits
+     */
+    private static int decodeBase64Url(String src, int start, int end, byte[] dst) {
+        while (end > start && src.charAt(end - 1) == '=') {
+            end--;
+        }
+
+        int out = 0;
+        int bits = 0;
+        int accumulator = 0;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Illegal base64url character in JWT payload: " + c);
+            }
+            accumulator = (accumulator << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                dst[out++] = (byte) (accumulator >> bits);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Claims extraits d'un payload JWT.
+     */
+    public static final class Claims {
+        private final String[] names;
+        private final String[] values;
+        private List<String> roles = Collections.emptyList();
+        private long expiresAt;
+
+        private Claims(String[] names) {
+            this.names = names;
+            this.values = new String[names.length];
+        }
+
+        /**
+         * @return La valeur texte du claim configuré, ou null s'il est absent
+         */
+        public String get(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return Les rôles de {@code resource_access.<client>.roles} (liste vide si absents)
+         */
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        /**
+         * @return Le claim exp (secondes epoch), ou 0 s'il est absent
+         */
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.cache.ExpiringCache;
+import com.crm_bancaire.common.security.cache.TokenHash;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Vérifie la signature et la validité temporelle d'un token JWT brut.
+ *
+ * Les vérifications réussies sont mémorisées par empreinte SHA-256 du token jusqu'à son
+ * {@code exp}: chaque token n'est vérifié cryptographiquement qu'une fois par instance,
+ * les appels suivants ne coûtent qu'un hash et une lecture de cache.
+ *
+ * Algorithmes supportés: RS256/384/512, PS256/384/512 et ES256/384/512. {@code none} est refusé.
+ */
+public class JwtSignatureVerifier {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JwtPayloadDecoder TIMESTAMPS = new JwtPayloadDecoder("", "nbf");
+
+    private final JwksKeyProvider keyProvider;
+    private final ExpiringCache<String, Boolean> verified;
+    private final long clockSkewSeconds;
+
+    /**
+     * @param keyProvider Source des clés publiques
+     * @param cacheSize   Nombre maximum de vérifications mémorisées
+     * @param clockSkew   Tolérance d'horloge pour exp/nbf
+     */
+    public JwtSignatureVerifier(JwksKeyProvider keyProvider, int cacheSize, Duration clockSkew) {
+        this.keyProvider = keyProvider;
+        this.verified = new ExpiringCache<>(cacheSize);
+        this.clockSkewSeconds = clockSkew.getSeconds();
+    }
+
+    public ExpiringCache<String, Boolean> getVerificationCache() {
+        return verified;
+    }
+
+    /**
+     * Vérifie le token (ou retrouve une vérification déjà faite).
+     *
+     * @param token Le token JWT brut (sans "Bearer ")
+     * @throws GeneralSecurityException si la signature, l'algorithme, la clé ou les dates sont invalides
+     */
+    public void verify(String token) throws GeneralSecurityException {
+        String hash = TokenHash.sha256(token);
+        if (verified.get(hash) != null) {
+            return;
+        }
+
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0 || token.indexOf('.', second + 1) >= 0) {
+            throw new SignatureException("JWT format invalide - doit avoir 3 parties (header.payload.signature)");
+        }
+
+        JsonNode header = readHeader(token.substring(0, first));
+        String alg = header.path("alg").asText(null);
+        String kid = header.hasNonNull("kid") ? header.get("kid").asText() : null;
+
+        Algorithm algorithm = Algorithm.of(alg);
+        PublicKey key = keyProvider.getKey(kid);
+        if (key == null) {
+            throw new SignatureException("No JWKS key found for kid " + kid);
+        }
+        if (!algorithm.keyAlgorithm.equals(key.getAlgorithm())) {
+            throw new SignatureException("Key " + kid + " (" + key.getAlgorithm() + ") cannot verify " + alg);
+        }
+
+        byte[] signingInput = new byte[second];
+        for (int i = 0; i < second; i++) {
+            signingInput[i] = (byte) token.charAt(i);
+        }
+        byte[] signature = Base64.getUrlDecoder().decode(token.substring(second + 1));
+        if (algorithm.ecFieldSize > 0) {
+            signature = joseToDer(signature, algorithm.ecFieldSize);
+        }
+
+        Signature verifier = algorithm.newSignature();
+        verifier.initVerify(key);
+        verifier.update(signingInput);
+        if (!verifier.verify(signature)) {
+            throw new SignatureException("Invalid JWT signature");
+        }
+
+        long expiresAt = checkTimestamps(token);
+        verified.put(hash, Boolean.TRUE, expiresAt * 1000);
+    }
+
+    /**
+     * Vérifie exp (obligatoire) et nbf.
+     *
+     * @return Le claim exp (secondes epoch)
+     */
+    private long checkTimestamps(String token) throws SignatureException {
+        try {
+            JwtPayloadDecoder.Claims claims = TIMESTAMPS.decode(token);
+            long now = System.currentTimeMillis() / 1000;
+            long exp = claims.getExpiresAt();
+            if (exp <= 0) {
+                throw new SignatureException("JWT has no exp claim");
+            }
+            if (exp + clockSkewSeconds < now) {
+                throw new SignatureException("JWT expired at " + exp);
+            }
+            String nbf = claims.get("nbf");
+            if (nbf != null && Long.parseLong(nbf) - clockSkewSeconds > now) {
+                throw new SignatureException("JWT not valid before " + nbf);
+            }
+            return exp;
+        } catch (IOException | NumberFormatException e) {
+            throw new SignatureException("Invalid JWT payload: " + e.getMessage(), e);
+        }
+    }
+
+    private static JsonNode readHeader(String encodedHeader) throws SignatureException {
+        try {
+            return OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(encodedHeader));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SignatureException("Invalid JWT header: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convertit une signature ECDSA JOSE (R || S) au format DER attendu par le JDK.
+     */
+    private static byte[] joseToDer(byte[] jose, int fieldSize) throws SignatureException {
+        if (jose.length != 2 * fieldSize) {
+            throw new SignatureException("Invalid ECDSA signature length: " + jose.length);
+        }
+        byte[] r = derInteger(jose, 0, fieldSize);
+        byte[] s = derInteger(jose, fieldSize, fieldSize);
+        int contentLength = r.length + s.length;
+
+        byte[] der = new byte[contentLength + (contentLength >= 128 ? 3 : 2)];
+        int offset = 0;
+        der[offset++] = 0x30;
+        if (contentLength >= 128) {
+            der[offset++] = (byte) 0x81;
+        }
+        der[offset++] = (byte) contentLength;
+        System.arraycopy(r, 0, der, offset, r.length);
+        System.arraycopy(s, 0, der, offset + r.length, s.length);
+        return der;
+    }
+
+    private static byte[] derInteger(byte[] source, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end - 1 && source[start] == 0) {
+            start++;
+        }
+        boolean padding = (source[start] & 0x80) != 0;
+        int valueLength = end - start + (padding ? 1 : 0);
+
+        byte[] integer = new byte[valueLength + 2];
+        integer[0] = 0x02;
+        integer[1] = (byte) valueLength;
+        System.arraycopy(source, start, integer, padding ? 3 : 2, end - start);
+        return integer;
+    }
+
+    private enum Algorithm {
+        RS256("SHA256withRSA", "RSA", 0),
+        RS384("SHA384withRSA", "RSA", 0),
+        RS512("SHA512withRSA", "RSA", 0),
+        PS256("RSASSA-PSS", "RSA", 0),
+        PS384("RSASSA-PSS", "RSA", 0),
+        PS512("RSASSA-PSS", "RSA", 0),
+        ES256("SHA256withECDSA", "EC", 32),
+        ES384("SHA384withECDSA", "EC", 48),
+        ES512("SHA512withECDSA", "EC", 66);
+
+        final String jcaName;
+        final String keyAlgorithm;
+        final int ecFieldSize;
+
+        Algorithm(String jcaName, String keyAlgorithm, int ecFieldSize) {
+            this.jcaName = jcaName;
+            this.keyAlgorithm = keyAlgorithm;
+            this.ecFieldSize = ecFieldSize;
+        }
+
+        static Algorithm of(String alg) throws SignatureException {
+            if (alg != null) {
+                for (Algorithm algorithm : values()) {
+                    if (algorithm.name().equals(alg)) {
+                        return algorithm;
+                    }
+                }
+            }
+            throw new SignatureException("Unsupported JWT algorithm: " + alg);
+        }
+
+        Signature newSignature() throws GeneralSecurityException {
+            Signature signature = Signature.getInstance(jcaName);
+            if (jcaName.equals("RSASSA-PSS")) {
+                String digest = "SHA-" + name().substring(2);
+                int saltLength = Integer.parseInt(name().substring(2)) / 8;
+                signature.setParameter(new PSSParameterSpec(
+                    digest, "MGF1", new MGF1ParameterSpec(digest), saltLength, 1));
+            }
+            return signature;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.crm_bancaire.common.security.role;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hiérarchie de rôles immuable (ex: SUPER_ADMIN ⊃ ADMIN ⊃ AGENT ⊃ CLIENT).
+ *
+ * La fermeture transitive est calculée une seule fois à la construction, sous forme de
+ * bitsets sur un {@link RoleIndex}: pour chaque rôle, l'ensemble des rôles qui l'incluent
+ * (lui-même compris). Les règles n'ont donc qu'à déclarer le rôle minimal
+ * ({@code roles = "AGENT"}); {@link #rolesSatisfying(Collection)} les étend au démarrage
+ * et la vérification par requête reste un simple ET bit à bit.
+ *
+ * Format texte ({@link #parse(String)}): une chaîne par ligne ou séparée par {@code ;},
+ * {@code "SUPER_ADMIN > ADMIN > AGENT > CLIENT"}. Un cycle est refusé.
+ */
+public final class RoleHierarchy {
+
+    private static final RoleHierarchy NONE = new RoleHierarchy(Collections.emptyMap());
+
+    private final RoleIndex index;
+    /** Pour chaque bit: les rôles inclus (descendants, lui-même compris). */
+    private final long[][] implied;
+    /** Pour chaque bit: les rôles qui l'incluent (ancêtres, lui-même compris). */
+    private final long[][] implying;
+
+    private RoleHierarchy(Map<String, Set<String>> children) {
+        Set<String> roles = new LinkedHashSet<>(children.keySet());
+        children.values().forEach(roles::addAll);
+        this.index = RoleIndex.of(roles);
+
+        int size = index.size();
+        this.implied = new long[size][];
+        for (String role : roles) {
+            int bit = index.bitOf(role);
+            long[] mask = index.maskOf(children.getOrDefault(role, Collections.emptySet()));
+            mask[bit >>> 6] |= 1L << bit;
+            implied[bit] = mask;
+        }
+
+        // Fermeture transitive (Warshall): si i inclut k, i inclut tout ce que k inclut
+        for (int k = 0; k < size; k++) {
+            for (int i = 0; i < size; i++) {
+                if (i != k && (implied[i][k >>> 6] & (1L << k)) != 0) {
+                    or(implied[i], implied[k]);
+                }
+            }
+        }
+
+        this.implying = new long[size][];
+        for (int bit = 0; bit < size; bit++) {
+            implying[bit] = index.newMask();
+        }
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < size; k++) {
+                if ((implied[i][k >>> 6] & (1L << k)) != 0) {
+                    if (i != k && (implied[k][i >>> 6] & (1L << i)) != 0) {
+                        throw new IllegalArgumentException("Cycle in role hierarchy between "
+                            + roleAt(i) + " and " + roleAt(k));
+                    }
+                    implying[k][i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hiérarchie vide: chaque rôle n'inclut que lui-même.
+     */
+    public static RoleHierarchy none() {
+        return NONE;
+    }
+
+    /**
+     * @param children Pour chaque rôle, les rôles qu'il inclut directement
+     */
+    public static RoleHierarchy of(Map<String, ? extends Collection<String>> children) {
+        if (children.isEmpty()) {
+            return NONE;
+        }
+        Map<String, Set<String>> copy = new LinkedHashMap<>();
+        children.forEach((role, implied) -> copy.put(role, new LinkedHashSet<>(implied)));
+        return new RoleHierarchy(copy);
+    }
+
+    /**
+     * Lit une hiérarchie au format {@code "SUPER_ADMIN > ADMIN > AGENT\nADMIN > AUDITOR"}.
+     */
+    public static RoleHierarchy parse(String definition) {
+        Map<String, Set<String>> children = new LinkedHashMap<>();
+        if (definition != null) {
+            for (String chain : definition.split("[;\\n]")) {
+                String[] roles = chain.split(">");
+                for (int i = 0; i + 1 < roles.length; i++) {
+                    String parent = roles[i].trim();
+                    String child = roles[i + 1].trim();
+                    if (parent.isEmpty() || child.isEmpty()) {
+                        throw new IllegalArgumentException("Invalid role hierarchy: " + chain.trim());
+                    }
+                    children.computeIfAbsent(parent, key -> new LinkedHashSet<>()).add(child);
+                }
+            }
+        }
+        return children.isEmpty() ? NONE : new RoleHierarchy(children);
+    }
+
+    public boolean isEmpty() {
+        return index.size() == 0;
+    }
+
+    /**
+     * Étend des rôles requis à tous les rôles qui les incluent.
+     * Ex: {@code [AGENT]} → {@code [AGENT, ADMIN, SUPER_ADMIN]}.
+     */
+    public Set<String> rolesSatisfying(Collection<String> required) {
+        return collect(required, implying);
+    }
+
+    /**
+     * Étend des rôles accordés à tous les rôles qu'ils incluent.
+     * Ex: {@code [ADMIN]} → {@code [ADMIN, AGENT, CLIENT]}.
+     */
+    public Set<String> reachableRoles(Collection<String> granted) {
+        return collect(granted, implied);
+    }
+
+    /**
+     * Indique si l'un des rôles accordés inclut le rôle requis (ou lui est égal).
+     */
+    public boolean implies(Collection<String> granted, String required) {
+        int bit = index.bitOf(required);
+        if (bit < 0) {
+            return required != null && granted.contains(required);
+        }
+        long[] satisfying = implying[bit];
+        for (String role : granted) {
+            if (index.matches(satisfying, role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<String> collect(Collection<String> roles, long[][] closure) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String role : roles) {
+            if (role == null) {
+                continue;
+            }
+            result.add(role);
+            int bit = index.bitOf(role);
+            if (bit >= 0) {
+                addAll(result, closure[bit]);
+            }
+        }
+        return result;
+    }
+
+    private void addAll(Set<String> result, long[] mask) {
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                result.add(roleAt((word << 6) + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private String roleAt(int bit) {
+        return index.roleAt(bit);
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= source[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        List<String> edges = new ArrayList<>();
+        for (String role : index.roles()) {
+            Set<String> implied = reachableRoles(List.of(role));
+            implied.remove(role);
+            if (!implied.isEmpty()) {
+                edges.add(role + " > " + implied);
+            }
+        }
+        return "RoleHierarchy" + edges;
+    }
+}
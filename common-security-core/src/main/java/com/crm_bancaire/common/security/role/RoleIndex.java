@@ -0,0 +1,143 @@
+package com.crm_bancaire.common.security.role;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dictionnaire immuable qui associe chaque nom de rôle à une position de bit.
+ *
+ * Les ensembles de rôles requis sont pré-calculés une seule fois sous forme de
+ * bitsets ({@code long[]}), ce qui réduit la vérification d'un rôle à une
+ * recherche dans une map suivie d'un ET bit à bit.
+ *
+ * Un rôle inconnu de l'index n'a pas de bit : il ne peut donc satisfaire aucun masque.
+ */
+public final class RoleIndex {
+
+    private static final RoleIndex EMPTY = new RoleIndex(Collections.emptyMap());
+
+    private final Map<String, Integer> bits;
+    private final Map<String, Integer> authorityBits;
+    private final String[] names;
+    private final int words;
+
+    private RoleIndex(Map<String, Integer> bits) {
+        this.bits = bits;
+        this.authorityBits = new HashMap<>(bits.size() * 2);
+        bits.forEach((role, bit) -> authorityBits.put("ROLE_" + role, bit));
+        this.names = new String[bits.size()];
+        bits.forEach((role, bit) -> names[bit] = role);
+        this.words = Math.max(1, (bits.size() + 63) >>> 6);
+    }
+
+    /**
+     * Construit un index à partir des rôles donnés (doublons et null ignorés).
+     */
+    public static RoleIndex of(Collection<String> roles) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String role : roles) {
+            if (role != null) {
+                distinct.add(role);
+            }
+        }
+        if (distinct.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, Integer> bits = new HashMap<>(distinct.size() * 2);
+        int bit = 0;
+        for (String role : distinct) {
+            bits.put(role, bit++);
+        }
+        return new RoleIndex(bits);
+    }
+
+    public static RoleIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return bits.size();
+    }
+
+    public Set<String> roles() {
+        return Collections.unmodifiableSet(bits.keySet());
+    }
+
+    /**
+     * @return La position du bit pour ce rôle, ou -1 s'il est inconnu
+     */
+    public int bitOf(String role) {
+        if (role == null) {
+            return -1;
+        }
+        Integer bit = bits.get(role);
+        return bit != null ? bit : -1;
+    }
+
+    /**
+     * @return Le rôle associé à cette position de bit
+     */
+    public String roleAt(int bit) {
+        return names[bit];
+    }
+
+    /**
+     * Crée un masque vide dimensionné pour cet index.
+     */
+    public long[] newMask() {
+        return new long[words];
+    }
+
+    /**
+     * Calcule le masque correspondant à un ensemble de rôles.
+     */
+    public long[] maskOf(Collection<String> roles) {
+        long[] mask = newMask();
+        for (String role : roles) {
+            int bit = bitOf(role);
+            if (bit >= 0) {
+                mask[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Indique si le rôle donné est présent dans le masque.
+     */
+    public boolean matches(long[] mask, String role) {
+        int bit = bitOf(role);
+        return bit >= 0 && (mask[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Comme {@link #matches(long[], String)} pour une authority Spring Security ({@code ROLE_XXX} ou {@code XXX}),
+     * sans allouer de chaîne pour retirer le préfixe.
+     */
+    public boolean matchesAuthority(long[] mask, String authority) {
+        if (authority == null) {
+            return false;
+        }
+        Integer bit = authorityBits.get(authority);
+        if (bit == null) {
+            bit = bits.get(authority);
+        }
+        return bit != null && (mask[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Indique si au moins un des rôles donnés est présent dans le masque.
+     */
+    public boolean matchesAny(long[] mask, Collection<String> roles) {
+        for (String role : roles) {
+            if (matches(mask, role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+package com.crm_bancaire.common.security.condition;
+
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleConditionTest {
+
+    private static final Map<String, String> TENANT_PATH = Map.of("tenant", "t1");
+
+    @Test
+    void comparisonWithBothOperands() {
+        RuleCondition condition = compile("claim.tenant == path.tenant");
+
+        assertThat(condition.test(TENANT_PATH, Map.of("tenant", "t1"), List.of())).isTrue();
+        assertThat(condition.test(TENANT_PATH, Map.of("tenant", "t2"), List.of())).isFalse();
+    }
+
+    @Test
+    void missingOperandNeverGrants() {
+        assertThat(compile("claim.tenant == path.tenant").test(TENANT_PATH, Map.of(), List.of())).isFalse();
+        assertThat(compile("claim.tenant != path.tenant").test(TENANT_PATH, Map.of(), List.of())).isFalse();
+    }
+
+    @Test
+    void notOfMissingOperandDenies() {
+        assertThat(compile("not (claim.tenant == path.tenant)").test(TENANT_PATH, Map.of(), List.of())).isFalse();
+        assertThat(compile("!(claim.tenant != path.tenant)").test(TENANT_PATH, Map.of(), List.of())).isFalse();
+        assertThat(compile("not not (claim.tenant == path.tenant)").test(TENANT_PATH, Map.of(), List.of())).isFalse();
+        assertThat(compile("not (claim.tenant == path.tenant)").test(TENANT_PATH, Map.of("tenant", "t2"), List.of()))
+            .isTrue();
+    }
+
+    @Test
+    void unknownPropagatesThroughAndOr() {
+        RuleCondition negatedOr = compile("not (claim.tenant == path.tenant or claim.region == 'eu')");
+        RuleCondition negatedAnd = compile("not (claim.tenant == path.tenant and claim.region == 'eu')");
+
+        // tenant inconnu, region différente: "? or false" reste inconnu
+        assertThat(negatedOr.test(TENANT_PATH, Map.of("region", "us"), List.of())).isFalse();
+        // "? and false" est faux quelle que soit la valeur manquante
+        assertThat(negatedAnd.test(TENANT_PATH, Map.of("region", "us"), List.of())).isTrue();
+        // "? and true" reste inconnu
+        assertThat(negatedAnd.test(TENANT_PATH, Map.of("region", "eu"), List.of())).isFalse();
+    }
+
+    @Test
+    void knownBranchDecidesDespiteMissingOperand() {
+        RuleCondition condition = compile("role('ADMIN') or path.id == claim.sub");
+
+        assertThat(condition.test(Map.of(), Map.of(), List.of("ADMIN"))).isTrue();
+        assertThat(condition.test(Map.of(), Map.of(), List.of("CLIENT"))).isFalse();
+        assertThat(condition.test(Map.of("id", "u1"), Map.of("sub", "u1"), List.of("CLIENT"))).isTrue();
+    }
+
+    @Test
+    void roleUsesHierarchy() {
+        RuleCondition condition = RuleCondition.compile("role('AGENT')", RoleHierarchy.parse("ADMIN > AGENT"));
+
+        assertThat(condition.test(Map.of(), Map.of(), List.of("ADMIN"))).isTrue();
+        assertThat(condition.test(Map.of(), Map.of(), List.of("CLIENT"))).isFalse();
+    }
+
+    @Test
+    void invalidExpressionIsRejected() {
+        assertThatThrownBy(() -> compile("path.id = claim.sub")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compile("claim.sub == 'open")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compile("(role('ADMIN')")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RuleCondition compile(String expression) {
+        return RuleCondition.compile(expression, RoleHierarchy.none());
+    }
+}
@@ -0,0 +1,87 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.dto.EndpointPermission;
+import com.crm_bancaire.common.security.dto.EndpointRule;
+import com.crm_bancaire.common.security.gateway.RuleSnapshot.CompiledRule;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleSnapshotTest {
+
+    @Test
+    void rolesAreExpandedThroughHierarchy() {
+        RuleSnapshot snapshot = compile(rule("/api/users/{id}", List.of("GET"), List.of("AGENT"), false));
+
+        CompiledRule rule = snapshot.match("/api/users/42", "GET");
+
+        assertThat(rule).isNotNull();
+        assertThat(snapshot.allows(rule, List.of("ADMIN"))).isTrue();
+        assertThat(snapshot.allows(rule, List.of("CLIENT"))).isFalse();
+        assertThat(snapshot.match("/api/users/42", "DELETE")).isNull();
+    }
+
+    @Test
+    void invalidPathDeniesItsLiteralPrefixInsteadOfBeingDropped() {
+        RuleSnapshot snapshot = compile(
+            rule("/api/users/{id:(}/orders", List.of("GET"), List.of("ADMIN"), false),
+            rule("/api/users/{id}", List.of("GET"), List.of("CLIENT"), false));
+
+        CompiledRule rule = snapshot.match("/api/users/42/orders", "GET");
+
+        assertThat(rule).isNotNull();
+        assertThat(rule.isInvalid()).isTrue();
+        assertThat(rule.getPattern()).isEqualTo("/api/users/**");
+        assertThat(snapshot.allows(rule, List.of("ADMIN"))).isFalse();
+        assertThat(snapshot.decide(rule, List.of("ADMIN"))).isEqualTo(EndpointPermission.Decision.DENIED);
+        assertThat(rule.getCondition().test(Map.of(), Map.of(), List.of("ADMIN"))).isFalse();
+        assertThat(snapshot.isKnownPath("/api/users/42/orders")).isTrue();
+        // Autre méthode: la règle invalide ne s'applique pas
+        assertThat(snapshot.match("/api/users/42/orders", "POST")).isNull();
+    }
+
+    @Test
+    void invalidPublicPathIsNotPublic() {
+        RuleSnapshot snapshot = compile(rule("/public/{page", List.of("GET"), null, true));
+
+        CompiledRule rule = snapshot.match("/public/home", "GET");
+
+        assertThat(rule.isPublic()).isFalse();
+        assertThat(rule.getCacheTtl()).isZero();
+        assertThat(snapshot.manifest(List.of("ADMIN"))).isEmpty();
+    }
+
+    @Test
+    void invalidConditionDeniesAll() {
+        RuleSnapshot snapshot = compile(EndpointRule.builder()
+            .basePath("/api/accounts").path("/{id}").methods(List.of("GET")).roles(List.of("CLIENT"))
+            .condition("path.id = claim.sub")
+            .build());
+
+        CompiledRule rule = snapshot.match("/api/accounts/a1", "GET");
+
+        assertThat(rule.getCondition().test(Map.of("id", "a1"), Map.of("sub", "a1"), List.of("CLIENT"))).isFalse();
+    }
+
+    private static RuleSnapshot compile(EndpointRule... rules) {
+        Map<String, List<EndpointRule>> byService = new LinkedHashMap<>();
+        byService.put("user-service", List.of(rules));
+        return RuleSnapshot.compile(byService, RoleHierarchy.parse("ADMIN > AGENT"), 1);
+    }
+
+    private static EndpointRule rule(String path, List<String> methods, List<String> roles, boolean isPublic) {
+        return EndpointRule.builder()
+            .basePath("")
+            .path(path)
+            .methods(methods)
+            .roles(roles)
+            .isPublic(isPublic)
+            .cacheTtl(isPublic ? 60 : 0)
+            .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.crm_bancaire.common.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtSignatureVerifierTest {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final KeyPair rsa = generate("RSA", null);
+    private final KeyPair ec = generate("EC", "secp256r1");
+
+    @Test
+    void validRs256TokenIsAccepted() {
+        JwtSignatureVerifier verifier = verifier(jwks());
+
+        String token = sign("RS256", "SHA256withRSA", rsa.getPrivate(), "rsa-1", payload(future()));
+
+        assertThatCode(() -> verifier.verify(token)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void validEs256TokenIsAccepted() {
+        JwtSignatureVerifier verifier = verifier(jwks());
+
+        // Signature JOSE (R || S) directement produite par le JDK
+        String token = sign("ES256", "SHA256withECDSAinP1363Format", ec.getPrivate(), "ec-1", payload(future()));
+
+        assertThatCode(() -> verifier.verify(token)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        JwtSignatureVerifier verifier = verifier(jwks());
+        String token = sign("RS256", "SHA256withRSA", rsa.getPrivate(), "rsa-1", payload(future()));
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + encode("{\"sub\":\"admin\",\"exp\":" + future() + "}") + "." + parts[2];
+
+        assertThatThrownBy(() -> verifier.verify(forged)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void algNoneIsRejected() {
+        JwtSignatureVerifier verifier = verifier(jwks());
+        String token = encode("{\"alg\":\"none\",\"kid\":\"rsa-1\"}") + "." + encode(payload(future())) + ".";
+
+        assertThatThrownBy(() -> verifier.verify(token))
+            .isInstanceOf(SignatureException.class)
+            .hasMessageContaining("none");
+    }
+
+    @Test
+    void keyOfAnotherTypeIsRejected() {
+        JwtSignatureVerifier verifier = verifier(jwks());
+        // Header ES256 pointant vers la clé RSA: confusion d'algorithme
+        String token = sign("ES256", "SHA256withECDSAinP1363Format", ec.getPrivate(), "rsa-1", payload(future()));
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void unknownKidIsRejectedWithoutHammeringJwks() {
+        AtomicInteger loads = new AtomicInteger();
+        String jwks = jwks();
+        JwtSignatureVerifier verifier = new JwtSignatureVerifier(
+            new JwksKeyProvider(() -> {
+                loads.incrementAndGet();
+                return jwks;
+            }, Duration.ofHours(1), Duration.ofMinutes(1)),
+            100, Duration.ZERO);
+        String token = sign("RS256", "SHA256withRSA", rsa.getPrivate(), "rotated", payload(future()));
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(SignatureException.class);
+        // Le rechargement pour un kid inconnu est limité par minRefreshInterval
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtSignatureVerifier verifier = verifier(jwks());
+        long past = System.currentTimeMillis() / 1000 - 60;
+        String token = sign("RS256", "SHA256withRSA", rsa.getPrivate(), "rsa-1", payload(past));
+
+        assertThatThrownBy(() -> verifier.verify(token))
+            .isInstanceOf(SignatureException.class)
+            .hasMessageContaining("expired");
+    }
+
+    @Test
+    void tokenWithoutExpIsRejected() {
+        JwtSignatureVerifier verifier = verifier(jwks());
+        String token = sign("RS256", "SHA256withRSA", rsa.getPrivate(), "rsa-1", "{\"sub\":\"user-1\"}");
+
+        assertThatThrownBy(() -> verifier.verify(token))
+            .isInstanceOf(SignatureException.class)
+            .hasMessageContaining("exp");
+    }
+
+    @Test
+    void successfulVerificationIsCached() throws GeneralSecurityException {
+        JwtSignatureVerifier verifier = verifier(jwks());
+        String token = sign("RS256", "SHA256withRSA", rsa.getPrivate(), "rsa-1", payload(future()));
+
+        verifier.verify(token);
+
+        assertThat(verifier.getVerificationCache().size()).isEqualTo(1);
+        verifier.verify(token);
+        assertThat(verifier.getVerificationCache().size()).isEqualTo(1);
+    }
+
+    private static JwtSignatureVerifier verifier(String jwks) {
+        return new JwtSignatureVerifier(
+            new JwksKeyProvider(JwksKeyProvider.fromJson(jwks), Duration.ofHours(1), Duration.ZERO),
+            100, Duration.ZERO);
+    }
+
+    private String jwks() {
+        RSAPublicKey rsaKey = (RSAPublicKey) rsa.getPublic();
+        ECPublicKey ecKey = (ECPublicKey) ec.getPublic();
+        return "{\"keys\":["
+            + "{\"kty\":\"RSA\",\"kid\":\"rsa-1\",\"use\":\"sig\","
+            + "\"n\":\"" + unsigned(rsaKey.getModulus(), 0) + "\","
+            + "\"e\":\"" + unsigned(rsaKey.getPublicExponent(), 0) + "\"},"
+            + "{\"kty\":\"EC\",\"kid\":\"ec-1\",\"crv\":\"P-256\","
+            + "\"x\":\"" + unsigned(ecKey.getW().getAffineX(), 32) + "\","
+            + "\"y\":\"" + unsigned(ecKey.getW().getAffineY(), 32) + "\"}"
+            + "]}";
+    }
+
+    private static String sign(String alg, String jcaName, PrivateKey key, String kid, String payload) {
+        String signingInput = encode("{\"alg\":\"" + alg + "\",\"kid\":\"" + kid + "\"}") + "." + encode(payload);
+        try {
+            Signature signature = Signature.getInstance(jcaName);
+            signature.initSign(key);
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + BASE64URL.encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String payload(long exp) {
+        return "{\"sub\":\"user-1\",\"exp\":" + exp + "}";
+    }
+
+    private static long future() {
+        return System.currentTimeMillis() / 1000 + 300;
+    }
+
+    private static String encode(String json) {
+        return BASE64URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Entier non signé en base64url, complété à {@code length} octets si demandé (coordonnées EC).
+     */
+    private static String unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64URL.encodeToString(bytes);
+    }
+
+    private static KeyPair generate(String algorithm, String curve) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+            if (curve != null) {
+                generator.initialize(new ECGenParameterSpec(curve));
+            } else {
+                generator.initialize(2048);
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -20,4 +20,22 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface PublicEndpoint {
+
+    /**
+     * Nombre maximum de requêtes par adresse IP cliente sur {@link #rateLimitPeriod()},
+     * appliqué par le Gateway (429 au-delà). 0 = pas de limite.
+     */
+    int rateLimit() default 0;
+
+    /**
+     * Fenêtre de la limite, en secondes
+     */
+    int rateLimitPeriod() default 60;
+
+    /**
+     * Durée (secondes) pendant laquelle le Gateway sert la réponse d'un GET depuis sa mémoire,
+     * sans appeler le service. 0 = pas de cache. Réservé aux données de référence identiques
+     * pour tous les utilisateurs (listes d'agences, catalogues...).
+     */
+    int cacheTtl() default 0;
 }
@@ -0,0 +1,56 @@
+package com.crm_bancaire.common.security.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation pour sécuriser un endpoint avec des rôles spécifiques
+ *
+ * Exemple d'utilisation :
+ * <pre>
+ * @GetMapping("/users")
+ * @SecuredEndpoint(roles = {"ADMIN", "SUPER_ADMIN"})
+ * public List<UserResponse> getAllUsers() {
+ *     return userService.getAllUsers();
+ * }
+ *
+ * // Un client ne lit que sa propre fiche
+ * @GetMapping("/customers/{id}")
+ * @SecuredEndpoint(roles = "CLIENT", condition = "path.id == claim.sub")
+ *
+ * // Export coûteux: 10 requêtes par minute et par utilisateur
+ * @GetMapping("/export")
+ * @SecuredEndpoint(roles = "ADMIN", rateLimit = 10, rateLimitPeriod = 60)
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SecuredEndpoint {
+    /**
+     * Rôles autorisés à accéder à cet endpoint
+     * Utilisez les noms de rôles comme String (ex: "ADMIN", "SUPER_ADMIN", "CLIENT")
+     */
+    String[] roles();
+
+    /**
+     * Condition supplémentaire sur les variables du chemin et les claims du token, évaluée par le
+     * Gateway (et par le service si l'enforcement est activé). Vide = aucune condition.
+     *
+     * Ex: {@code "path.id == claim.sub"}, {@code "role('ADMIN') or path.customerId == claim.sub"}.
+     * Grammaire: voir {@link com.crm_bancaire.common.security.condition.RuleCondition}.
+     */
+    String condition() default "";
+
+    /**
+     * Nombre maximum de requêtes par utilisateur ({@code sub}) sur {@link #rateLimitPeriod()},
+     * appliqué par le Gateway (429 au-delà). 0 = pas de limite.
+     */
+    int rateLimit() default 0;
+
+    /**
+     * Fenêtre de la limite, en secondes
+     */
+    int rateLimitPeriod() default 60;
+}
@@ -0,0 +1,43 @@
+package com.crm_bancaire.common.security.autoconfigure;
+
+import com.crm_bancaire.common.security.annotation.PublicEndpoint;
+import com.crm_bancaire.common.security.annotation.SecuredEndpoint;
+import com.crm_bancaire.common.security.dto.EndpointPermission;
+import com.crm_bancaire.common.security.dto.EndpointRule;
+import com.crm_bancaire.common.security.dto.SecurityRules;
+import com.crm_bancaire.common.security.gateway.HeavyHitterTracker;
+import com.crm_bancaire.common.security.gateway.PermissionController;
+import com.crm_bancaire.common.security.gateway.ShadowRuleEvaluator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Hints GraalVM native image / AOT (enregistrés par {@code META-INF/spring/aot.factories}):
+ * - Sérialisation Jackson des DTOs échangés entre services et Gateway ({@code /security/rules},
+ *   permissions, heavy hitters, shadow)
+ * - Annotations lues par {@link com.crm_bancaire.common.security.scanner.SecurityRulesScanner}
+ *
+ * Les controllers annotés eux-mêmes sont couverts par
+ * {@link com.crm_bancaire.common.security.scanner.SecuredControllerAotProcessor}.
+ */
+public class CommonSecurityRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+            SecurityRules.class,
+            EndpointRule.class,
+            EndpointPermission.class,
+            PermissionController.PermissionRequest.class,
+            HeavyHitterTracker.HeavyHitter.class,
+            ShadowRuleEvaluator.Diff.class);
+
+        hints.reflection()
+            .registerType(SecuredEndpoint.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+            .registerType(PublicEndpoint.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
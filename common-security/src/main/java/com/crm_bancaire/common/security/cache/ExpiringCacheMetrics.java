@@ -0,0 +1,48 @@
+package com.crm_bancaire.common.security.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Expose les statistiques d'un {@link ExpiringCache} dans Micrometer,
+ * avec les noms standards {@code cache.gets}, {@code cache.evictions} et {@code cache.size}.
+ *
+ * Les compteurs sont lus à la demande: aucun coût sur le chemin critique du cache.
+ */
+public class ExpiringCacheMetrics implements MeterBinder {
+
+    private final ExpiringCache<?, ?> cache;
+    private final String cacheName;
+
+    public ExpiringCacheMetrics(ExpiringCache<?, ?> cache, String cacheName) {
+        this.cache = cache;
+        this.cacheName = cacheName;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", cache, ExpiringCache::getHitCount)
+            .tag("cache", cacheName)
+            .tag("result", "hit")
+            .description("Number of cache hits")
+            .register(registry);
+
+        FunctionCounter.builder("cache.gets", cache, ExpiringCache::getMissCount)
+            .tag("cache", cacheName)
+            .tag("result", "miss")
+            .description("Number of cache misses")
+            .register(registry);
+
+        FunctionCounter.builder("cache.evictions", cache, ExpiringCache::getEvictionCount)
+            .tag("cache", cacheName)
+            .description("Number of cache evictions")
+            .register(registry);
+
+        Gauge.builder("cache.size", cache, ExpiringCache::size)
+            .tag("cache", cacheName)
+            .description("Number of entries in the cache")
+            .register(registry);
+    }
+}
@@ -40,18 +40,30 @@ import java.lang.annotation.*;
  * &#64;EnableUserContext(pathPatterns = {"/api/**", "/internal/**"})
  * </pre>
  *
+ * Services WebFlux: la même annotation configure {@link ReactiveUserContext}
+ * (Mono API alimentée par le Context Reactor):
+ * <pre>
+ * ReactiveUserContext.currentActor().map(ActorInfo::getEmail);
+ * </pre>
+ *
+ * Appliquer aussi {@code @SecuredEndpoint} dans le service (appels inter-services):
+ * <pre>
+ * &#64;EnableUserContext(enforceSecuredEndpoints = true)
+ * </pre>
+ *
  * Pour un provider OAuth2 différent de Keycloak:
  * - Créez un @Component qui implémente {@link com.crm_bancaire.common.security.jwt.JwtClaimExtractor}
  * - Il remplacera automatiquement l'implémentation par défaut
  *
  * @see UserContext
+ * @see ReactiveUserContext
  * @see com.crm_bancaire.common.security.interceptor.JwtUserInterceptor
  * @see com.crm_bancaire.common.security.jwt.JwtClaimExtractor
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Import(UserContextAutoConfiguration.class)
+@Import({UserContextAutoConfiguration.class, ReactiveUserContextAutoConfiguration.class})
 public @interface EnableUserContext {
 
     /**
@@ -61,4 +73,13 @@ public @interface EnableUserContext {
      * @return Les patterns de chemins (Ant-style)
      */
     String[] pathPatterns() default {"/api/**"};
+
+    /**
+     * Applique les rôles de {@code @SecuredEndpoint} dans le service lui-même,
+     * en plus du Gateway (utile pour les appels inter-services qui ne passent pas par lui).
+     * Par défaut: false (Spring MVC uniquement)
+     *
+     * @return true pour activer {@link com.crm_bancaire.common.security.interceptor.SecuredEndpointInterceptor}
+     */
+    boolean enforceSecuredEndpoints() default false;
 }
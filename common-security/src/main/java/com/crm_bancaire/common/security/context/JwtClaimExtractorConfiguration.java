@@ -0,0 +1,252 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.cache.ExpiringCacheMetrics;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderJwtClaimExtractor;
+import com.crm_bancaire.common.security.jwt.JwksKeyProvider;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import com.crm_bancaire.common.security.jwt.JwtSignatureVerifier;
+import com.crm_bancaire.common.security.jwt.KeycloakJwtClaimExtractor;
+import com.crm_bancaire.common.security.jwt.OpaqueTokenClaimExtractor;
+import com.crm_bancaire.common.security.jwt.VerifyingJwtClaimExtractor;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration commune de l'extraction JWT, partagée par les stacks Servlet
+ * ({@link UserContextAutoConfiguration}) et WebFlux ({@link ReactiveUserContextAutoConfiguration}).
+ *
+ * Elle configure:
+ * - Le {@link JwtClaimExtractor} par défaut (Keycloak)
+ * - La hiérarchie de rôles ({@code common.security.roles.hierarchy})
+ * - Le mode vérifié (signature JWKS) si {@code common.security.jwt.verification.enabled=true}
+ * - La lecture du header d'identité du Gateway si {@code common.security.identity-header.enabled=true}
+ * - L'introspection des tokens opaques si {@code common.security.opaque-token.enabled=true}
+ * - Les métriques des caches de tokens si Micrometer est présent
+ */
+@Configuration
+@Slf4j
+public class JwtClaimExtractorConfiguration {
+
+    /**
+     * Bean JwtClaimExtractor par défaut (Keycloak).
+     * Si l'utilisateur crée son propre @Component JwtClaimExtractor, celui-ci sera ignoré.
+     */
+    @Bean
+    @ConditionalOnMissingBean(JwtClaimExtractor.class)
+    public JwtClaimExtractor jwtClaimExtractor(
+            @Value("${common.security.jwt.cache-size:" + KeycloakJwtClaimExtractor.DEFAULT_CACHE_SIZE + "}") int cacheSize,
+            @Value("${common.security.jwt.client-id:" + KeycloakJwtClaimExtractor.DEFAULT_CLIENT_NAME + "}") String clientId) {
+        log.info("🔧 Using default KeycloakJwtClaimExtractor (client: {}, token cache size: {})", clientId, cacheSize);
+        return new KeycloakJwtClaimExtractor(cacheSize, clientId);
+    }
+
+    /**
+     * Hiérarchie de rôles, ex: {@code common.security.roles.hierarchy=SUPER_ADMIN > ADMIN > AGENT > CLIENT}.
+     * Utilisée par {@link UserContext#hasRole(String)} et par l'enforcement de @SecuredEndpoint.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RoleHierarchy roleHierarchy(@Value("${common.security.roles.hierarchy:}") String hierarchy) {
+        RoleHierarchy roleHierarchy = RoleHierarchy.parse(hierarchy);
+        if (!roleHierarchy.isEmpty()) {
+            log.info("🔧 Using role hierarchy: {}", roleHierarchy);
+        }
+        UserContext.setRoleHierarchy(roleHierarchy);
+        return roleHierarchy;
+    }
+
+    /**
+     * Mode vérifié: la signature des tokens bruts est vérifiée avec le JWKS avant extraction.
+     * Activation: {@code common.security.jwt.verification.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.jwt.verification", name = "enabled", havingValue = "true")
+    static class JwtVerificationConfiguration {
+
+        @Bean
+        public JwtSignatureVerifier jwtSignatureVerifier(
+                @Value("${common.security.jwt.verification.jwk-set-uri:${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}}") String jwkSetUri,
+                @Value("${common.security.jwt.verification.jwk-set-file:}") String jwkSetFile,
+                @Value("${common.security.jwt.verification.refresh-interval:600000}") long refreshInterval,
+                @Value("${common.security.jwt.verification.cache-size:10000}") int cacheSize,
+                @Value("${common.security.jwt.verification.clock-skew:30}") long clockSkewSeconds) {
+
+            JwksKeyProvider.JwksSource source;
+            if (!jwkSetFile.isBlank()) {
+                log.info("🔧 Configuring JWT verification with local JWKS file: {}", jwkSetFile);
+                source = JwksKeyProvider.fromFile(Path.of(jwkSetFile));
+            } else if (!jwkSetUri.isBlank()) {
+                log.info("🔧 Configuring JWT verification with JWKS URI: {}", jwkSetUri);
+                source = JwksKeyProvider.fromUri(URI.create(jwkSetUri));
+            } else {
+                throw new IllegalStateException("common.security.jwt.verification.enabled=true requires "
+                    + "common.security.jwt.verification.jwk-set-uri or jwk-set-file");
+            }
+
+            JwksKeyProvider keyProvider = new JwksKeyProvider(
+                source, Duration.ofMillis(refreshInterval), Duration.ofSeconds(30));
+            return new JwtSignatureVerifier(keyProvider, cacheSize, Duration.ofSeconds(clockSkewSeconds));
+        }
+
+        /**
+         * Enveloppe le JwtClaimExtractor (par défaut ou custom) dans un {@link VerifyingJwtClaimExtractor}.
+         */
+        @Bean
+        static BeanPostProcessor verifyingJwtClaimExtractorPostProcessor(ObjectProvider<JwtSignatureVerifier> verifier) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof JwtClaimExtractor extractor && !(bean instanceof VerifyingJwtClaimExtractor)) {
+                        log.info("🔧 Enabling signature verification for JwtClaimExtractor '{}'", beanName);
+                        return new VerifyingJwtClaimExtractor(extractor, verifier.getObject());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Header d'identité compact du Gateway: l'acteur est lu sans décoder le JWT.
+     * Activation: {@code common.security.identity-header.enabled=true} (même secret que le Gateway).
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.identity-header", name = "enabled", havingValue = "true")
+    static class IdentityHeaderConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public IdentityHeaderCodec identityHeaderCodec(
+                @Value("${common.security.identity-header.secret}") String secret,
+                @Value("${common.security.identity-header.ttl:300}") long ttlSeconds) {
+            return new IdentityHeaderCodec(secret.getBytes(StandardCharsets.UTF_8), Duration.ofSeconds(ttlSeconds));
+        }
+
+        /**
+         * Enveloppe le JwtClaimExtractor (par défaut ou custom) dans un {@link IdentityHeaderJwtClaimExtractor}.
+         */
+        @Bean
+        static BeanPostProcessor identityHeaderJwtClaimExtractorPostProcessor(ObjectProvider<IdentityHeaderCodec> codec) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof JwtClaimExtractor extractor && !(bean instanceof IdentityHeaderJwtClaimExtractor)) {
+                        log.info("🔧 Enabling gateway identity header for JwtClaimExtractor '{}'", beanName);
+                        return new IdentityHeaderJwtClaimExtractor(extractor, codec.getObject());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Tokens opaques: introspection RFC 7662 avec cache, les JWT restent décodés localement.
+     * Activation: {@code common.security.opaque-token.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.opaque-token", name = "enabled", havingValue = "true")
+    static class OpaqueTokenConfiguration {
+
+        /**
+         * Enveloppe le JwtClaimExtractor (par défaut ou custom) dans un {@link OpaqueTokenClaimExtractor}.
+         */
+        @Bean
+        static BeanPostProcessor opaqueTokenClaimExtractorPostProcessor(Environment environment) {
+            String introspectionUri = environment.getProperty("common.security.opaque-token.introspection-uri",
+                environment.getProperty("spring.security.oauth2.resourceserver.opaquetoken.introspection-uri", ""));
+            String clientId = environment.getProperty("common.security.opaque-token.client-id",
+                environment.getProperty("spring.security.oauth2.resourceserver.opaquetoken.client-id", ""));
+            String clientSecret = environment.getProperty("common.security.opaque-token.client-secret",
+                environment.getProperty("spring.security.oauth2.resourceserver.opaquetoken.client-secret", ""));
+            int cacheSize = environment.getProperty("common.security.opaque-token.cache-size", Integer.class,
+                OpaqueTokenClaimExtractor.DEFAULT_CACHE_SIZE);
+            Duration maxTtl = Duration.ofSeconds(
+                environment.getProperty("common.security.opaque-token.max-ttl", Long.class, 300L));
+            Duration negativeTtl = Duration.ofSeconds(
+                environment.getProperty("common.security.opaque-token.negative-ttl", Long.class, 30L));
+            if (introspectionUri.isBlank()) {
+                throw new IllegalStateException("common.security.opaque-token.enabled=true requires "
+                    + "common.security.opaque-token.introspection-uri");
+            }
+
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof JwtClaimExtractor extractor && !(bean instanceof OpaqueTokenClaimExtractor)) {
+                        log.info("🔧 Enabling opaque token introspection for JwtClaimExtractor '{}' ({})",
+                            beanName, introspectionUri);
+                        return new OpaqueTokenClaimExtractor(extractor, URI.create(introspectionUri),
+                            clientId, clientSecret, cacheSize, maxTtl, negativeTtl);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Métriques hit/miss des caches de tokens, seulement si Micrometer est présent.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    static class TokenCacheMetricsConfiguration {
+
+        @Bean
+        public ExpiringCacheMetrics jwtTokenCacheMetrics(JwtClaimExtractor jwtClaimExtractor) {
+            JwtClaimExtractor extractor = jwtClaimExtractor;
+            while (true) {
+                if (extractor instanceof VerifyingJwtClaimExtractor verifying) {
+                    extractor = verifying.getDelegate();
+                } else if (extractor instanceof IdentityHeaderJwtClaimExtractor identityHeader) {
+                    extractor = identityHeader.getDelegate();
+                } else if (extractor instanceof OpaqueTokenClaimExtractor opaque) {
+                    extractor = opaque.getDelegate();
+                } else {
+                    break;
+                }
+            }
+            if (extractor instanceof KeycloakJwtClaimExtractor keycloak && keycloak.getTokenCache() != null) {
+                return new ExpiringCacheMetrics(keycloak.getTokenCache(), "jwt-actor");
+            }
+            return null;
+        }
+
+        @Bean
+        public ExpiringCacheMetrics opaqueTokenCacheMetrics(JwtClaimExtractor jwtClaimExtractor) {
+            JwtClaimExtractor extractor = jwtClaimExtractor;
+            while (true) {
+                if (extractor instanceof OpaqueTokenClaimExtractor opaque) {
+                    return new ExpiringCacheMetrics(opaque.getIntrospectionCache(), "opaque-token");
+                } else if (extractor instanceof VerifyingJwtClaimExtractor verifying) {
+                    extractor = verifying.getDelegate();
+                } else if (extractor instanceof IdentityHeaderJwtClaimExtractor identityHeader) {
+                    extractor = identityHeader.getDelegate();
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        @Bean
+        public ExpiringCacheMetrics jwtVerificationCacheMetrics(ObjectProvider<JwtSignatureVerifier> jwtSignatureVerifier) {
+            JwtSignatureVerifier verifier = jwtSignatureVerifier.getIfAvailable();
+            return verifier != null ? new ExpiringCacheMetrics(verifier.getVerificationCache(), "jwt-verification") : null;
+        }
+    }
+}
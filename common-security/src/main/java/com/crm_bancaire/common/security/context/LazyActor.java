@@ -0,0 +1,201 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Référence légère vers l'identité de la requête courante, décodée seulement à la demande.
+ *
+ * {@link com.crm_bancaire.common.security.interceptor.JwtUserInterceptor} ne stocke que
+ * cette référence (vers le {@code Jwt} ou le token brut). Les claims sont décodés au premier
+ * appel de {@link UserContext#getCurrentActor()} ou {@link UserContext#getClaim(String)},
+ * puis mémorisés pour le reste de la requête. Un endpoint qui n'utilise pas l'identité
+ * ne paie donc aucun décodage JWT, et l'acteur comme les claims d'un token brut viennent
+ * d'un seul décodage du payload.
+ *
+ * Thread-safe: une seule résolution même si l'instance est partagée entre threads.
+ */
+@Slf4j
+public final class LazyActor {
+
+    private final Supplier<ActorInfo> actorLoader;
+    private final Supplier<Map<String, Object>> claimsLoader;
+
+    private volatile boolean actorResolved;
+    private ActorInfo actor;
+    private volatile Map<String, Object> claims;
+
+    public LazyActor(Supplier<ActorInfo> actorLoader, Supplier<Map<String, Object>> claimsLoader) {
+        this.actorLoader = actorLoader;
+        this.claimsLoader = claimsLoader;
+    }
+
+    /**
+     * Référence déjà résolue (ex: {@link UserContext#setCurrentActor(ActorInfo)}).
+     */
+    public static LazyActor of(ActorInfo actor) {
+        LazyActor resolved = new LazyActor(() -> actor, Collections::emptyMap);
+        resolved.actor = actor;
+        resolved.actorResolved = true;
+        return resolved;
+    }
+
+    /**
+     * Référence vers un JWT, décodée par le {@link JwtClaimExtractor} au premier accès.
+     * Utilisée par les interceptors Servlet et WebFlux.
+     *
+     * @param jwt         JWT déjà vérifié du SecurityContext (prioritaire), ou null
+     * @param bearerToken Token brut de l'Authorization header (sans "Bearer "), ou null
+     */
+    public static LazyActor fromJwt(JwtClaimExtractor extractor, Jwt jwt, String bearerToken) {
+        return fromRequest(extractor, null, jwt, bearerToken);
+    }
+
+    /**
+     * Comme {@link #fromJwt}, avec en priorité le header d'identité compact du Gateway:
+     * s'il est valide, l'acteur est lu sans décoder le JWT.
+     *
+     * @param identityHeader Valeur du header {@code X-Identity}, ou null
+     */
+    public static LazyActor fromRequest(JwtClaimExtractor extractor, String identityHeader, Jwt jwt, String bearerToken) {
+        // Payload du token brut décodé au plus une fois, partagé par l'acteur et les claims
+        Supplier<Map<String, Object>> tokenClaims = bearerToken != null
+            ? new DecodedClaims(extractor, bearerToken)
+            : () -> null;
+        return new LazyActor(
+            () -> resolveActor(extractor, identityHeader, jwt, bearerToken, tokenClaims),
+            () -> resolveClaims(extractor, jwt, tokenClaims));
+    }
+
+    /**
+     * @return Les informations de l'utilisateur, décodées au premier appel (null si l'extraction échoue)
+     */
+    public ActorInfo getActor() {
+        if (!actorResolved) {
+            synchronized (this) {
+                if (!actorResolved) {
+                    actor = actorLoader.get();
+                    actorResolved = true;
+                }
+            }
+        }
+        return actor;
+    }
+
+    /**
+     * @return true si {@link #getActor()} retourne sans décoder (déjà résolu)
+     */
+    public boolean isActorResolved() {
+        return actorResolved;
+    }
+
+    /**
+     * @return true si {@link #getClaims()} retourne sans décoder (déjà résolus)
+     */
+    public boolean isClaimsResolved() {
+        return claims != null;
+    }
+
+    /**
+     * @return Tous les claims du token, parsés au premier appel (map vide si indisponibles)
+     */
+    public Map<String, Object> getClaims() {
+        Map<String, Object> result = claims;
+        if (result == null) {
+            synchronized (this) {
+                result = claims;
+                if (result == null) {
+                    Map<String, Object> loaded = claimsLoader.get();
+                    result = loaded != null ? Collections.unmodifiableMap(loaded) : Collections.emptyMap();
+                    claims = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Décode l'acteur au premier accès: header d'identité, SecurityContext, puis Authorization header.
+     */
+    private static ActorInfo resolveActor(JwtClaimExtractor extractor, String identityHeader, Jwt jwt, String bearerToken,
+                                          Supplier<Map<String, Object>> tokenClaims) {
+        try {
+            // Le header n'est accepté qu'avec le token pour lequel le Gateway l'a émis
+            String accessToken = bearerToken != null ? bearerToken : jwt != null ? jwt.getTokenValue() : null;
+            if (identityHeader != null && accessToken != null) {
+                ActorInfo actor = extractor.extractFromIdentityHeader(identityHeader, accessToken);
+                if (actor != null) {
+                    log.debug("🔑 Current actor resolved from identity header: {} ({})", actor.getEmail(), actor.getSub());
+                    return actor;
+                }
+            }
+            if (jwt != null) {
+                ActorInfo actor = extractor.extractFromJwt(jwt);
+                if (actor != null) {
+                    log.debug("🔑 Current actor resolved from SecurityContext: {} ({})", actor.getEmail(), actor.getSub());
+                    return actor;
+                }
+            }
+            if (bearerToken != null) {
+                ActorInfo actor = extractor.extractFromClaims(bearerToken, tokenClaims);
+                if (actor != null) {
+                    log.debug("🔑 Current actor resolved from Authorization header: {} ({})", actor.getEmail(), actor.getSub());
+                    return actor;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to extract actor info from JWT: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Parse tous les claims au premier accès à un claim arbitraire.
+     */
+    private static Map<String, Object> resolveClaims(JwtClaimExtractor extractor, Jwt jwt,
+                                                     Supplier<Map<String, Object>> tokenClaims) {
+        try {
+            if (jwt != null) {
+                return extractor.extractClaimsFromJwt(jwt);
+            }
+            return tokenClaims.get();
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to extract claims from JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Claims du token brut, parsés par {@link JwtClaimExtractor#extractClaimsFromToken(String)} au premier appel.
+     */
+    private static final class DecodedClaims implements Supplier<Map<String, Object>> {
+        private final JwtClaimExtractor extractor;
+        private final String token;
+        private volatile boolean decoded;
+        private Map<String, Object> claims;
+
+        private DecodedClaims(JwtClaimExtractor extractor, String token) {
+            this.extractor = extractor;
+            this.token = token;
+        }
+
+        @Override
+        public Map<String, Object> get() {
+            if (!decoded) {
+                synchronized (this) {
+                    if (!decoded) {
+                        claims = extractor.extractClaimsFromToken(token);
+                        decoded = true;
+                    }
+                }
+            }
+            return claims;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Équivalent réactif de {@link UserContext} pour les services WebFlux.
+ *
+ * L'identité est portée par le {@link Context} Reactor de la requête (rempli par
+ * {@link com.crm_bancaire.common.security.interceptor.ReactiveJwtUserFilter}), et non par un
+ * ThreadLocal: elle suit la chaîne réactive quels que soient les threads utilisés.
+ *
+ * Usage:
+ * <pre>
+ * &#64;GetMapping("/api/me")
+ * public Mono&lt;String&gt; me() {
+ *     return ReactiveUserContext.currentActor()
+ *         .map(ActorInfo::getEmail);
+ * }
+ * </pre>
+ *
+ * Comme en Servlet, seule une référence vers le JWT est stockée: les claims sont décodés
+ * au premier accès. Ce décodage peut bloquer (introspection d'un token opaque, rafraîchissement
+ * JWKS): il s'exécute sur {@link Schedulers#boundedElastic()}, jamais sur l'event loop Netty.
+ *
+ * La clé de contexte est celle de {@link UserContextThreadLocalAccessor}: avec
+ * {@code Hooks.enableAutomaticContextPropagation()}, {@link UserContext#getCurrentActor()}
+ * fonctionne aussi dans les opérateurs Reactor.
+ */
+public final class ReactiveUserContext {
+
+    /**
+     * Clé du {@link LazyActor} dans le Context Reactor.
+     */
+    public static final String CONTEXT_KEY = UserContextThreadLocalAccessor.KEY;
+
+    private ReactiveUserContext() {
+    }
+
+    /**
+     * @return L'utilisateur courant, ou un Mono vide si aucun utilisateur n'est authentifié
+     */
+    public static Mono<ActorInfo> currentActor() {
+        return lazyActor().flatMap(lazy -> lazy.isActorResolved()
+            ? Mono.justOrEmpty(lazy.getActor())
+            : Mono.fromCallable(lazy::getActor).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * @return Le sub (ID Keycloak) de l'utilisateur courant, ou un Mono vide
+     */
+    public static Mono<String> currentUserSub() {
+        return currentActor().mapNotNull(ActorInfo::getSub);
+    }
+
+    /**
+     * @param name Nom du claim (ex: "tenant_id", "azp")
+     * @return La valeur du claim, ou un Mono vide si absent
+     */
+    public static Mono<Object> getClaim(String name) {
+        return getClaims().mapNotNull(claims -> claims.get(name));
+    }
+
+    /**
+     * @return Tous les claims du token (map vide si aucun utilisateur)
+     */
+    public static Mono<Map<String, Object>> getClaims() {
+        return lazyActor()
+            .flatMap(lazy -> lazy.isClaimsResolved()
+                ? Mono.just(lazy.getClaims())
+                : Mono.fromCallable(lazy::getClaims).subscribeOn(Schedulers.boundedElastic()))
+            .defaultIfEmpty(Collections.emptyMap());
+    }
+
+    /**
+     * @return true si l'utilisateur courant a le rôle donné, directement ou via la hiérarchie
+     *         (voir {@link UserContext#hasRole(String)}); false sans utilisateur
+     */
+    public static Mono<Boolean> hasRole(String role) {
+        return currentActor()
+            .map(actor -> UserContext.getRoleHierarchy().implies(actor.getRoles(), role))
+            .defaultIfEmpty(false);
+    }
+
+    /**
+     * Context contenant l'acteur donné, pour les tests ou le travail hors requête:
+     * <pre>
+     * service.process().contextWrite(ReactiveUserContext.withActor(actor));
+     * </pre>
+     */
+    public static Context withActor(ActorInfo actor) {
+        return withLazyActor(LazyActor.of(actor));
+    }
+
+    /**
+     * Context contenant la référence donnée (décodée au premier accès).
+     */
+    public static Context withLazyActor(LazyActor actor) {
+        return Context.of(CONTEXT_KEY, actor);
+    }
+
+    private static Mono<LazyActor> lazyActor() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.<LazyActor>getOrEmpty(CONTEXT_KEY)));
+    }
+}
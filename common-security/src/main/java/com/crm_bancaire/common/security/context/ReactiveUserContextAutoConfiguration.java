@@ -0,0 +1,46 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.interceptor.ReactiveJwtUserFilter;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+
+/**
+ * Auto-configuration du UserContext pour les microservices WebFlux.
+ *
+ * Chargée par @EnableUserContext comme {@link UserContextAutoConfiguration}, dont elle est
+ * l'équivalent réactif. Elle configure:
+ * - {@link ReactiveJwtUserFilter} pour remplir {@link ReactiveUserContext}
+ * - Le même {@link JwtClaimExtractor} (et mode vérifié) que la stack Servlet
+ *
+ * Condition: Seulement pour les applications WebFlux
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import(JwtClaimExtractorConfiguration.class)
+@Slf4j
+public class ReactiveUserContextAutoConfiguration implements ImportAware {
+
+    private String[] pathPatterns = {"/api/**"};
+
+    @Override
+    public void setImportMetadata(AnnotationMetadata importMetadata) {
+        AnnotationAttributes annotation = AnnotationAttributes.fromMap(
+            importMetadata.getAnnotationAttributes(EnableUserContext.class.getName()));
+        if (annotation != null) {
+            this.pathPatterns = annotation.getStringArray("pathPatterns");
+        }
+    }
+
+    @Bean
+    public ReactiveJwtUserFilter reactiveJwtUserFilter(JwtClaimExtractor jwtClaimExtractor) {
+        log.info("🔧 Registering ReactiveJwtUserFilter on paths: {}", String.join(", ", pathPatterns));
+        return new ReactiveJwtUserFilter(jwtClaimExtractor, pathPatterns);
+    }
+}
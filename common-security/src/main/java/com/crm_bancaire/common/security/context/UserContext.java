@@ -0,0 +1,272 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Thread-local context pour stocker les informations de l'utilisateur courant.
+ *
+ * Utilisé pour accéder facilement aux informations de l'utilisateur authentifié
+ * depuis n'importe où dans le code, sans avoir à passer le JWT partout.
+ *
+ * Usage:
+ * <pre>
+ * // Dans un controller, service, etc.
+ * ActorInfo currentUser = UserContext.getCurrentActor();
+ * String userEmail = currentUser.getEmail();
+ * String userRole = currentUser.getRole();
+ * String tenant = UserContext.getClaimAsString("tenant_id");
+ * boolean agent = UserContext.hasRole("AGENT");   // vrai aussi pour ADMIN si ADMIN > AGENT
+ * </pre>
+ *
+ * Le JWT n'est décodé qu'au premier accès, puis mémorisé pour la requête.
+ *
+ * Le contexte est automatiquement rempli par {@link com.crm_bancaire.common.security.interceptor.JwtUserInterceptor}
+ * et nettoyé à la fin de chaque requête.
+ *
+ * Pour le travail déporté (@Async, CompletableFuture, threads virtuels), le contexte est transmis
+ * par {@link UserContextTaskDecorator}, {@link UserContextExecutor}, {@link #wrap(Runnable)} ou,
+ * si context-propagation est présent, par {@code ContextSnapshot} ({@link UserContextThreadLocalAccessor}).
+ * Les méthodes {@link #runWith(LazyActor, Runnable)} lient l'acteur pour la durée d'un appel
+ * et restaurent toujours le contexte précédent, pour ne rien laisser attaché aux threads.
+ */
+public class UserContext {
+
+    private static final ThreadLocal<LazyActor> currentActor = new ThreadLocal<>();
+
+    private static volatile RoleHierarchy roleHierarchy = RoleHierarchy.none();
+
+    /**
+     * Définit la hiérarchie de rôles utilisée par {@link #hasRole(String)}
+     * (configurée au démarrage depuis {@code common.security.roles.hierarchy})
+     */
+    public static void setRoleHierarchy(RoleHierarchy hierarchy) {
+        roleHierarchy = hierarchy != null ? hierarchy : RoleHierarchy.none();
+    }
+
+    public static RoleHierarchy getRoleHierarchy() {
+        return roleHierarchy;
+    }
+
+    /**
+     * Définit l'utilisateur courant pour le thread actuel
+     */
+    public static void setCurrentActor(ActorInfo actor) {
+        currentActor.set(LazyActor.of(actor));
+    }
+
+    /**
+     * Définit une référence paresseuse vers l'utilisateur courant: le JWT ne sera décodé
+     * qu'au premier accès (voir {@link LazyActor})
+     */
+    public static void setLazyActor(LazyActor actor) {
+        currentActor.set(actor);
+    }
+
+    /**
+     * Récupère les informations de l'utilisateur courant
+     * @return Les informations de l'utilisateur, ou null si aucun utilisateur n'est authentifié
+     */
+    public static ActorInfo getCurrentActor() {
+        LazyActor actor = currentActor.get();
+        return actor != null ? actor.getActor() : null;
+    }
+
+    /**
+     * Récupère le sub (subject/ID) de l'utilisateur courant
+     * @return Le sub de l'utilisateur, ou null si aucun utilisateur n'est authentifié
+     */
+    public static String getCurrentUserSub() {
+        ActorInfo actor = getCurrentActor();
+        return actor != null ? actor.getSub() : null;
+    }
+
+    /**
+     * Indique si l'utilisateur courant a le rôle donné, directement ou via la hiérarchie
+     * (tous les rôles du token sont considérés, pas seulement le rôle principal)
+     * @return false si aucun utilisateur n'est authentifié
+     */
+    public static boolean hasRole(String role) {
+        ActorInfo actor = getCurrentActor();
+        return actor != null && roleHierarchy.implies(actor.getRoles(), role);
+    }
+
+    /**
+     * Indique si l'utilisateur courant a au moins un des rôles donnés (hiérarchie comprise)
+     * @return false si aucun utilisateur n'est authentifié
+     */
+    public static boolean hasAnyRole(String... roles) {
+        ActorInfo actor = getCurrentActor();
+        if (actor == null) {
+            return false;
+        }
+        List<String> granted = actor.getRoles();
+        for (String role : roles) {
+            if (roleHierarchy.implies(granted, role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Récupère un claim arbitraire du token courant (ex: "tenant_id", "scope")
+     * @return La valeur du claim, ou null s'il est absent ou si aucun token n'est présent
+     */
+    public static Object getClaim(String name) {
+        return getClaims().get(name);
+    }
+
+    /**
+     * Récupère un claim arbitraire du token courant sous forme de String
+     * @return La valeur du claim, ou null s'il est absent ou si aucun token n'est présent
+     */
+    public static String getClaimAsString(String name) {
+        Object value = getClaim(name);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Récupère tous les claims du token courant (parsés une seule fois par requête)
+     * @return Les claims, ou une map vide si aucun token n'est présent
+     */
+    public static Map<String, Object> getClaims() {
+        LazyActor actor = currentActor.get();
+        return actor != null ? actor.getClaims() : Collections.emptyMap();
+    }
+
+    /**
+     * Nettoie le contexte (appelé automatiquement par l'interceptor)
+     */
+    public static void clear() {
+        currentActor.remove();
+    }
+
+    /**
+     * Capture la référence courante pour la transmettre à un autre thread
+     * @return La référence courante, ou null si aucun utilisateur n'est défini
+     */
+    public static LazyActor capture() {
+        return currentActor.get();
+    }
+
+    /**
+     * Exécute une tâche avec l'acteur donné, puis restaure le contexte précédent
+     * (même en cas d'exception). Rien ne reste attaché au thread après l'appel.
+     */
+    public static void runWith(LazyActor actor, Runnable task) {
+        LazyActor previous = currentActor.get();
+        bind(actor);
+        try {
+            task.run();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * Comme {@link #runWith(LazyActor, Runnable)}, avec une valeur de retour
+     */
+    public static <T> T callWith(LazyActor actor, Callable<T> task) throws Exception {
+        LazyActor previous = currentActor.get();
+        bind(actor);
+        try {
+            return task.call();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * Enveloppe une tâche pour qu'elle s'exécute avec l'acteur courant, quel que soit le thread
+     * (ex: {@code CompletableFuture.runAsync(UserContext.wrap(() -> ...))}, parallel streams)
+     */
+    public static Runnable wrap(Runnable task) {
+        LazyActor captured = capture();
+        return () -> runWith(captured, task);
+    }
+
+    /**
+     * Enveloppe une tâche pour qu'elle s'exécute avec l'acteur courant, quel que soit le thread
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        LazyActor captured = capture();
+        return () -> callWith(captured, task);
+    }
+
+    private static void bind(LazyActor actor) {
+        if (actor != null) {
+            currentActor.set(actor);
+        } else {
+            currentActor.remove();
+        }
+    }
+
+    /**
+     * Informations sur l'utilisateur courant extraites du JWT
+     */
+    @Data
+    @Builder(toBuilder = true)
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActorInfo {
+        /**
+         * Subject - Identifiant unique de l'utilisateur (généralement depuis Keycloak)
+         */
+        private String sub;
+
+        /**
+         * Email de l'utilisateur
+         */
+        private String email;
+
+        /**
+         * Nom d'utilisateur (username/login)
+         */
+        private String username;
+
+        /**
+         * Prénom de l'utilisateur
+         */
+        private String firstName;
+
+        /**
+         * Nom de famille de l'utilisateur
+         */
+        private String lastName;
+
+        /**
+         * Rôle principal de l'utilisateur (ADMIN, USER, etc.)
+         */
+        private String role;
+
+        /**
+         * Tous les rôles du token (le rôle principal en premier)
+         */
+        private List<String> roles;
+
+        /**
+         * Expiration du token (claim exp, en secondes epoch), ou 0 si inconnue
+         */
+        private long expiresAt;
+
+        /**
+         * @return Tous les rôles du token, ou le seul rôle principal si la liste n'est pas renseignée
+         *         (extracteurs custom qui ne remplissent que {@code role})
+         */
+        public List<String> getRoles() {
+            if (roles != null && !roles.isEmpty()) {
+                return roles;
+            }
+            return role != null ? List.of(role) : Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.interceptor.JwtUserInterceptor;
+import com.crm_bancaire.common.security.interceptor.SecuredEndpointInterceptor;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Auto-configuration pour activer le UserContext dans les microservices.
+ *
+ * Cette configuration est automatiquement chargée lorsque @EnableUserContext est utilisé.
+ *
+ * Elle configure:
+ * - {@link JwtUserInterceptor} pour extraire le JWT et remplir le UserContext
+ * - {@link SecuredEndpointInterceptor} si {@code enforceSecuredEndpoints = true}
+ * - Enregistrement des interceptors sur les path patterns spécifiés
+ * - Un TaskDecorator qui transmet le UserContext et le token aux tâches @Async
+ *   (opt-in, {@code common.security.user-context.async-propagation})
+ *
+ * Les attributs de @EnableUserContext sont lus sur la classe qui l'importe ({@link ImportAware}).
+ *
+ * Condition: Seulement pour les applications Spring MVC (WebFlux: {@link ReactiveUserContextAutoConfiguration})
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Import(JwtClaimExtractorConfiguration.class)
+@Slf4j
+public class UserContextAutoConfiguration implements ImportAware {
+
+    private String[] pathPatterns = {"/api/**"};
+    private boolean enforceSecuredEndpoints;
+
+    @Override
+    public void setImportMetadata(AnnotationMetadata importMetadata) {
+        AnnotationAttributes annotation = AnnotationAttributes.fromMap(
+            importMetadata.getAnnotationAttributes(EnableUserContext.class.getName()));
+        if (annotation != null) {
+            this.pathPatterns = annotation.getStringArray("pathPatterns");
+            this.enforceSecuredEndpoints = annotation.getBoolean("enforceSecuredEndpoints");
+        }
+    }
+
+    @Bean
+    public JwtUserInterceptor jwtUserInterceptor(JwtClaimExtractor jwtClaimExtractor) {
+        log.info("🔧 Configuring JwtUserInterceptor for UserContext");
+        return new JwtUserInterceptor(jwtClaimExtractor);
+    }
+
+    @Bean
+    public SecuredEndpointInterceptor securedEndpointInterceptor(ApplicationContext applicationContext,
+                                                                 RoleHierarchy roleHierarchy) {
+        if (enforceSecuredEndpoints) {
+            log.info("🔧 Configuring SecuredEndpointInterceptor for service-side @SecuredEndpoint enforcement");
+        }
+        return new SecuredEndpointInterceptor(applicationContext, enforceSecuredEndpoints, roleHierarchy);
+    }
+
+    @Bean
+    public WebMvcConfigurer userContextWebMvcConfigurer(JwtUserInterceptor jwtUserInterceptor,
+                                                        SecuredEndpointInterceptor securedEndpointInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                log.info("🔧 Registering JwtUserInterceptor on paths: {}", String.join(", ", pathPatterns));
+
+                registry.addInterceptor(jwtUserInterceptor)
+                    .addPathPatterns(pathPatterns);
+
+                // Après JwtUserInterceptor, qui remplit le UserContext
+                if (securedEndpointInterceptor.isEnabled()) {
+                    log.info("🔧 Registering SecuredEndpointInterceptor on paths: {}", String.join(", ", pathPatterns));
+                    registry.addInterceptor(securedEndpointInterceptor)
+                        .addPathPatterns(pathPatterns);
+                }
+            }
+        };
+    }
+
+    /**
+     * Transmet le UserContext et le token aux tâches @Async, sur demande uniquement: Spring Boot applique
+     * le TaskDecorator unique à tous ses executors (y compris SimpleAsyncTaskExecutor en threads virtuels).
+     * Activation: {@code common.security.user-context.async-propagation=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.user-context", name = "async-propagation", havingValue = "true")
+    static class AsyncUserContextConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(TaskDecorator.class)
+        public TaskDecorator userContextTaskDecorator() {
+            log.info("🔧 Configuring UserContextTaskDecorator for @Async propagation");
+            return new UserContextTaskDecorator();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.crm_bancaire.common.security.context;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Executor} qui transmet le {@link UserContext} du thread appelant aux tâches soumises.
+ *
+ * Usage:
+ * <pre>
+ * Executor executor = UserContextExecutor.wrap(Executors.newVirtualThreadPerTaskExecutor());
+ * CompletableFuture.supplyAsync(() -&gt; UserContext.getCurrentUserSub(), executor);
+ * </pre>
+ */
+public final class UserContextExecutor implements Executor {
+
+    private final Executor delegate;
+
+    private UserContextExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    public static Executor wrap(Executor delegate) {
+        return delegate instanceof UserContextExecutor ? delegate : new UserContextExecutor(delegate);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(UserContext.wrap(command));
+    }
+}
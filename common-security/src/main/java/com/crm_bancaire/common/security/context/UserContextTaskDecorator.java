@@ -0,0 +1,23 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.httpclient.BearerTokenContext;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * {@link TaskDecorator} qui transmet le {@link UserContext} du thread appelant aux tâches
+ * exécutées par un executor Spring (@Async, ThreadPoolTaskExecutor, SimpleAsyncTaskExecutor
+ * avec threads virtuels...).
+ *
+ * L'acteur et le token Bearer ({@link BearerTokenContext}, pour les appels sortants) sont capturés
+ * à la soumission, liés pendant l'exécution, puis le thread est nettoyé.
+ *
+ * Enregistré automatiquement par {@link UserContextAutoConfiguration} si aucun autre
+ * {@link TaskDecorator} n'est défini; Spring Boot l'applique alors à ses executors.
+ */
+public class UserContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return BearerTokenContext.wrap(UserContext.wrap(runnable));
+    }
+}
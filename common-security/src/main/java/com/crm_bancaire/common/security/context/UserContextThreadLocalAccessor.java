@@ -0,0 +1,35 @@
+package com.crm_bancaire.common.security.context;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Intégration Micrometer context-propagation: le {@link UserContext} est capturé par
+ * {@code ContextSnapshot} comme n'importe quel autre ThreadLocal (Reactor, ContextExecutorService,
+ * ContextPropagatingTaskDecorator de Spring...).
+ *
+ * Enregistré automatiquement via {@code META-INF/services/io.micrometer.context.ThreadLocalAccessor}.
+ */
+public class UserContextThreadLocalAccessor implements ThreadLocalAccessor<LazyActor> {
+
+    public static final String KEY = "common.security.user-context";
+
+    @Override
+    public Object key() {
+        return KEY;
+    }
+
+    @Override
+    public LazyActor getValue() {
+        return UserContext.capture();
+    }
+
+    @Override
+    public void setValue(LazyActor value) {
+        UserContext.setLazyActor(value);
+    }
+
+    @Override
+    public void setValue() {
+        UserContext.clear();
+    }
+}
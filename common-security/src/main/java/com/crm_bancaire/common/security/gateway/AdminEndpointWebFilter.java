@@ -0,0 +1,94 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Protège les endpoints d'administration du Gateway ({@code /admin/security/**}: révocations,
+ * rechargement, évaluation shadow, plus gros émetteurs de refus) par un rôle administrateur.
+ *
+ * Appliqué même si la chaîne Spring Security laisse passer {@code /admin/**}: les endpoints de la
+ * librairie ne dépendent pas de la configuration du Gateway pour être protégés.
+ * Le chemin est comparé avec le même {@link PathPattern} que le routage des controllers.
+ *
+ * La mise en service ou le rejet des règles candidates ({@code /admin/security/shadow/promote} et
+ * {@code /reject}) exige le rôle opérateur à la place: une décision sur les règles actives n'est pas
+ * une simple consultation d'administration.
+ *
+ * - Sans authentification valide (ou token révoqué): 401
+ * - Authentifié sans le rôle (hiérarchie comprise): 403
+ *
+ * Configuration: {@code common.security.gateway.admin.role} (défaut: ADMIN) et
+ * {@code common.security.gateway.admin.operator-role} (défaut: SECURITY_OPERATOR).
+ */
+@Slf4j
+public class AdminEndpointWebFilter implements WebFilter, Ordered {
+
+    /** Après WebFilterChainProxy de Spring Security (-100), avant les autres filtres de la librairie. */
+    public static final int ORDER = -50;
+
+    public static final String DEFAULT_ADMIN_ROLE = "ADMIN";
+
+    public static final String DEFAULT_OPERATOR_ROLE = "SECURITY_OPERATOR";
+
+    private static final PathPattern ADMIN_ENDPOINTS = PathPatternParser.defaultInstance.parse("/admin/security/**");
+
+    private static final PathPattern SHADOW_DECISIONS =
+        PathPatternParser.defaultInstance.parse("/admin/security/shadow/{decision:promote|reject}");
+
+    private final DynamicAuthorizationManager authorizationManager;
+    private final String adminRole;
+    private final String operatorRole;
+
+    /**
+     * @param adminRole    Rôle requis sur /admin/security/**
+     * @param operatorRole Rôle requis pour promouvoir ou rejeter les règles candidates
+     */
+    public AdminEndpointWebFilter(DynamicAuthorizationManager authorizationManager, String adminRole, String operatorRole) {
+        this.authorizationManager = authorizationManager;
+        this.adminRole = adminRole;
+        this.operatorRole = operatorRole;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (!ADMIN_ENDPOINTS.matches(path)) {
+            return chain.filter(exchange);
+        }
+        String requiredRole = SHADOW_DECISIONS.matches(path) ? operatorRole : adminRole;
+
+        return exchange.getPrincipal()
+            .filter(Authentication.class::isInstance)
+            .cast(Authentication.class)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(authentication -> {
+                if (authentication.isPresent() && authorizationManager.hasRole(authentication.get(), requiredRole)) {
+                    return chain.filter(exchange);
+                }
+                boolean authenticated = authentication.map(Authentication::isAuthenticated).orElse(false);
+                log.warn("🚫 Access DENIED to admin endpoint {} {} - role {} required ({})",
+                    exchange.getRequest().getMethod(), path.value(), requiredRole,
+                    authenticated ? authentication.get().getName() : "anonymous");
+                exchange.getResponse().setStatusCode(authenticated ? HttpStatus.FORBIDDEN : HttpStatus.UNAUTHORIZED);
+                return exchange.getResponse().setComplete();
+            });
+    }
+}
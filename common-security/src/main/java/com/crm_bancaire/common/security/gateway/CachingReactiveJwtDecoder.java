@@ -0,0 +1,97 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.cache.ExpiringCache;
+import com.crm_bancaire.common.security.cache.TokenHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des tokens vérifiés devant le {@link ReactiveJwtDecoder} du Gateway.
+ *
+ * Les clients mobiles réutilisent le même access token pour des centaines de requêtes:
+ * la vérification de signature et la conversion des claims ne sont faites qu'une fois par token.
+ *
+ * - Clé: empreinte SHA-256 du token ({@link TokenHash}), le token n'est pas gardé comme clé
+ * - Borné ({@code maxSize}) et expiré à l'{@code exp} du JWT
+ * - Single-flight: des requêtes concurrentes sur le même token inconnu partagent un seul décodage
+ * - Les erreurs (token invalide) ne sont pas mises en cache
+ *
+ * Le même objet {@link Jwt} étant retourné pour un token donné, {@link DynamicAuthorizationManager}
+ * réutilise aussi les noms de rôles déjà convertis ({@link #getRoleNames(Jwt)}).
+ *
+ * Activé par défaut par {@link DynamicSecurityAutoConfiguration} si un ReactiveJwtDecoder existe
+ * ({@code common.security.gateway.jwt-cache.enabled=false} pour désactiver).
+ */
+@Slf4j
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final ReactiveJwtDecoder delegate;
+    private final ExpiringCache<String, Jwt> tokens;
+    private final ExpiringCache<Jwt, Set<String>> roleNames;
+    private final Map<String, Mono<Jwt>> inFlight = new ConcurrentHashMap<>();
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, int maxSize) {
+        this.delegate = delegate;
+        this.tokens = new ExpiringCache<>(maxSize);
+        this.roleNames = new ExpiringCache<>(maxSize);
+    }
+
+    public ReactiveJwtDecoder getDelegate() {
+        return delegate;
+    }
+
+    public ExpiringCache<String, Jwt> getTokenCache() {
+        return tokens;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        String hash = TokenHash.sha256(token);
+        Jwt cached = tokens.get(hash);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        Mono<Jwt> existing = inFlight.get(hash);
+        if (existing != null) {
+            return existing;
+        }
+        Mono<Jwt> decoding = delegate.decode(token)
+            .doOnNext(jwt -> {
+                Instant expiresAt = jwt.getExpiresAt();
+                if (expiresAt != null) {
+                    tokens.put(hash, jwt, expiresAt.toEpochMilli());
+                }
+            })
+            .doFinally(signal -> inFlight.remove(hash))
+            .cache();
+        existing = inFlight.putIfAbsent(hash, decoding);
+        return existing != null ? existing : decoding;
+    }
+
+    /**
+     * @return Les noms de rôles (sans "ROLE_") déjà calculés pour ce JWT, ou null
+     */
+    public Set<String> getRoleNames(Jwt jwt) {
+        return roleNames.get(jwt);
+    }
+
+    /**
+     * Mémorise les noms de rôles d'un JWT jusqu'à son expiration.
+     */
+    public void putRoleNames(Jwt jwt, Set<String> names) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null) {
+            roleNames.put(jwt, names, expiresAt.toEpochMilli());
+        }
+    }
+}
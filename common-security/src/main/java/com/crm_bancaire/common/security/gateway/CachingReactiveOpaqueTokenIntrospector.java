@@ -0,0 +1,109 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.cache.ExpiringCache;
+import com.crm_bancaire.common.security.cache.TokenHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenException;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des résultats d'introspection devant le {@link ReactiveOpaqueTokenIntrospector} du Gateway.
+ *
+ * Sans cache, chaque requête portant un token opaque coûte un aller-retour vers le serveur
+ * d'autorisation. Ici:
+ * - Clé: empreinte SHA-256 du token ({@link TokenHash})
+ * - Token actif: gardé jusqu'à son {@code exp}, au plus {@code maxTtl}
+ * - Token inactif ({@link BadOpaqueTokenException}): refusé pendant {@code negativeTtl} sans
+ *   rappeler le serveur
+ * - Single-flight: des requêtes concurrentes sur le même token inconnu partagent une seule introspection
+ * - Les autres erreurs (serveur indisponible) ne sont pas mises en cache
+ *
+ * Activé par défaut par {@link DynamicSecurityAutoConfiguration} si un ReactiveOpaqueTokenIntrospector existe
+ * ({@code common.security.gateway.introspection-cache.enabled=false} pour désactiver).
+ */
+@Slf4j
+public class CachingReactiveOpaqueTokenIntrospector implements ReactiveOpaqueTokenIntrospector {
+
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final ReactiveOpaqueTokenIntrospector delegate;
+    private final ExpiringCache<String, Optional<OAuth2AuthenticatedPrincipal>> principals;
+    private final Map<String, Mono<Optional<OAuth2AuthenticatedPrincipal>>> inFlight = new ConcurrentHashMap<>();
+    private final long maxTtlMillis;
+    private final long negativeTtlMillis;
+
+    /**
+     * @param maxSize     Nombre maximum de tokens en cache
+     * @param maxTtl      Durée maximale de cache d'un token actif
+     * @param negativeTtl Durée de cache d'un token inactif
+     */
+    public CachingReactiveOpaqueTokenIntrospector(ReactiveOpaqueTokenIntrospector delegate, int maxSize,
+                                                  Duration maxTtl, Duration negativeTtl) {
+        this.delegate = delegate;
+        this.principals = new ExpiringCache<>(maxSize);
+        this.maxTtlMillis = maxTtl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+    }
+
+    public ReactiveOpaqueTokenIntrospector getDelegate() {
+        return delegate;
+    }
+
+    public ExpiringCache<String, ?> getTokenCache() {
+        return principals;
+    }
+
+    @Override
+    public Mono<OAuth2AuthenticatedPrincipal> introspect(String token) {
+        String hash = TokenHash.sha256(token);
+        Optional<OAuth2AuthenticatedPrincipal> cached = principals.get(hash);
+        if (cached != null) {
+            return toPrincipal(cached);
+        }
+
+        Mono<Optional<OAuth2AuthenticatedPrincipal>> existing = inFlight.get(hash);
+        if (existing == null) {
+            Mono<Optional<OAuth2AuthenticatedPrincipal>> introspection = delegate.introspect(token)
+                .map(Optional::of)
+                .onErrorResume(BadOpaqueTokenException.class, e -> {
+                    log.debug("🔒 Opaque token inactive: {}", e.getMessage());
+                    return Mono.just(Optional.empty());
+                })
+                .doOnNext(result -> principals.put(hash, result, expiresAtMillis(result)))
+                .doFinally(signal -> inFlight.remove(hash))
+                .cache();
+            existing = inFlight.putIfAbsent(hash, introspection);
+            if (existing == null) {
+                existing = introspection;
+            }
+        }
+        return existing.flatMap(CachingReactiveOpaqueTokenIntrospector::toPrincipal);
+    }
+
+    /**
+     * Expiration de l'entrée: {@code exp} plafonné à {@code maxTtl}, ou {@code negativeTtl} si inactif.
+     */
+    private long expiresAtMillis(Optional<OAuth2AuthenticatedPrincipal> result) {
+        long now = System.currentTimeMillis();
+        if (result.isEmpty()) {
+            return now + negativeTtlMillis;
+        }
+        long maxExpiresAt = now + maxTtlMillis;
+        Object exp = result.get().getAttribute(OAuth2TokenIntrospectionClaimNames.EXP);
+        return exp instanceof Instant expiresAt ? Math.min(expiresAt.toEpochMilli(), maxExpiresAt) : maxExpiresAt;
+    }
+
+    private static Mono<OAuth2AuthenticatedPrincipal> toPrincipal(Optional<OAuth2AuthenticatedPrincipal> result) {
+        return result.map(Mono::just)
+            .orElseGet(() -> Mono.error(new BadOpaqueTokenException("Provided token isn't active")));
+    }
+}
@@ -0,0 +1,487 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.condition.RuleCondition;
+import com.crm_bancaire.common.security.dto.EndpointPermission;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.web.cors.reactive.CorsUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Authorization Manager qui vérifie dynamiquement les règles de sécurité
+ * chargées depuis les microservices
+ */
+@Slf4j
+public class DynamicAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    /**
+     * Attribut d'exchange: décision prise ("public", "authenticated" ou "roles"),
+     * reprise dans le header d'identité transmis aux services.
+     */
+    public static final String DECISION_ATTRIBUTE = DynamicAuthorizationManager.class.getName() + ".decision";
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final DynamicSecurityLoader securityLoader;
+    private final RoleHierarchy roleHierarchy;
+    private volatile RuleSnapshot snapshot = RuleSnapshot.EMPTY;
+    private volatile long compiledVersion = RuleSnapshot.EMPTY.getVersion();
+    private final Supplier<ReactiveJwtDecoder> jwtDecoder;
+    private volatile CachingReactiveJwtDecoder cachingJwtDecoder;
+    private volatile boolean jwtDecoderResolved;
+    private final TokenRevocationList revocationList;
+    private final ShadowRuleEvaluator shadowEvaluator;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final LongAdder rejectedUnknownPaths = new LongAdder();
+    private volatile UnmatchedPathPolicy unmatchedPathPolicy = UnmatchedPathPolicy.ALLOW_AUTHENTICATED;
+
+    public DynamicAuthorizationManager(DynamicSecurityLoader securityLoader) {
+        this(securityLoader, () -> null, null, RoleHierarchy.none());
+    }
+
+    public DynamicAuthorizationManager(DynamicSecurityLoader securityLoader, Supplier<ReactiveJwtDecoder> jwtDecoder,
+                                       TokenRevocationList revocationList, RoleHierarchy roleHierarchy) {
+        this(securityLoader, jwtDecoder, revocationList, roleHierarchy, null, null);
+    }
+
+    /**
+     * @param jwtDecoder Décodeur du Gateway, résolu au premier appel: s'il s'agit d'un
+     *                   {@link CachingReactiveJwtDecoder}, les rôles convertis sont réutilisés par token
+     * @param revocationList Tokens révoqués (jti/sid) refusés même authentifiés, ou null
+     * @param roleHierarchy  Hiérarchie appliquée aux rôles requis des règles
+     * @param shadowEvaluator Évaluation des règles modifiées avant leur mise en service, ou null
+     *                        pour les appliquer directement
+     * @param heavyHitterTracker Comptage des requêtes refusées ou sans règle, ou null
+     */
+    public DynamicAuthorizationManager(DynamicSecurityLoader securityLoader, Supplier<ReactiveJwtDecoder> jwtDecoder,
+                                       TokenRevocationList revocationList, RoleHierarchy roleHierarchy,
+                                       ShadowRuleEvaluator shadowEvaluator, HeavyHitterTracker heavyHitterTracker) {
+        this.securityLoader = securityLoader;
+        this.roleHierarchy = roleHierarchy;
+        this.jwtDecoder = jwtDecoder;
+        this.revocationList = revocationList;
+        this.shadowEvaluator = shadowEvaluator;
+        this.heavyHitterTracker = heavyHitterTracker;
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        Mono<AuthorizationDecision> decision = checkActiveRules(authentication, context);
+        if (shadowEvaluator == null || !shadowEvaluator.shouldSample()) {
+            return decision;
+        }
+        // Requête échantillonnée: réévaluée avec l'actif et le candidat hors de l'event loop
+        String path = context.getExchange().getRequest().getPath().value();
+        String method = context.getExchange().getRequest().getMethod().name();
+        RuleSnapshot active = getRuleSnapshot();
+        return decision.flatMap(result -> authentication
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .doOnNext(auth -> sampleShadow(active, method, path, auth.orElse(null)))
+            .thenReturn(result));
+    }
+
+    private void sampleShadow(RuleSnapshot active, String method, String path, Authentication authentication) {
+        boolean isActive = isActive(authentication);
+        Set<String> userRoles = isActive ? roleNamesOf(authentication) : Collections.emptySet();
+        Map<String, Object> claims = isActive ? claimsOf(authentication) : Collections.emptyMap();
+        shadowEvaluator.sample(active, method, path, rules -> decide(rules, rules.matchWithVariables(path, method),
+            path, isActive, userRoles, claims) == EndpointPermission.Decision.ALLOWED);
+    }
+
+    private Mono<AuthorizationDecision> checkActiveRules(Mono<Authentication> authentication, AuthorizationContext context) {
+        ServerHttpRequest request = context.getExchange().getRequest();
+        String path = request.getPath().value();
+        String method = request.getMethod().name();
+
+        log.debug("🔍 Checking authorization for {} {}", method, path);
+
+        // Règles compilées (recompilées seulement si le loader a changé de version)
+        RuleSnapshot rules = getRuleSnapshot();
+        log.debug("   📋 Compiled rules: {} (version {})", rules.size(), rules.getVersion());
+
+        // Rejet précoce des chemins qu'aucune règle ne déclare (trie, sans parcourir les règles),
+        // sauf preflight CORS et endpoints de la librairie
+        UnmatchedPathPolicy policy = unmatchedPathPolicy;
+        if (policy != UnmatchedPathPolicy.ALLOW_AUTHENTICATED && rules.size() > 0 && !rules.isKnownPath(path)
+                && !CorsUtils.isPreFlightRequest(request) && !LibraryEndpoints.contains(path)) {
+            return rejectUnmatched(authentication, method, path, policy);
+        }
+
+        // Chercher la règle correspondante (avec les variables du chemin si elle a une condition)
+        RuleSnapshot.Match match = rules.matchWithVariables(path, method);
+        RuleSnapshot.CompiledRule matchingRule = match != null ? match.rule() : null;
+
+        // Preflight CORS sans règle OPTIONS: le navigateur n'envoie pas de token, la requête réelle sera autorisée
+        if (matchingRule == null && CorsUtils.isPreFlightRequest(request)) {
+            log.debug("   ✅ CORS preflight {} - access granted", path);
+            return Mono.just(new AuthorizationDecision(true));
+        }
+
+        if (matchingRule == null && !allowsUnmatched(rules, path)) {
+            return rejectUnmatched(authentication, method, path, policy);
+        }
+
+        if (matchingRule == null) {
+            log.debug("   ❓ No dynamic rule found for {} {} - checking if authenticated", method, path);
+            // Pas de règle dynamique trouvée - vérifier juste l'authentification
+            context.getExchange().getAttributes().put(DECISION_ATTRIBUTE, "authenticated");
+            return authentication
+                .map(auth -> {
+                    track(HeavyHitterTracker.NO_RULE, method, path, auth.getName());
+                    return new AuthorizationDecision(auth.isAuthenticated() && !isRevoked(auth));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    track(HeavyHitterTracker.NO_RULE, method, path, ANONYMOUS);
+                    return new AuthorizationDecision(false);
+                }));
+        }
+
+        // Si l'endpoint est public, autoriser sans authentification
+        if (matchingRule.isPublic()) {
+            log.debug("   ✅ PUBLIC endpoint {} {} - access granted", method, path);
+            context.getExchange().getAttributes().put(DECISION_ATTRIBUTE, "public");
+            return Mono.just(new AuthorizationDecision(true));
+        }
+
+        // Vérifier les rôles (hiérarchie déjà appliquée dans les bitsets de la règle)
+        Set<String> requiredRoles = matchingRule.getAllowedRoles();
+        log.debug("   🔒 SECURED endpoint {} {} requires roles: {}", method, path, requiredRoles);
+        context.getExchange().getAttributes().put(DECISION_ATTRIBUTE, "roles");
+
+        RuleCondition condition = matchingRule.getCondition();
+        return authentication
+            .filter(Authentication::isAuthenticated)
+            .filter(auth -> !isRevoked(auth))
+            .map(auth -> {
+                Set<String> userRoles = roleNamesOf(auth);
+                log.debug("   👤 User roles: {}", userRoles);
+                if (!rules.allows(matchingRule, userRoles)) {
+                    log.warn("   ❌ Access DENIED for {} {} - user roles {} do not match required roles {}",
+                             method, path, userRoles, requiredRoles);
+                    track(HeavyHitterTracker.DENIED, method, matchingRule.getPattern(), auth.getName());
+                    return new AuthorizationDecision(false);
+                }
+
+                // Condition (ex: path.id == claim.sub) évaluée ici: pas d'aller-retour vers le service
+                if (condition != null && !condition.test(match.pathVariables(), claimsOf(auth), userRoles)) {
+                    log.warn("   ❌ Access DENIED for {} {} - condition not met: {}", method, path, condition);
+                    track(HeavyHitterTracker.DENIED, method, matchingRule.getPattern(), auth.getName());
+                    return new AuthorizationDecision(false);
+                }
+
+                log.debug("   ✅ Access GRANTED for {} {}", method, path);
+                return new AuthorizationDecision(true);
+            })
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                // Non authentifié ou token révoqué
+                track(HeavyHitterTracker.DENIED, method, matchingRule.getPattern(), ANONYMOUS);
+                return new AuthorizationDecision(false);
+            }));
+    }
+
+    /**
+     * Politique {@link UnmatchedPathPolicy}: une requête sans règle peut-elle se replier sur
+     * "authentifié = autorisé"? Tant qu'aucune règle n'est chargée, toujours (démarrage),
+     * ainsi que pour les endpoints de la librairie ({@link LibraryEndpoints}).
+     */
+    private boolean allowsUnmatched(RuleSnapshot rules, String path) {
+        if (unmatchedPathPolicy != UnmatchedPathPolicy.ALLOW_AUTHENTICATED && LibraryEndpoints.contains(path)) {
+            return true;
+        }
+        return switch (unmatchedPathPolicy) {
+            case ALLOW_AUTHENTICATED -> true;
+            case DENY -> rules.size() == 0;
+            case DENY_UNLESS_ROUTE_EXISTS -> rules.size() == 0 || rules.isKnownPath(path);
+        };
+    }
+
+    private Mono<AuthorizationDecision> rejectUnmatched(Mono<Authentication> authentication, String method, String path,
+                                                       UnmatchedPathPolicy policy) {
+        rejectedUnknownPaths.increment();
+        log.debug("   🚫 No rule for {} {} - rejected by {} policy", method, path, policy);
+        return authentication
+            .map(auth -> {
+                track(HeavyHitterTracker.NO_RULE, method, path, auth.getName());
+                return new AuthorizationDecision(false);
+            })
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                track(HeavyHitterTracker.NO_RULE, method, path, ANONYMOUS);
+                return new AuthorizationDecision(false);
+            }));
+    }
+
+    private void track(String outcome, String method, String path, String subject) {
+        if (heavyHitterTracker != null) {
+            heavyHitterTracker.record(outcome, method, path, subject != null ? subject : ANONYMOUS);
+        }
+    }
+
+    /**
+     * Évalue en une passe l'accès de l'utilisateur à des (méthode, chemin) concrets, sur un seul
+     * snapshot des règles: mêmes décisions que {@link #check} (rôles, hiérarchie, conditions, révocation).
+     *
+     * @param authentication Utilisateur courant, ou null si anonyme
+     * @return Une décision ALLOWED ou DENIED par demande, dans le même ordre
+     */
+    public List<EndpointPermission> evaluate(Authentication authentication, List<EndpointPermission> requests) {
+        RuleSnapshot rules = getRuleSnapshot();
+        boolean active = isActive(authentication);
+        Set<String> userRoles = active ? roleNamesOf(authentication) : Collections.emptySet();
+        Map<String, Object> claims = active ? claimsOf(authentication) : Collections.emptyMap();
+
+        List<EndpointPermission> results = new ArrayList<>(requests.size());
+        for (EndpointPermission request : requests) {
+            String method = request.getMethod() != null ? request.getMethod().toUpperCase(Locale.ROOT) : "GET";
+            String path = request.getPath();
+            int query = path != null ? path.indexOf('?') : -1;
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+
+            if (path != null && path.isEmpty()) {
+                path = null;
+            }
+            RuleSnapshot.Match match = path != null ? rules.matchWithVariables(path, method) : null;
+            EndpointPermission.Decision decision = decide(rules, match, path, active, userRoles, claims);
+            results.add(new EndpointPermission(match != null ? match.rule().getService() : null, method,
+                request.getPath(), decision));
+        }
+        return results;
+    }
+
+    /**
+     * Décision ALLOWED/DENIED pour une requête concrète, identique à {@link #check}.
+     */
+    private EndpointPermission.Decision decide(RuleSnapshot rules, RuleSnapshot.Match match, String path,
+                                               boolean active, Set<String> userRoles, Map<String, Object> claims) {
+        if (match == null) {
+            // Même repli que check(): sans règle, il suffit d'être authentifié (selon la politique)
+            return path != null && active && allowsUnmatched(rules, path)
+                ? EndpointPermission.Decision.ALLOWED : EndpointPermission.Decision.DENIED;
+        }
+        if (!active && !match.rule().isPublic()) {
+            return EndpointPermission.Decision.DENIED;
+        }
+        EndpointPermission.Decision decision = rules.decide(match.rule(), userRoles);
+        if (decision == EndpointPermission.Decision.CONDITIONAL) {
+            return match.rule().getCondition().test(match.pathVariables(), claims, userRoles)
+                ? EndpointPermission.Decision.ALLOWED : EndpointPermission.Decision.DENIED;
+        }
+        return decision;
+    }
+
+    /**
+     * Décisions de l'utilisateur pour tous les endpoints d'un service (une entrée par méthode).
+     * Les règles avec condition sont CONDITIONAL quand les rôles suffisent: la décision finale
+     * dépend des valeurs du chemin.
+     */
+    public List<EndpointPermission> evaluateService(Authentication authentication, String service) {
+        RuleSnapshot rules = getRuleSnapshot();
+        boolean active = isActive(authentication);
+        Set<String> userRoles = active ? roleNamesOf(authentication) : Collections.emptySet();
+
+        List<EndpointPermission> results = new ArrayList<>();
+        for (RuleSnapshot.CompiledRule rule : rules.rulesOf(service)) {
+            EndpointPermission.Decision decision = active || rule.isPublic()
+                ? rules.decide(rule, userRoles) : EndpointPermission.Decision.DENIED;
+            if (rule.getRule().getMethods() != null) {
+                for (String method : rule.getRule().getMethods()) {
+                    results.add(new EndpointPermission(service, method, rule.getPattern(), decision));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Endpoints accessibles par l'utilisateur, tous services confondus, pré-calculés par
+     * combinaison de rôles et gardés jusqu'à la prochaine version des règles.
+     */
+    public List<EndpointPermission> manifest(Authentication authentication) {
+        RuleSnapshot rules = getRuleSnapshot();
+        return rules.manifest(isActive(authentication) ? roleNamesOf(authentication) : Collections.emptySet());
+    }
+
+    /**
+     * L'utilisateur (authentifié, token non révoqué) a-t-il le rôle, directement ou par la hiérarchie?
+     * Utilisé pour les endpoints d'administration du Gateway ({@link AdminEndpointWebFilter}).
+     */
+    public boolean hasRole(Authentication authentication, String role) {
+        return isActive(authentication) && roleHierarchy.implies(roleNamesOf(authentication), role);
+    }
+
+    private boolean isActive(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated() && !isRevoked(authentication);
+    }
+
+    /**
+     * Claims du token (JWT ou introspection), avec au minimum {@code sub}.
+     */
+    private static Map<String, Object> claimsOf(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof Jwt jwt) {
+            return jwt.getClaims();
+        }
+        if (principal instanceof OAuth2AuthenticatedPrincipal oauth2) {
+            return oauth2.getAttributes();
+        }
+        return Map.of("sub", authentication.getName());
+    }
+
+    /**
+     * Token révoqué (jti/sid)? Filtre de Bloom sans verrou: quasi gratuit pour les tokens valides.
+     */
+    private boolean isRevoked(Authentication authentication) {
+        if (revocationList != null && authentication.getPrincipal() instanceof Jwt jwt && revocationList.isRevoked(jwt)) {
+            log.warn("   🚫 Access DENIED - token revoked (sub: {})", jwt.getSubject());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rôles de l'utilisateur, sans le préfixe "ROLE_". Avec {@link CachingReactiveJwtDecoder},
+     * ils ne sont calculés qu'une fois par token.
+     */
+    private Set<String> roleNamesOf(Authentication authentication) {
+        CachingReactiveJwtDecoder cache = cachingJwtDecoder();
+        Jwt jwt = cache != null && authentication.getPrincipal() instanceof Jwt principal ? principal : null;
+        if (jwt != null) {
+            Set<String> cached = cache.getRoleNames(jwt);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Set<String> roles = new HashSet<>();
+        for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
+            String authority = grantedAuthority.getAuthority();
+            // Les authorities sont au format "ROLE_XXX"
+            roles.add(authority.startsWith("ROLE_") ? authority.substring(5) : authority);
+        }
+        Set<String> roleNames = Collections.unmodifiableSet(roles);
+        if (jwt != null) {
+            cache.putRoleNames(jwt, roleNames);
+        }
+        return roleNames;
+    }
+
+    private CachingReactiveJwtDecoder cachingJwtDecoder() {
+        if (!jwtDecoderResolved) {
+            ReactiveJwtDecoder decoder = jwtDecoder.get();
+            cachingJwtDecoder = decoder instanceof CachingReactiveJwtDecoder caching ? caching : null;
+            jwtDecoderResolved = true;
+        }
+        return cachingJwtDecoder;
+    }
+
+    /**
+     * Snapshot compilé des règles actives, recompilé quand {@link DynamicSecurityLoader#getVersion()} change.
+     * Partagé avec les autres filtres du Gateway (limite de débit...).
+     *
+     * Avec un {@link ShadowRuleEvaluator}, une nouvelle version devient candidate et les règles actives
+     * restent en place jusqu'à sa promotion (sauf s'il n'y a encore aucune règle active).
+     */
+    public RuleSnapshot getRuleSnapshot() {
+        if (shadowEvaluator != null) {
+            RuleSnapshot promoted = shadowEvaluator.pollAutoPromotion();
+            if (promoted != null) {
+                activate(promoted);
+            }
+        }
+        long version = securityLoader.getVersion();
+        if (compiledVersion == version) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (compiledVersion != version) {
+                RuleSnapshot compiled = RuleSnapshot.compile(securityLoader.getAllRules(), roleHierarchy, version);
+                compiledVersion = version;
+                if (shadowEvaluator == null || snapshot.size() == 0) {
+                    snapshot = compiled;
+                    log.info("🔄 Compiled {} security rule(s) (version {})", compiled.size(), version);
+                } else {
+                    shadowEvaluator.propose(compiled, snapshot);
+                    log.info("🕵️ Compiled {} candidate security rule(s) (version {}), shadow-evaluated against version {}",
+                        compiled.size(), version, snapshot.getVersion());
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Met en service le snapshot candidat sans attendre la promotion automatique.
+     *
+     * @return La version promue, ou -1 s'il n'y a pas de candidat (ou pas d'évaluation shadow)
+     */
+    public long promoteCandidate() {
+        RuleSnapshot candidate = shadowEvaluator != null ? shadowEvaluator.takeCandidate() : null;
+        if (candidate == null) {
+            return -1;
+        }
+        activate(candidate);
+        return candidate.getVersion();
+    }
+
+    /**
+     * Décision pour les requêtes qu'aucune règle ne couvre (défaut: {@link UnmatchedPathPolicy#ALLOW_AUTHENTICATED}).
+     */
+    public void setUnmatchedPathPolicy(UnmatchedPathPolicy unmatchedPathPolicy) {
+        this.unmatchedPathPolicy = unmatchedPathPolicy;
+    }
+
+    public UnmatchedPathPolicy getUnmatchedPathPolicy() {
+        return unmatchedPathPolicy;
+    }
+
+    /**
+     * @return Nombre de requêtes refusées faute de règle ({@link UnmatchedPathPolicy})
+     */
+    public long getRejectedUnknownPaths() {
+        return rejectedUnknownPaths.sum();
+    }
+
+    /**
+     * @return Le comptage des requêtes refusées ou sans règle, ou null s'il n'est pas activé
+     */
+    public HeavyHitterTracker getHeavyHitterTracker() {
+        return heavyHitterTracker;
+    }
+
+    /**
+     * @return L'évaluation shadow, ou null si elle n'est pas activée
+     */
+    public ShadowRuleEvaluator getShadowEvaluator() {
+        return shadowEvaluator;
+    }
+
+    private synchronized void activate(RuleSnapshot candidate) {
+        // Un candidat est toujours plus récent que l'actif: l'ordre des versions est préservé
+        if (candidate.getVersion() > snapshot.getVersion()) {
+            snapshot = candidate;
+            log.info("🔄 Promoted {} security rule(s) (version {})", candidate.size(), candidate.getVersion());
+        }
+    }
+}
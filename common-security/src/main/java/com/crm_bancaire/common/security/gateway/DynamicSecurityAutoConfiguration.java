@@ -0,0 +1,378 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.cache.ExpiringCacheMetrics;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import com.crm_bancaire.common.security.jwt.KeycloakJwtClaimExtractor;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.env.Environment;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Auto-configuration pour la sécurité dynamique dans le Gateway
+ *
+ * Les paramètres de {@link EnableDynamicSecurity} sont lus sur la classe qui l'importe ({@link ImportAware}),
+ * sans introspection de la pile d'appel: compatible AOT / native image et runners de tests.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass(name = "org.springframework.cloud.gateway.config.GatewayAutoConfiguration")
+@Slf4j
+public class DynamicSecurityAutoConfiguration implements ImportAware {
+
+    private long refreshInterval = 300000;
+    private long initialDelay = 10000;
+
+    @Override
+    public void setImportMetadata(AnnotationMetadata importMetadata) {
+        AnnotationAttributes annotation = AnnotationAttributes.fromMap(
+            importMetadata.getAnnotationAttributes(EnableDynamicSecurity.class.getName()));
+        if (annotation != null) {
+            this.refreshInterval = annotation.<Long>getNumber("refreshInterval");
+            this.initialDelay = annotation.<Long>getNumber("initialDelay");
+        }
+    }
+
+    @Bean
+    @LoadBalanced
+    @org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean(org.springframework.web.reactive.function.client.WebClient.Builder.class)
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        log.info("🔧 Configuring LoadBalanced WebClient.Builder for dynamic security");
+        return WebClient.builder();
+    }
+
+    @Bean(name = "dynamicSecurityLoader")
+    public DynamicSecurityLoader dynamicSecurityLoader(
+            DiscoveryClient discoveryClient,
+            WebClient.Builder webClientBuilder) {
+
+        log.info("🔧 Configuring DynamicSecurityLoader");
+
+        return new DynamicSecurityLoader(discoveryClient, webClientBuilder, refreshInterval, initialDelay);
+    }
+
+    @Bean
+    public DynamicAuthorizationManager dynamicAuthorizationManager(DynamicSecurityLoader securityLoader,
+                                                                   ObjectProvider<ReactiveJwtDecoder> jwtDecoder,
+                                                                   ObjectProvider<TokenRevocationList> revocationList,
+                                                                   RoleHierarchy roleHierarchy,
+                                                                   ObjectProvider<ShadowRuleEvaluator> shadowEvaluator,
+                                                                   ObjectProvider<HeavyHitterTracker> heavyHitterTracker,
+                                                                   @Value("${common.security.gateway.unmatched-policy:allow-authenticated}") String unmatchedPolicy) {
+        log.info("🔧 Configuring DynamicAuthorizationManager");
+        DynamicAuthorizationManager manager = new DynamicAuthorizationManager(securityLoader, jwtDecoder::getIfUnique,
+            revocationList.getIfAvailable(), roleHierarchy, shadowEvaluator.getIfAvailable(), heavyHitterTracker.getIfAvailable());
+        manager.setUnmatchedPathPolicy(UnmatchedPathPolicy.parse(unmatchedPolicy));
+        if (manager.getUnmatchedPathPolicy() != UnmatchedPathPolicy.ALLOW_AUTHENTICATED) {
+            log.info("🔧 Requests without a matching rule: {}", manager.getUnmatchedPathPolicy());
+        }
+        return manager;
+    }
+
+    /**
+     * Hiérarchie de rôles appliquée aux règles, ex:
+     * {@code common.security.roles.hierarchy=SUPER_ADMIN > ADMIN > AGENT > CLIENT}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RoleHierarchy roleHierarchy(@Value("${common.security.roles.hierarchy:}") String hierarchy) {
+        RoleHierarchy roleHierarchy = RoleHierarchy.parse(hierarchy);
+        if (!roleHierarchy.isEmpty()) {
+            log.info("🔧 Using role hierarchy: {}", roleHierarchy);
+        }
+        return roleHierarchy;
+    }
+
+    @Bean
+    public SecurityRulesController securityRulesController(DynamicSecurityLoader securityLoader,
+                                                           DynamicAuthorizationManager dynamicAuthorizationManager) {
+        log.info("🔧 Configuring SecurityRulesController for manual reload");
+        return new SecurityRulesController(securityLoader, dynamicAuthorizationManager);
+    }
+
+    /**
+     * Rôle requis sur /admin/security/** (révocations, rechargement, shadow, heavy-hitters),
+     * même si la chaîne Spring Security du Gateway laisse passer /admin/**; rôle opérateur pour
+     * promouvoir ou rejeter les règles candidates.
+     */
+    @Bean
+    public AdminEndpointWebFilter adminEndpointWebFilter(
+            DynamicAuthorizationManager dynamicAuthorizationManager,
+            @Value("${common.security.gateway.admin.role:" + AdminEndpointWebFilter.DEFAULT_ADMIN_ROLE + "}") String adminRole,
+            @Value("${common.security.gateway.admin.operator-role:" + AdminEndpointWebFilter.DEFAULT_OPERATOR_ROLE + "}") String operatorRole) {
+        log.info("🔧 Configuring AdminEndpointWebFilter (/admin/security/** requires role {}, shadow promote/reject role {})",
+            adminRole, operatorRole);
+        return new AdminEndpointWebFilter(dynamicAuthorizationManager, adminRole, operatorRole);
+    }
+
+    /**
+     * Requêtes refusées faute de règle: {@code security.gateway.unknown-paths.rejected}.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    static class UnknownPathMetricsConfiguration {
+
+        @Bean
+        public UnknownPathMetrics unknownPathMetrics(DynamicAuthorizationManager dynamicAuthorizationManager) {
+            return new UnknownPathMetrics(dynamicAuthorizationManager);
+        }
+    }
+
+    /**
+     * Plus gros émetteurs de requêtes refusées ou sans règle (/admin/security/heavy-hitters, rôle administrateur).
+     * Activation: {@code common.security.gateway.heavy-hitters.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.gateway.heavy-hitters", name = "enabled", havingValue = "true")
+    static class HeavyHitterConfiguration {
+
+        @Bean
+        public HeavyHitterTracker heavyHitterTracker(
+                @Value("${common.security.gateway.heavy-hitters.width:2048}") int width,
+                @Value("${common.security.gateway.heavy-hitters.depth:4}") int depth,
+                @Value("${common.security.gateway.heavy-hitters.top-k:20}") int topK,
+                @Value("${common.security.gateway.heavy-hitters.window:60000}") long window,
+                @Value("${common.security.gateway.heavy-hitters.buckets:6}") int buckets) {
+            return new HeavyHitterTracker(width, depth, topK, window, buckets);
+        }
+    }
+
+    /**
+     * Évaluation shadow des règles modifiées avant leur mise en service.
+     * Activation: {@code common.security.gateway.shadow.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.gateway.shadow", name = "enabled", havingValue = "true")
+    static class ShadowEvaluationConfiguration {
+
+        @Bean
+        public ShadowRuleEvaluator shadowRuleEvaluator(
+                @Value("${common.security.gateway.shadow.sample-rate:0.1}") double sampleRate,
+                @Value("${common.security.gateway.shadow.auto-promote:true}") boolean autoPromote,
+                @Value("${common.security.gateway.shadow.min-samples:1000}") long minSamples,
+                @Value("${common.security.gateway.shadow.max-diff-rate:0}") double maxDiffRate,
+                @Value("${common.security.gateway.shadow.queue-capacity:1024}") int queueCapacity) {
+            log.info("🔧 Configuring ShadowRuleEvaluator (sample rate {}, auto-promote {} after {} sample(s))",
+                sampleRate, autoPromote, minSamples);
+            return new ShadowRuleEvaluator(sampleRate, autoPromote, minSamples, maxDiffRate, queueCapacity);
+        }
+    }
+
+    /**
+     * Permissions de l'utilisateur courant pour les frontends (/security/permissions).
+     * Désactivation: {@code common.security.gateway.permissions.enabled=false}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "common.security.gateway.permissions", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public PermissionController permissionController(DynamicAuthorizationManager dynamicAuthorizationManager,
+                                                     @Value("${common.security.gateway.permissions.max-checks:200}") int maxChecks) {
+        log.info("🔧 Configuring PermissionController for /security/permissions");
+        return new PermissionController(dynamicAuthorizationManager, maxChecks);
+    }
+
+    /**
+     * Limites de débit déclarées sur @SecuredEndpoint/@PublicEndpoint (rateLimit).
+     * Désactivation: {@code common.security.gateway.rate-limit.enabled=false}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.gateway.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class RateLimitConfiguration {
+
+        @Bean
+        public GcraRateLimiter gcraRateLimiter(
+                @Value("${common.security.gateway.rate-limit.stripes:16}") int stripes,
+                @Value("${common.security.gateway.rate-limit.eviction-interval:10000}") long evictionInterval) {
+            return new GcraRateLimiter(stripes, evictionInterval);
+        }
+
+        @Bean
+        public RateLimitWebFilter rateLimitWebFilter(DynamicAuthorizationManager dynamicAuthorizationManager,
+                                                     GcraRateLimiter gcraRateLimiter) {
+            log.info("🔧 Configuring RateLimitWebFilter for annotated endpoint rate limits");
+            return new RateLimitWebFilter(dynamicAuthorizationManager, gcraRateLimiter);
+        }
+
+        @Configuration
+        @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+        static class RateLimitMetricsConfiguration {
+
+            @Bean
+            public RateLimitMetrics rateLimitMetrics(GcraRateLimiter gcraRateLimiter) {
+                return new RateLimitMetrics(gcraRateLimiter);
+            }
+        }
+    }
+
+    /**
+     * Cache des réponses GET des endpoints @PublicEndpoint(cacheTtl = ...).
+     * Désactivation: {@code common.security.gateway.response-cache.enabled=false}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.gateway.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class ResponseCacheConfiguration {
+
+        @Bean
+        public ResponseCacheWebFilter responseCacheWebFilter(
+                DynamicAuthorizationManager dynamicAuthorizationManager,
+                @Value("${common.security.gateway.response-cache.max-bytes:52428800}") long maxBytes,
+                @Value("${common.security.gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes) {
+            log.info("🔧 Configuring ResponseCacheWebFilter for public endpoints with cacheTtl (max {} MB)",
+                maxBytes / (1024 * 1024));
+            return new ResponseCacheWebFilter(dynamicAuthorizationManager, new ResponseCache(maxBytes, maxEntryBytes));
+        }
+    }
+
+    /**
+     * Révocation immédiate de tokens (jti/sid) par endpoint admin ou fichier.
+     * Activation: {@code common.security.gateway.revocation.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.gateway.revocation", name = "enabled", havingValue = "true")
+    static class TokenRevocationConfiguration {
+
+        @Bean
+        public TokenRevocationList tokenRevocationList(
+                @Value("${common.security.gateway.revocation.expected-entries:100000}") int expectedEntries,
+                @Value("${common.security.gateway.revocation.max-entries:1000000}") int maxEntries,
+                @Value("${common.security.gateway.revocation.default-ttl:86400}") long defaultTtlSeconds,
+                @Value("${common.security.gateway.revocation.file:}") String file,
+                @Value("${common.security.gateway.revocation.file-check-interval:5000}") long fileCheckInterval) {
+            log.info("🔧 Configuring TokenRevocationList (expected entries: {}, max: {})", expectedEntries, maxEntries);
+            return new TokenRevocationList(expectedEntries, maxEntries, defaultTtlSeconds * 1000,
+                file.isBlank() ? null : Path.of(file), fileCheckInterval);
+        }
+
+        @Bean
+        public RevocationController revocationController(TokenRevocationList tokenRevocationList) {
+            log.info("🔧 Configuring RevocationController for /admin/security/revocations");
+            return new RevocationController(tokenRevocationList);
+        }
+    }
+
+    /**
+     * Cache des tokens vérifiés devant le ReactiveJwtDecoder du Gateway (s'il existe).
+     * Désactivation: {@code common.security.gateway.jwt-cache.enabled=false}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.gateway.jwt-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class JwtDecoderCacheConfiguration {
+
+        @Bean
+        static BeanPostProcessor cachingReactiveJwtDecoderPostProcessor(Environment environment) {
+            int cacheSize = environment.getProperty("common.security.gateway.jwt-cache.size", Integer.class,
+                CachingReactiveJwtDecoder.DEFAULT_CACHE_SIZE);
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof ReactiveJwtDecoder decoder && !(bean instanceof CachingReactiveJwtDecoder)) {
+                        log.info("🔧 Caching verified tokens of ReactiveJwtDecoder '{}' (max {} tokens)", beanName, cacheSize);
+                        return new CachingReactiveJwtDecoder(decoder, cacheSize);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Configuration
+        @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+        static class JwtDecoderCacheMetricsConfiguration {
+
+            @Bean
+            public ExpiringCacheMetrics gatewayJwtCacheMetrics(ObjectProvider<ReactiveJwtDecoder> jwtDecoder) {
+                return jwtDecoder.getIfUnique() instanceof CachingReactiveJwtDecoder caching
+                    ? new ExpiringCacheMetrics(caching.getTokenCache(), "gateway-jwt") : null;
+            }
+        }
+    }
+
+    /**
+     * Cache des introspections devant le ReactiveOpaqueTokenIntrospector du Gateway (tokens opaques).
+     * Désactivation: {@code common.security.gateway.introspection-cache.enabled=false}.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector")
+    @ConditionalOnProperty(prefix = "common.security.gateway.introspection-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class OpaqueTokenCacheConfiguration {
+
+        @Bean
+        static BeanPostProcessor cachingReactiveOpaqueTokenIntrospectorPostProcessor(Environment environment) {
+            int cacheSize = environment.getProperty("common.security.gateway.introspection-cache.size", Integer.class,
+                CachingReactiveOpaqueTokenIntrospector.DEFAULT_CACHE_SIZE);
+            Duration maxTtl = Duration.ofSeconds(environment.getProperty(
+                "common.security.gateway.introspection-cache.max-ttl", Long.class, 300L));
+            Duration negativeTtl = Duration.ofSeconds(environment.getProperty(
+                "common.security.gateway.introspection-cache.negative-ttl", Long.class, 30L));
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof ReactiveOpaqueTokenIntrospector introspector
+                            && !(bean instanceof CachingReactiveOpaqueTokenIntrospector)) {
+                        log.info("🔧 Caching introspection results of '{}' (max {} tokens, max ttl {}s)",
+                            beanName, cacheSize, maxTtl.getSeconds());
+                        return new CachingReactiveOpaqueTokenIntrospector(introspector, cacheSize, maxTtl, negativeTtl);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Configuration
+        @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+        static class OpaqueTokenCacheMetricsConfiguration {
+
+            @Bean
+            public ExpiringCacheMetrics gatewayIntrospectionCacheMetrics(ObjectProvider<ReactiveOpaqueTokenIntrospector> introspector) {
+                return introspector.getIfUnique() instanceof CachingReactiveOpaqueTokenIntrospector caching
+                    ? new ExpiringCacheMetrics(caching.getTokenCache(), "gateway-introspection") : null;
+            }
+        }
+    }
+
+    /**
+     * Header d'identité compact signé, transmis aux services après autorisation.
+     * Activation: {@code common.security.identity-header.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.identity-header", name = "enabled", havingValue = "true")
+    static class IdentityHeaderConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public IdentityHeaderCodec identityHeaderCodec(
+                @Value("${common.security.identity-header.secret}") String secret,
+                @Value("${common.security.identity-header.ttl:300}") long ttlSeconds) {
+            return new IdentityHeaderCodec(secret.getBytes(StandardCharsets.UTF_8), Duration.ofSeconds(ttlSeconds));
+        }
+
+        @Bean
+        public IdentityHeaderFilter identityHeaderFilter(
+                IdentityHeaderCodec identityHeaderCodec,
+                ObjectProvider<JwtClaimExtractor> jwtClaimExtractor,
+                @Value("${common.security.jwt.client-id:" + KeycloakJwtClaimExtractor.DEFAULT_CLIENT_NAME + "}") String clientId) {
+            log.info("🔧 Configuring IdentityHeaderFilter ({} forwarded to services)", IdentityHeaderCodec.HEADER_NAME);
+            return new IdentityHeaderFilter(identityHeaderCodec,
+                jwtClaimExtractor.getIfAvailable(() -> new KeycloakJwtClaimExtractor(0, clientId)));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.dto.SecurityRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Charge dynamiquement les règles de sécurité depuis tous les microservices enregistrés dans Eureka
+ */
+@Slf4j
+public class DynamicSecurityLoader extends SecurityRulesLoader {
+
+    private final DiscoveryClient discoveryClient;
+    private final WebClient.Builder webClientBuilder;
+
+    public DynamicSecurityLoader(DiscoveryClient discoveryClient, WebClient.Builder webClientBuilder,
+                                 long refreshInterval, long initialDelay) {
+        super(refreshInterval, initialDelay);
+        this.discoveryClient = discoveryClient;
+        this.webClientBuilder = webClientBuilder;
+    }
+
+    @Override
+    public void loadSecurityRules() {
+        log.info("🔍 Discovering services from Eureka...");
+
+        List<String> services = discoveryClient.getServices();
+        log.info("📋 Found {} service(s): {}", services.size(), services);
+
+        if (services.isEmpty()) {
+            log.warn("⚠️ No services found in Eureka registry");
+            return;
+        }
+
+        Flux.fromIterable(services)
+                .filter(this::isRulesService)
+                .doOnNext(serviceName -> log.info("🔄 Attempting to load rules from service: {}", serviceName))
+                .flatMap(serviceName -> {
+                    String uri = "lb://" + serviceName + "/security/rules";
+                    log.debug("   → Calling URI: {}", uri);
+
+                    return webClientBuilder.build()
+                            .get()
+                            .uri(uri)
+                            .retrieve()
+                            .bodyToMono(SecurityRules.class)
+                            .timeout(Duration.ofSeconds(5))
+                            .doOnNext(rules -> {
+                                if (rules != null && rules.getEndpoints() != null) {
+                                    updateRules(serviceName, rules.getEndpoints());
+                                }
+                            })
+                            .onErrorResume(e -> {
+                                log.warn("⚠️ Could not load security rules from {}: {} ({})",
+                                        serviceName, e.getMessage(), e.getClass().getSimpleName());
+                                return Mono.empty();
+                            });
+                }, 8)
+                .collectList()
+                .doOnSuccess(list -> {
+                    log.info("🎯 Security rules loading completed");
+                    log.info("   → Total services with rules: {}", getAllRules().size());
+                    log.info("   → Next refresh in {} seconds", getRefreshInterval() / 1000.0);
+                })
+                .doOnError(e -> log.error("❌ Error during security rules loading", e))
+                .subscribe();
+    }
+}
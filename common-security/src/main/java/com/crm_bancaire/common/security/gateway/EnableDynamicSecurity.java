@@ -5,12 +5,13 @@ import org.springframework.context.annotation.Import;
 import java.lang.annotation.*;
 
 /**
- * Annotation pour activer la sécurité dynamique dans le Gateway.
+ * Annotation pour activer la sécurité dynamique dans le Gateway (Spring Cloud Gateway réactif,
+ * ou Gateway Spring MVC via {@link ServletDynamicSecurityAutoConfiguration}).
  *
  * Cette annotation active automatiquement:
  * - Le chargement dynamique des règles de sécurité depuis les microservices
  * - L'AuthorizationManager qui applique les règles dynamiquement
- * - Le WebClient avec LoadBalancer pour appeler les microservices
+ * - Le WebClient avec LoadBalancer pour appeler les microservices (RestClient en servlet)
  *
  * Usage:
  * <pre>
@@ -26,7 +27,7 @@ import java.lang.annotation.*;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Import(DynamicSecurityAutoConfiguration.class)
+@Import({DynamicSecurityAutoConfiguration.class, ServletDynamicSecurityAutoConfiguration.class})
 public @interface EnableDynamicSecurity {
 
     /**
@@ -0,0 +1,153 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiteur de débit en mémoire, sans verrou (GCRA: Generic Cell Rate Algorithm).
+ *
+ * Équivalent à un token bucket de capacité {@code limit} rechargé de {@code limit} jetons par
+ * {@code period}, mais l'état d'une clé tient dans un seul {@code long} (l'heure d'arrivée
+ * théorique, TAT) mis à jour par compare-and-set: pas de verrou ni de thread de recharge.
+ *
+ * - Les clés sont réparties sur des stripes (une map par stripe) pour limiter la contention
+ * - Une clé inactive (TAT dépassé: seau plein) est équivalente à une clé absente; elle est
+ *   supprimée par un balayage périodique, une stripe à la fois. Le balayage marque d'abord le compteur
+ *   ({@link #EVICTED}) par compare-and-set: une requête qui le tenait déjà reprend celui de la map
+ *   au lieu de consommer un compteur orphelin
+ */
+@Slf4j
+public class GcraRateLimiter {
+
+    /** TAT d'un compteur retiré par le balayage: il ne doit plus être mis à jour. */
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final Map<String, AtomicLong>[] stripes;
+    private final int mask;
+    private final long evictionIntervalMillis;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private int nextStripe;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param stripes                Nombre de stripes (arrondi à la puissance de 2 supérieure)
+     * @param evictionIntervalMillis Intervalle entre deux balayages de stripe
+     */
+    @SuppressWarnings("unchecked")
+    public GcraRateLimiter(int stripes, long evictionIntervalMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Map[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "GcraRateLimiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::evictIdleStripe,
+            evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Consomme un jeton pour la clé.
+     *
+     * @param key          Clé limitée (ex: règle + sub)
+     * @param limit        Requêtes autorisées par période (rafale comprise)
+     * @param periodMillis Période de la limite
+     * @return 0 si la requête est acceptée, sinon le délai (ms) avant qu'un jeton soit disponible
+     */
+    public long tryAcquire(String key, int limit, long periodMillis) {
+        long interval = Math.max(1, periodMillis / limit);
+        long tolerance = periodMillis - interval;
+        Map<String, AtomicLong> stripe = stripes[stripeOf(key)];
+        AtomicLong tat = stripe.computeIfAbsent(key, k -> new AtomicLong());
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            long current = tat.get();
+            if (current == EVICTED) {
+                // Retiré entre la lecture et le CAS: reprendre (ou recréer) le compteur de la map
+                stripe.remove(key, tat);
+                tat = stripe.computeIfAbsent(key, k -> new AtomicLong());
+                continue;
+            }
+            long base = Math.max(current, now);
+            long wait = base - tolerance - now;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + interval)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Supprime les clés inactives d'une stripe (une stripe par appel, à tour de rôle).
+     */
+    void evictIdleStripe() {
+        Map<String, AtomicLong> stripe = stripes[nextStripe];
+        nextStripe = (nextStripe + 1) & mask;
+        long now = System.currentTimeMillis();
+        // Seau plein: supprimer la clé ne change pas les décisions futures. Le CAS échoue si une requête
+        // vient de consommer un jeton: la clé est alors gardée.
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            AtomicLong tat = entry.getValue();
+            long current = tat.get();
+            if (current != EVICTED && current <= now && tat.compareAndSet(current, EVICTED)) {
+                stripe.remove(entry.getKey(), tat);
+            }
+        }
+    }
+
+    /**
+     * @return Nombre de clés suivies
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private int stripeOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,245 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Plus gros émetteurs de requêtes refusées ou sans règle (méthode, pattern, sub), en mémoire constante.
+ *
+ * - Comptage: count-min sketch ({@code depth} lignes de {@code width} compteurs) par tranche de
+ *   fenêtre glissante; la fenêtre de {@code windowMillis} est découpée en {@code buckets} tranches
+ *   et la plus ancienne est remise à zéro à chaque rotation
+ * - Candidats: anneau de taille fixe où chaque événement écrit sa clé (les plus anciennes sont écrasées)
+ * - Top-K: recalculé à chaque rotation, sur le thread de rotation, à partir des candidats et du top
+ *   précédent, avec les estimations du sketch sur la fenêtre
+ *
+ * Le chemin chaud ({@link #record}) ne fait que des incréments atomiques et une écriture dans l'anneau:
+ * ni verrou ni allocation proportionnelle au trafic. Les estimations peuvent surévaluer (collisions),
+ * jamais sous-évaluer.
+ */
+@Slf4j
+public class HeavyHitterTracker {
+
+    /** Requête refusée par une règle (rôles, condition, authentification). */
+    public static final String DENIED = "denied";
+    /** Requête sans règle correspondante. */
+    public static final String NO_RULE = "no-rule";
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final int width;
+    private final int depth;
+    private final int topK;
+    private final long bucketMillis;
+    private final AtomicLongArray[] buckets;
+    private final AtomicReferenceArray<String> candidates;
+    private final AtomicLong candidateCursor = new AtomicLong();
+
+    private volatile int currentBucket;
+    private volatile List<HeavyHitter> top = Collections.emptyList();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param width        Compteurs par ligne du sketch (arrondi à la puissance de 2 supérieure)
+     * @param depth        Lignes du sketch (fonctions de hachage indépendantes)
+     * @param topK         Nombre d'émetteurs publiés
+     * @param windowMillis Durée de la fenêtre glissante
+     * @param buckets      Tranches de la fenêtre (granularité du glissement)
+     */
+    public HeavyHitterTracker(int width, int depth, int topK, long windowMillis, int buckets) {
+        this.width = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.topK = topK;
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.buckets = new AtomicLongArray[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new AtomicLongArray(this.width * depth);
+        }
+        this.candidates = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, topK * 32 - 1)) << 1);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "HeavyHitterTracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::rotate, bucketMillis, bucketMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Compte une requête refusée ou sans règle.
+     *
+     * @param outcome {@link #DENIED} ou {@link #NO_RULE}
+     * @param method  Méthode HTTP
+     * @param path    Pattern de la règle (ou chemin brut s'il n'y a pas de règle)
+     * @param subject {@code sub} de l'utilisateur, ou "anonymous"
+     */
+    public void record(String outcome, String method, String path, String subject) {
+        String key = outcome + SEPARATOR + method + SEPARATOR + path + SEPARATOR + subject;
+        AtomicLongArray counters = buckets[currentBucket];
+        int hash = key.hashCode();
+        int hash2 = mix(hash);
+        for (int row = 0; row < depth; row++) {
+            counters.incrementAndGet(row * width + ((hash + row * hash2) & (width - 1)));
+        }
+        candidates.lazySet((int) (candidateCursor.getAndIncrement() & (candidates.length() - 1)), key);
+    }
+
+    /**
+     * @return Les plus gros émetteurs sur la fenêtre, par nombre décroissant (calculé à la dernière rotation)
+     */
+    public List<HeavyHitter> getTop() {
+        return top;
+    }
+
+    public long getWindowMillis() {
+        return bucketMillis * buckets.length;
+    }
+
+    /**
+     * Estimation du nombre d'événements d'une clé sur la fenêtre: minimum, sur les lignes,
+     * de la somme des tranches.
+     */
+    long estimate(String key) {
+        int hash = key.hashCode();
+        int hash2 = mix(hash);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((hash + row * hash2) & (width - 1));
+            long sum = 0;
+            for (AtomicLongArray bucket : buckets) {
+                sum += bucket.get(index);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * Rotation: publie le top-K de la fenêtre écoulée, puis fait glisser la fenêtre d'une tranche.
+     */
+    void rotate() {
+        try {
+            publishTop();
+            int next = (currentBucket + 1) % buckets.length;
+            AtomicLongArray expired = buckets[next];
+            for (int i = 0; i < expired.length(); i++) {
+                expired.set(i, 0);
+            }
+            currentBucket = next;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Heavy hitter rotation failed: {}", e.getMessage());
+        }
+    }
+
+    private void publishTop() {
+        Set<String> keys = new HashSet<>();
+        for (HeavyHitter hitter : top) {
+            keys.add(hitter.key);
+        }
+        for (int i = 0; i < candidates.length(); i++) {
+            String key = candidates.get(i);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+
+        PriorityQueue<HeavyHitter> heap = new PriorityQueue<>(topK + 1, Comparator.comparingLong(HeavyHitter::getCount));
+        for (String key : keys) {
+            long count = estimate(key);
+            if (count == 0) {
+                continue;
+            }
+            if (heap.size() < topK) {
+                heap.add(HeavyHitter.of(key, count));
+            } else if (count > heap.peek().getCount()) {
+                heap.poll();
+                heap.add(HeavyHitter.of(key, count));
+            }
+        }
+        List<HeavyHitter> sorted = new ArrayList<>(heap);
+        sorted.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed());
+        top = Collections.unmodifiableList(sorted);
+    }
+
+    private static int mix(int hash) {
+        // Second hachage (murmur3 fmix32), impair pour parcourir toutes les colonnes
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+
+    /**
+     * Émetteur fréquent: (issue, méthode, chemin, sub) et nombre estimé sur la fenêtre.
+     */
+    public static final class HeavyHitter {
+        private final String key;
+        private final String outcome;
+        private final String method;
+        private final String path;
+        private final String subject;
+        private final long count;
+
+        private HeavyHitter(String key, String outcome, String method, String path, String subject, long count) {
+            this.key = key;
+            this.outcome = outcome;
+            this.method = method;
+            this.path = path;
+            this.subject = subject;
+            this.count = count;
+        }
+
+        static HeavyHitter of(String key, long count) {
+            String[] parts = key.split(String.valueOf(SEPARATOR), 4);
+            return new HeavyHitter(key, parts[0], parts[1], parts[2], parts[3], count);
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
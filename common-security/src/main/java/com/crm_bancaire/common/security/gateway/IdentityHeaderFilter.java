@@ -0,0 +1,72 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtre Gateway qui transmet aux services un header d'identité compact signé
+ * ({@link IdentityHeaderCodec#HEADER_NAME}) après l'autorisation de {@link DynamicAuthorizationManager}.
+ *
+ * Les services lisent l'acteur avec un seul HMAC au lieu de re-décoder le JWT à chaque saut.
+ * Tout header {@code X-Identity} reçu du client est supprimé: seul le Gateway peut l'émettre.
+ *
+ * Activation: {@code common.security.identity-header.enabled=true}.
+ */
+@Slf4j
+public class IdentityHeaderFilter implements GlobalFilter, Ordered {
+
+    private final IdentityHeaderCodec codec;
+    private final JwtClaimExtractor jwtClaimExtractor;
+
+    public IdentityHeaderFilter(IdentityHeaderCodec codec, JwtClaimExtractor jwtClaimExtractor) {
+        this.codec = codec;
+        this.jwtClaimExtractor = jwtClaimExtractor;
+    }
+
+    @Override
+    public int getOrder() {
+        // Avant le routage, pour que le header modifié soit celui envoyé au service
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return exchange.getPrincipal()
+            .filter(Authentication.class::isInstance)
+            .map(principal -> ((Authentication) principal).getPrincipal())
+            .filter(Jwt.class::isInstance)
+            .map(jwt -> identityHeader(exchange, (Jwt) jwt))
+            .defaultIfEmpty("")
+            .flatMap(header -> chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(IdentityHeaderCodec.HEADER_NAME);
+                    if (!header.isEmpty()) {
+                        headers.set(IdentityHeaderCodec.HEADER_NAME, header);
+                    }
+                }))
+                .build()));
+    }
+
+    private String identityHeader(ServerWebExchange exchange, Jwt jwt) {
+        try {
+            ActorInfo actor = jwtClaimExtractor.extractFromJwt(jwt);
+            if (actor == null) {
+                return "";
+            }
+            String decision = exchange.getAttributeOrDefault(DynamicAuthorizationManager.DECISION_ATTRIBUTE, "authenticated");
+            return codec.encode(actor, decision, jwt.getTokenValue());
+        } catch (Exception e) {
+            log.warn("⚠️ Could not build identity header: {}", e.getMessage());
+            return "";
+        }
+    }
+}
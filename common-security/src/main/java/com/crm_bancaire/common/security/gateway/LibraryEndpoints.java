@@ -0,0 +1,42 @@
+package com.crm_bancaire.common.security.gateway;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/**
+ * Endpoints exposés par la librairie elle-même: aucun service ne les déclare, la
+ * {@link UnmatchedPathPolicy} ne doit donc pas les refuser faute de règle.
+ *
+ * - {@code /security/permissions/**}: permissions de l'utilisateur courant ({@link PermissionController})
+ * - {@code /security/rules}: règles exposées par un service ({@code SecurityMetadataController})
+ * - {@code /admin/security/**}: administration, rôle vérifié par {@link AdminEndpointWebFilter}
+ *
+ * Ils restent soumis à l'authentification, comme avec {@link UnmatchedPathPolicy#ALLOW_AUTHENTICATED}.
+ */
+final class LibraryEndpoints {
+
+    private static final List<PathPattern> PATTERNS = List.of(
+        PathPatternParser.defaultInstance.parse("/security/permissions/**"),
+        PathPatternParser.defaultInstance.parse("/security/rules"),
+        PathPatternParser.defaultInstance.parse("/admin/security/**")
+    );
+
+    private LibraryEndpoints() {
+    }
+
+    static boolean contains(PathContainer path) {
+        for (PathPattern pattern : PATTERNS) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean contains(String path) {
+        return path != null && contains(PathContainer.parsePath(path));
+    }
+}
@@ -0,0 +1,97 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.dto.EndpointPermission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Permissions de l'utilisateur courant, pour que les frontends et BFF affichent menus et boutons
+ * sans sonder les endpoints un par un. Les décisions viennent du même snapshot compilé que
+ * l'autorisation du Gateway ({@link DynamicAuthorizationManager}).
+ *
+ * <pre>
+ * POST /security/permissions
+ * {"checks": [{"method": "GET", "path": "/api/users/42"}, {"method": "DELETE", "path": "/api/users/42"}]}
+ *
+ * POST /security/permissions
+ * {"service": "sib-user-service"}
+ *
+ * GET /security/permissions/manifest
+ * </pre>
+ *
+ * - {@code checks}: chemins concrets, décision ALLOWED/DENIED (conditions évaluées)
+ * - {@code service}: tous les endpoints du service, CONDITIONAL si une condition dépend du chemin
+ * - {@code manifest}: endpoints accessibles, tous services, pré-calculé par combinaison de rôles
+ */
+@RestController
+@RequestMapping("/security/permissions")
+@Slf4j
+public class PermissionController {
+
+    private final DynamicAuthorizationManager authorizationManager;
+    private final int maxChecks;
+
+    /**
+     * @param maxChecks Nombre maximum de (méthode, chemin) par requête
+     */
+    public PermissionController(DynamicAuthorizationManager authorizationManager, int maxChecks) {
+        this.authorizationManager = authorizationManager;
+        this.maxChecks = maxChecks;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Map<String, Object>>> evaluate(@RequestBody PermissionRequest request,
+                                                              ServerWebExchange exchange) {
+        if (request.checks() != null && !request.checks().isEmpty()) {
+            if (request.checks().size() > maxChecks) {
+                return Mono.just(ResponseEntity.badRequest().body(Map.of(
+                    "message", "Too many checks (max " + maxChecks + ")")));
+            }
+            return withAuthentication(exchange, auth -> ResponseEntity.ok(
+                body(authorizationManager.evaluate(auth, request.checks()))));
+        }
+        if (request.service() != null && !request.service().isBlank()) {
+            return withAuthentication(exchange, auth -> ResponseEntity.ok(
+                body(authorizationManager.evaluateService(auth, request.service()))));
+        }
+        return Mono.just(ResponseEntity.badRequest().body(Map.of(
+            "message", "Field 'checks' or 'service' is required")));
+    }
+
+    @GetMapping("/manifest")
+    public Mono<Map<String, Object>> manifest(ServerWebExchange exchange) {
+        return withAuthentication(exchange, auth -> body(authorizationManager.manifest(auth)));
+    }
+
+    private Map<String, Object> body(List<EndpointPermission> permissions) {
+        return Map.of(
+            "version", authorizationManager.getRuleSnapshot().getVersion(),
+            "permissions", permissions
+        );
+    }
+
+    private static <T> Mono<T> withAuthentication(ServerWebExchange exchange, Function<Authentication, T> handler) {
+        return exchange.getPrincipal()
+            .ofType(Authentication.class)
+            .map(handler)
+            .switchIfEmpty(Mono.fromSupplier(() -> handler.apply(null)));
+    }
+
+    /**
+     * Corps de {@code POST /security/permissions}: {@code checks} ou {@code service}.
+     */
+    public record PermissionRequest(List<EndpointPermission> checks, String service) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.crm_bancaire.common.security.gateway;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Expose les décisions du {@link GcraRateLimiter} dans Micrometer:
+ * {@code security.gateway.ratelimit.requests} (outcome allowed/rejected) et
+ * {@code security.gateway.ratelimit.keys} (clients suivis).
+ *
+ * Les compteurs sont lus à la demande: aucun coût sur le chemin critique.
+ */
+public class RateLimitMetrics implements MeterBinder {
+
+    private final GcraRateLimiter rateLimiter;
+
+    public RateLimitMetrics(GcraRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.gateway.ratelimit.requests", rateLimiter, GcraRateLimiter::getAllowedCount)
+            .tag("outcome", "allowed")
+            .description("Rate-limited requests let through")
+            .register(registry);
+
+        FunctionCounter.builder("security.gateway.ratelimit.requests", rateLimiter, GcraRateLimiter::getRejectedCount)
+            .tag("outcome", "rejected")
+            .description("Requests rejected with 429")
+            .register(registry);
+
+        Gauge.builder("security.gateway.ratelimit.keys", rateLimiter, GcraRateLimiter::size)
+            .description("Clients currently tracked by the rate limiter")
+            .register(registry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+/**
+ * Applique les limites de débit déclarées sur {@code @SecuredEndpoint(rateLimit = ...)} et
+ * {@code @PublicEndpoint(rateLimit = ...)}, avant tout routage vers le service.
+ *
+ * - Endpoint sécurisé: limite par utilisateur (nom du principal, c'est-à-dire le {@code sub} du JWT)
+ * - Endpoint public ou requête anonyme: limite par adresse IP cliente
+ * - Au-delà: 429 avec {@code Retry-After}, sans appeler le service
+ *
+ * La règle est trouvée dans le même {@link RuleSnapshot} compilé que l'autorisation.
+ * Exécuté après la chaîne Spring Security (le principal est déjà authentifié).
+ *
+ * ⚠️ Derrière un load balancer, activez {@code server.forward-headers-strategy=framework}
+ * pour que l'adresse cliente soit celle de X-Forwarded-For.
+ */
+@Slf4j
+public class RateLimitWebFilter implements WebFilter, Ordered {
+
+    /** Après WebFilterChainProxy de Spring Security (-100), avant le routage du Gateway. */
+    public static final int ORDER = 0;
+
+    private final DynamicAuthorizationManager authorizationManager;
+    private final GcraRateLimiter rateLimiter;
+
+    public RateLimitWebFilter(DynamicAuthorizationManager authorizationManager, GcraRateLimiter rateLimiter) {
+        this.authorizationManager = authorizationManager;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        String method = exchange.getRequest().getMethod().name();
+        RuleSnapshot.CompiledRule rule = authorizationManager.getRuleSnapshot().match(path, method);
+        if (rule == null || rule.getRateLimit() <= 0) {
+            return chain.filter(exchange);
+        }
+
+        return exchange.getPrincipal()
+            .filter(principal -> !rule.isPublic() && isAuthenticated(principal))
+            .map(principal -> "sub:" + principal.getName())
+            .defaultIfEmpty("ip:" + clientAddress(exchange))
+            .flatMap(client -> {
+                long waitMillis = rateLimiter.tryAcquire(rule.getPattern() + ' ' + method + ' ' + client,
+                    rule.getRateLimit(), rule.getRateLimitPeriodMillis());
+                if (waitMillis == 0) {
+                    return chain.filter(exchange);
+                }
+                log.warn("🚦 Rate limit exceeded for {} {} ({}, {} per {}s)", method, path, client,
+                    rule.getRateLimit(), rule.getRateLimitPeriodMillis() / 1000);
+                exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, (waitMillis + 999) / 1000)));
+                return exchange.getResponse().setComplete();
+            });
+    }
+
+    private static boolean isAuthenticated(Principal principal) {
+        return !(principal instanceof Authentication authentication) || authentication.isAuthenticated();
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.crm_bancaire.common.security.gateway;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de réponses HTTP borné en octets, utilisé par {@link ResponseCacheWebFilter}.
+ *
+ * - Éviction LRU pondérée par la taille: les entrées les moins récemment lues sont retirées
+ *   jusqu'à repasser sous {@code maxBytes} (un catalogue de 500 Ko compte pour 500 Ko, pas pour 1)
+ * - Une réponse plus grosse que {@code maxEntryBytes} n'est jamais mise en cache
+ * - Expiration à la lecture
+ *
+ * Les opérations sont protégées par un verrou unique: elles ne font que des accès à une
+ * {@link LinkedHashMap} (pas d'I/O), ce qui reste négligeable devant l'aller-retour évité.
+ */
+public class ResponseCache {
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * @param maxBytes      Taille totale maximale des corps en cache
+     * @param maxEntryBytes Taille maximale d'un corps mis en cache
+     */
+    public ResponseCache(long maxBytes, int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * @return La réponse en cache et non expirée, ou null
+     */
+    public synchronized CachedResponse get(String key) {
+        CachedResponse response = entries.get(key);
+        if (response == null) {
+            return null;
+        }
+        if (response.expiresAtMillis() <= System.currentTimeMillis()) {
+            remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Met une réponse en cache puis évince les moins récemment lues si le budget est dépassé.
+     */
+    public synchronized void put(String key, CachedResponse response) {
+        if (response.body().length > maxEntryBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, response);
+        totalBytes += response.weight();
+
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().weight();
+            eldest.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.weight();
+        }
+    }
+
+    /**
+     * Réponse en cache: statut, headers (copie en lecture seule) et corps.
+     */
+    public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body,
+                                 long storedAtMillis, long expiresAtMillis) {
+
+        long weight() {
+            // Corps + estimation forfaitaire des headers et de l'entrée
+            return body.length + 512L;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sert depuis la mémoire du Gateway les GET d'endpoints {@code @PublicEndpoint(cacheTtl = ...)}
+ * (listes d'agences, catalogues...), sans appeler le service.
+ *
+ * - Uniquement les règles publiques: une règle {@code @SecuredEndpoint} n'est jamais mise en cache,
+ *   aucune donnée d'utilisateur ne peut donc être servie à un autre
+ * - Clé: méthode + chemin + query normalisée (paramètres triés)
+ * - Seules les réponses 200 sont gardées, et jamais si le service envoie {@code Cache-Control}
+ *   no-store/no-cache/private, un {@code Set-Cookie} ou un {@code Vary}
+ * - {@code max-age}/{@code s-maxage} du service plafonne {@code cacheTtl}
+ * - Cache borné en octets ({@link ResponseCache})
+ * - Le corps est transmis au client au fil de l'eau et copié jusqu'à {@code maxEntryBytes} seulement:
+ *   au-delà (réponse chunked sans {@code Content-Length}), la copie est abandonnée et rien n'est gardé
+ */
+@Slf4j
+public class ResponseCacheWebFilter implements WebFilter, Ordered {
+
+    /** Après la limite de débit ({@link RateLimitWebFilter#ORDER}), avant le routage. */
+    public static final int ORDER = RateLimitWebFilter.ORDER + 10;
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)\\s*=\\s*(\\d+)");
+
+    private final DynamicAuthorizationManager authorizationManager;
+    private final ResponseCache cache;
+
+    public ResponseCacheWebFilter(DynamicAuthorizationManager authorizationManager, ResponseCache cache) {
+        this.authorizationManager = authorizationManager;
+        this.cache = cache;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        String path = exchange.getRequest().getPath().value();
+        RuleSnapshot.CompiledRule rule = authorizationManager.getRuleSnapshot().match(path, "GET");
+        if (rule == null || !rule.isPublic() || rule.getCacheTtl() <= 0) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(path, exchange.getRequest().getQueryParams());
+        ResponseCache.CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            log.debug("📦 Response cache HIT for {}", key);
+            return write(exchange.getResponse(), cached);
+        }
+
+        long ttlMillis = rule.getCacheTtl() * 1000L;
+        ServerHttpResponse capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                long ttl = cacheableTtl(this, ttlMillis);
+                if (ttl <= 0) {
+                    return super.writeWith(body);
+                }
+                BodyCapture capture = new BodyCapture(cache.getMaxEntryBytes(), getHeaders().getContentLength());
+                Flux<? extends DataBuffer> teed = Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        byte[] bytes = capture.toByteArray();
+                        if (bytes == null) {
+                            log.debug("📦 Response not cached for {}: larger than {} bytes", key, cache.getMaxEntryBytes());
+                            return;
+                        }
+                        long now = System.currentTimeMillis();
+                        cache.put(key, new ResponseCache.CachedResponse(getStatusCode(), copyHeaders(getHeaders()),
+                            bytes, now, now + ttl));
+                        log.debug("📦 Response cached for {} ({} bytes, {}s)", key, bytes.length, ttl / 1000);
+                    });
+                return super.writeWith(teed);
+            }
+        };
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    /**
+     * @return La durée de cache autorisée pour cette réponse, ou 0 si elle ne doit pas être gardée
+     */
+    private long cacheableTtl(ServerHttpResponse response, long ttlMillis) {
+        if (response.getStatusCode() == null || response.getStatusCode().value() != HttpStatus.OK.value()) {
+            return 0;
+        }
+        HttpHeaders headers = response.getHeaders();
+        if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.containsKey(HttpHeaders.VARY)) {
+            return 0;
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength > cache.getMaxEntryBytes()) {
+            return 0;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return ttlMillis;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        if (directives.contains("no-store") || directives.contains("no-cache") || directives.contains("private")) {
+            return 0;
+        }
+        Matcher maxAge = MAX_AGE.matcher(directives);
+        return maxAge.find() ? Math.min(ttlMillis, Long.parseLong(maxAge.group(1)) * 1000) : ttlMillis;
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, ResponseCache.CachedResponse cached) {
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        long ageSeconds = (System.currentTimeMillis() - cached.storedAtMillis()) / 1000;
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(ageSeconds));
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Méthode + chemin + paramètres triés par nom puis valeur: {@code ?b=2&a=1} et {@code ?a=1&b=2}
+     * partagent la même entrée.
+     */
+    static String cacheKey(String path, MultiValueMap<String, String> queryParams) {
+        StringBuilder key = new StringBuilder("GET ").append(path);
+        if (!queryParams.isEmpty()) {
+            char separator = '?';
+            for (Map.Entry<String, List<String>> param : new TreeMap<>(queryParams).entrySet()) {
+                List<String> values = new ArrayList<>(param.getValue());
+                values.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+                for (String value : values) {
+                    key.append(separator).append(param.getKey()).append('=').append(value != null ? value : "");
+                    separator = '&';
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Copie du corps transmis, abandonnée dès qu'elle dépasse la taille maximale d'une entrée:
+     * la mémoire utilisée par réponse reste bornée, quelle que soit la taille du corps.
+     */
+    private static final class BodyCapture {
+        private final long maxBytes;
+        private ByteArrayOutputStream bytes;
+
+        BodyCapture(long maxBytes, long contentLength) {
+            this.maxBytes = maxBytes;
+            this.bytes = new ByteArrayOutputStream((int) Math.min(Math.max(contentLength, 256), maxBytes));
+        }
+
+        /**
+         * Copie le buffer sans le consommer (il est ensuite écrit tel quel vers le client).
+         */
+        void append(DataBuffer buffer) {
+            if (bytes == null) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (bytes.size() + (long) length > maxBytes) {
+                bytes = null;
+                return;
+            }
+            byte[] chunk = new byte[length];
+            int position = buffer.readPosition();
+            buffer.read(chunk);
+            buffer.readPosition(position);
+            bytes.write(chunk, 0, length);
+        }
+
+        /**
+         * @return Le corps complet, ou null s'il dépassait la taille maximale
+         */
+        byte[] toByteArray() {
+            return bytes != null ? bytes.toByteArray() : null;
+        }
+    }
+
+    /**
+     * Copie figée des headers, sans les headers de transport recalculés à chaque envoi.
+     */
+    private static HttpHeaders copyHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        copy.remove(HttpHeaders.TRANSFER_ENCODING);
+        copy.remove(HttpHeaders.CONNECTION);
+        copy.remove(HttpHeaders.CONTENT_LENGTH);
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+}
@@ -0,0 +1,112 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.dto.SecurityRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Variante servlet de {@link DynamicSecurityLoader} pour un Gateway Spring MVC: mêmes règles,
+ * même versionnement, sans WebClient ni Reactor.
+ *
+ * Les instances sont choisies directement dans le {@link DiscoveryClient} (une instance au hasard
+ * par service) et appelées avec un {@link RestClient} bloquant, 8 services à la fois, depuis le
+ * thread de rafraîchissement.
+ */
+@Slf4j
+public class RestClientSecurityLoader extends SecurityRulesLoader {
+
+    private static final int CONCURRENCY = 8;
+    private static final long LOAD_TIMEOUT_SECONDS = 30;
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient;
+    private final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY, r -> {
+        Thread thread = new Thread(r, "SecurityRulesFetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param restClient Client utilisé pour {@code GET <instance>/security/rules} (timeouts inclus)
+     */
+    public RestClientSecurityLoader(DiscoveryClient discoveryClient, RestClient restClient,
+                                    long refreshInterval, long initialDelay) {
+        super(refreshInterval, initialDelay);
+        this.discoveryClient = discoveryClient;
+        this.restClient = restClient;
+    }
+
+    @Override
+    public void loadSecurityRules() {
+        log.info("🔍 Discovering services from Eureka...");
+
+        List<String> services = discoveryClient.getServices();
+        log.info("📋 Found {} service(s): {}", services.size(), services);
+
+        if (services.isEmpty()) {
+            log.warn("⚠️ No services found in Eureka registry");
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String serviceName : services) {
+            if (isRulesService(serviceName)) {
+                tasks.add(() -> {
+                    loadServiceRules(serviceName);
+                    return null;
+                });
+            }
+        }
+        try {
+            executor.invokeAll(tasks, LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        log.info("🎯 Security rules loading completed");
+        log.info("   → Total services with rules: {}", getAllRules().size());
+        log.info("   → Next refresh in {} seconds", getRefreshInterval() / 1000.0);
+    }
+
+    private void loadServiceRules(String serviceName) {
+        log.info("🔄 Attempting to load rules from service: {}", serviceName);
+        try {
+            List<ServiceInstance> instances = discoveryClient.getInstances(serviceName);
+            if (instances.isEmpty()) {
+                log.warn("⚠️ No instance available for {}", serviceName);
+                return;
+            }
+            ServiceInstance instance = instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+            String uri = instance.getUri() + "/security/rules";
+            log.debug("   → Calling URI: {}", uri);
+
+            SecurityRules rules = restClient.get()
+                .uri(uri)
+                .retrieve()
+                .body(SecurityRules.class);
+            if (rules != null && rules.getEndpoints() != null) {
+                updateRules(serviceName, rules.getEndpoints());
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not load security rules from {}: {} ({})",
+                    serviceName, e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        executor.shutdownNow();
+    }
+}
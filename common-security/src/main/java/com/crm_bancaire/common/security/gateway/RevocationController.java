@@ -0,0 +1,72 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Endpoints d'administration de la liste de révocation des tokens.
+ *
+ * <pre>
+ * POST /admin/security/revocations
+ * {"id": "&lt;jti ou sid&gt;", "exp": 1735689600}
+ * </pre>
+ *
+ * {@code exp} (secondes epoch) est optionnel: sans lui, l'entrée vit la durée par défaut.
+ * Liste pleine ({@code revocation.max-entries} entrées non expirées): 503.
+ * Réservé au rôle administrateur ({@link AdminEndpointWebFilter}).
+ * Enregistré seulement si {@code common.security.gateway.revocation.enabled=true}.
+ */
+@RestController
+@RequestMapping("/admin/security/revocations")
+@Slf4j
+public class RevocationController {
+
+    /** Un jti ou un sid Keycloak fait quelques dizaines de caractères. */
+    private static final int MAX_ID_LENGTH = 256;
+
+    private final TokenRevocationList revocationList;
+
+    public RevocationController(TokenRevocationList revocationList) {
+        this.revocationList = revocationList;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Map<String, Object>>> revoke(@RequestBody Map<String, Object> request) {
+        Object id = request.get("id");
+        if (!(id instanceof String value) || value.isBlank()) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", "Field 'id' (jti or sid) is required")));
+        }
+        if (value.length() > MAX_ID_LENGTH) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message",
+                "Field 'id' must not exceed " + MAX_ID_LENGTH + " characters")));
+        }
+        long exp = request.get("exp") instanceof Number number ? number.longValue() * 1000 : 0;
+
+        log.info("🚫 Token revocation requested for id {}", value);
+        if (!revocationList.revoke(value, exp)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "message", "Revocation list full",
+                "totalRevoked", revocationList.size()
+            )));
+        }
+        return Mono.just(ResponseEntity.ok(Map.of(
+            "message", "Token revoked",
+            "id", value,
+            "totalRevoked", revocationList.size()
+        )));
+    }
+
+    @GetMapping
+    public Mono<Map<String, Object>> stats() {
+        return Mono.just(Map.of("totalRevoked", revocationList.size()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controller exposant les endpoints d'administration des règles de sécurité.
+ *
+ * Important: l'enregistrement du controller est conditionnel à la présence
+ * d'un bean `DynamicSecurityLoader`. Cela évite l'instanciation de ce
+ * controller dans des applications (ex: user-service) qui ne sont pas des
+ * gateways et qui ne fournissent pas le loader.
+ */
+@RestController
+@RequestMapping("/admin/security")
+@ConditionalOnBean(DynamicSecurityLoader.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class SecurityRulesController {
+
+    private final DynamicSecurityLoader securityLoader;
+    private final DynamicAuthorizationManager authorizationManager;
+
+    public SecurityRulesController(DynamicSecurityLoader securityLoader) {
+        this(securityLoader, null);
+    }
+
+    /**
+     * @param authorizationManager Gestionnaire des règles actives, pour l'évaluation shadow (ou null)
+     */
+    public SecurityRulesController(DynamicSecurityLoader securityLoader, DynamicAuthorizationManager authorizationManager) {
+        this.securityLoader = securityLoader;
+        this.authorizationManager = authorizationManager;
+    }
+
+    /**
+     * Endpoint pour recharger manuellement les règles de sécurité
+     */
+
+   @GetMapping("/reload")
+    public Mono<Map<String, Object>> reloadSecurityRules() {
+        log.info("🔄 Manual security rules reload triggered");
+        securityLoader.loadSecurityRules();
+
+        return Mono.just(Map.of(
+            "message", "Security rules reloaded successfully",
+            "services", securityLoader.getAllRules().keySet(),
+            "totalRules", securityLoader.getAllRules().values().stream()
+                .mapToInt(list -> list.size())
+                .sum()
+        ));
+    }
+
+    /**
+     * Plus gros émetteurs de requêtes refusées ou sans règle sur la fenêtre glissante
+     * (si {@code common.security.gateway.heavy-hitters.enabled=true}, rôle administrateur)
+     */
+    @GetMapping("/heavy-hitters")
+    public Mono<Map<String, Object>> heavyHitters() {
+        HeavyHitterTracker tracker = authorizationManager != null ? authorizationManager.getHeavyHitterTracker() : null;
+        if (tracker == null) {
+            return Mono.just(Map.of("enabled", false));
+        }
+        return Mono.just(Map.of(
+            "enabled", true,
+            "windowSeconds", tracker.getWindowMillis() / 1000,
+            "top", tracker.getTop()
+        ));
+    }
+
+    /**
+     * Statistiques de l'évaluation shadow du candidat en cours (différences de décisions, temps)
+     */
+    @GetMapping("/shadow")
+    public Mono<Map<String, Object>> shadowStatistics() {
+        ShadowRuleEvaluator shadow = shadowEvaluator();
+        if (shadow == null) {
+            return Mono.just(Map.of("enabled", false));
+        }
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", true);
+        statistics.put("activeVersion", authorizationManager.getRuleSnapshot().getVersion());
+        statistics.putAll(shadow.getStatistics());
+        return Mono.just(statistics);
+    }
+
+    /**
+     * Met en service le candidat sans attendre la promotion automatique (rôle opérateur)
+     */
+    @PostMapping("/shadow/promote")
+    public Mono<ResponseEntity<Map<String, Object>>> promoteCandidate() {
+        long version = shadowEvaluator() != null ? authorizationManager.promoteCandidate() : -1;
+        if (version < 0) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "No candidate rules")));
+        }
+        log.info("🕵️ Candidate security rules version {} promoted by operator", version);
+        return Mono.just(ResponseEntity.ok(Map.of("message", "Candidate rules promoted", "version", version)));
+    }
+
+    /**
+     * Écarte le candidat: les règles actives restent en place (rôle opérateur)
+     */
+    @PostMapping("/shadow/reject")
+    public Mono<ResponseEntity<Map<String, Object>>> rejectCandidate() {
+        ShadowRuleEvaluator shadow = shadowEvaluator();
+        long version = shadow != null ? shadow.reject() : -1;
+        if (version < 0) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "No candidate rules")));
+        }
+        return Mono.just(ResponseEntity.ok(Map.of("message", "Candidate rules rejected", "version", version)));
+    }
+
+    private ShadowRuleEvaluator shadowEvaluator() {
+        return authorizationManager != null ? authorizationManager.getShadowEvaluator() : null;
+    }
+}
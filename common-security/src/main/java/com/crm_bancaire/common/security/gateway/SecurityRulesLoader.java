@@ -0,0 +1,147 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.dto.EndpointRule;
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base commune des loaders de règles: règles par service, version, et rafraîchissement périodique.
+ *
+ * La récupération des règles (WebClient pour le Gateway réactif, RestClient pour un Gateway MVC)
+ * est faite par {@link #loadSecurityRules()}; cette classe ne dépend d'aucune pile HTTP.
+ */
+@Slf4j
+public abstract class SecurityRulesLoader {
+
+    private final long refreshInterval;
+    private final long initialDelay;
+
+    private final Map<String, List<EndpointRule>> securityRules = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    protected SecurityRulesLoader(long refreshInterval, long initialDelay) {
+        this.refreshInterval = refreshInterval;
+        this.initialDelay = initialDelay;
+
+        log.info("🎯 {} initialized with:", getClass().getSimpleName());
+        log.info("   ⏱️  Initial Delay: {} ms ({} seconds)", initialDelay, initialDelay / 1000.0);
+        log.info("   🔄 Refresh Interval: {} ms ({} seconds)", refreshInterval, refreshInterval / 1000.0);
+    }
+
+    @PostConstruct
+    public void scheduleSecurityRulesLoading() {
+        log.info("🚀 Starting security rules scheduler...");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "SecurityRulesLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Premier chargement après initialDelay, puis répétition toutes les refreshInterval
+        scheduler.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        log.info("⏰ [SCHEDULED EXECUTION] Starting security rules refresh...");
+                        loadSecurityRules();
+                    } catch (Exception e) {
+                        log.error("❌ Error during scheduled security rules loading", e);
+                    }
+                },
+                initialDelay,           // Délai avant le premier lancement
+                refreshInterval,        // Intervalle entre chaque exécution
+                TimeUnit.MILLISECONDS
+        );
+
+        log.info("✅ Scheduler configured successfully");
+        log.info("   → First execution in {} seconds", initialDelay / 1000.0);
+        log.info("   → Then every {} seconds", refreshInterval / 1000.0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("🛑 Shutting down security rules scheduler...");
+        if (scheduler != null && !scheduler.isShutdown()) {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                    log.warn("⚠️ Scheduler did not terminate in time, forcing shutdown");
+                    scheduler.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                log.error("❌ Interrupted while waiting for scheduler shutdown");
+                scheduler.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("✅ Scheduler shutdown completed");
+    }
+
+    /**
+     * Découvre les services et recharge leurs règles ({@code /security/rules}).
+     */
+    public abstract void loadSecurityRules();
+
+    /**
+     * Indique si un service expose des règles (le Gateway et le registre sont ignorés).
+     */
+    protected boolean isRulesService(String serviceName) {
+        if (serviceName.equalsIgnoreCase("gateway") ||
+                serviceName.equalsIgnoreCase("sib-gateway-service") ||
+                serviceName.equalsIgnoreCase("sib-registry")) {
+            log.debug("⏭️ Skipping service: {}", serviceName);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Enregistre les règles d'un service; la version n'augmente que si elles ont changé.
+     */
+    protected void updateRules(String serviceName, List<EndpointRule> endpoints) {
+        List<EndpointRule> previous = securityRules.put(serviceName, endpoints);
+        if (!endpoints.equals(previous)) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Retourne toutes les règles de sécurité chargées
+     */
+    public Map<String, List<EndpointRule>> getAllRules() {
+        return securityRules;
+    }
+
+    /**
+     * Version des règles, incrémentée à chaque changement: les consommateurs ne recompilent
+     * leurs structures (patterns, bitsets de rôles) que si elle a changé
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Retourne les règles pour un service spécifique
+     */
+    public List<EndpointRule> getRulesForService(String serviceName) {
+        return securityRules.get(serviceName);
+    }
+
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+}
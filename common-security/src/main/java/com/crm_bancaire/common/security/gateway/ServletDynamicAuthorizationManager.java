@@ -0,0 +1,210 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.condition.RuleCondition;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.RequestPath;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Variante servlet de {@link DynamicAuthorizationManager}, pour un Gateway ou un service d'edge Spring MVC:
+ * mêmes règles ({@link SecurityRulesLoader}), même {@link RuleSnapshot} compilé, mêmes décisions
+ * (hiérarchie de rôles, conditions, révocation, {@link UnmatchedPathPolicy}).
+ *
+ * Chemin synchrone pour le cas courant (règle sans condition): décisions constantes, chemin parsé
+ * une seule fois ({@link ParsedPath}) pour toutes les règles, rôles testés directement sur les authorities
+ * ({@code ROLE_XXX}) sans construire d'ensemble. Adapté aux conteneurs servlet à threads virtuels.
+ *
+ * Usage:
+ * <pre>
+ * http.authorizeHttpRequests(auth -&gt; auth.anyRequest().access(servletDynamicAuthorizationManager));
+ * </pre>
+ */
+@Slf4j
+public class ServletDynamicAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final SecurityRulesLoader securityLoader;
+    private final RoleHierarchy roleHierarchy;
+    private final TokenRevocationList revocationList;
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private volatile RuleSnapshot snapshot = RuleSnapshot.EMPTY;
+    private volatile UnmatchedPathPolicy unmatchedPathPolicy = UnmatchedPathPolicy.ALLOW_AUTHENTICATED;
+
+    /**
+     * @param revocationList Tokens révoqués (jti/sid) refusés même authentifiés, ou null
+     * @param roleHierarchy  Hiérarchie appliquée aux rôles requis des règles
+     */
+    public ServletDynamicAuthorizationManager(SecurityRulesLoader securityLoader, TokenRevocationList revocationList,
+                                              RoleHierarchy roleHierarchy) {
+        this.securityLoader = securityLoader;
+        this.revocationList = revocationList;
+        this.roleHierarchy = roleHierarchy;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        String method = request.getMethod();
+        ParsedPath path = pathOf(request);
+        RuleSnapshot rules = getRuleSnapshot();
+
+        // Rejet précoce des chemins qu'aucune règle ne déclare, sauf preflight CORS et endpoints de la librairie
+        if (unmatchedPathPolicy != UnmatchedPathPolicy.ALLOW_AUTHENTICATED && rules.size() > 0
+                && !rules.isKnownPath(path) && !CorsUtils.isPreFlightRequest(request)
+                && !LibraryEndpoints.contains(path.value())) {
+            log.debug("   🚫 No rule for {} {} - rejected by {} policy", method, path.value(), unmatchedPathPolicy);
+            return DENIED;
+        }
+
+        RuleSnapshot.CompiledRule rule = rules.match(path, method);
+        if (rule == null) {
+            // Preflight CORS sans règle OPTIONS: pas de token, la requête réelle sera autorisée
+            if (CorsUtils.isPreFlightRequest(request)) {
+                return GRANTED;
+            }
+            if (!allowsUnmatched(rules, path)) {
+                log.debug("   🚫 No rule for {} {} - rejected by {} policy", method, path.value(), unmatchedPathPolicy);
+                return DENIED;
+            }
+            return isActive(authentication.get()) ? GRANTED : DENIED;
+        }
+        if (rule.isPublic()) {
+            return GRANTED;
+        }
+
+        Authentication auth = authentication.get();
+        if (!isActive(auth)) {
+            return DENIED;
+        }
+        if (!hasAllowedAuthority(rules, rule, auth)) {
+            log.warn("   ❌ Access DENIED for {} {} - user authorities {} do not match required roles {}",
+                     method, path.value(), auth.getAuthorities(), rule.getAllowedRoles());
+            return DENIED;
+        }
+
+        RuleCondition condition = rule.getCondition();
+        if (condition != null && !condition.test(rule.pathVariables(path), claimsOf(auth), roleNamesOf(auth))) {
+            log.warn("   ❌ Access DENIED for {} {} - condition not met: {}", method, path.value(), condition);
+            return DENIED;
+        }
+        return GRANTED;
+    }
+
+    /**
+     * Décision pour les requêtes qu'aucune règle ne couvre (défaut: {@link UnmatchedPathPolicy#ALLOW_AUTHENTICATED}).
+     */
+    public void setUnmatchedPathPolicy(UnmatchedPathPolicy unmatchedPathPolicy) {
+        this.unmatchedPathPolicy = unmatchedPathPolicy;
+    }
+
+    public UnmatchedPathPolicy getUnmatchedPathPolicy() {
+        return unmatchedPathPolicy;
+    }
+
+    /**
+     * Snapshot compilé des règles, recompilé quand {@link SecurityRulesLoader#getVersion()} change.
+     */
+    public RuleSnapshot getRuleSnapshot() {
+        long version = securityLoader.getVersion();
+        RuleSnapshot current = snapshot;
+        if (current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current.getVersion() != version) {
+                current = RuleSnapshot.compile(securityLoader.getAllRules(), roleHierarchy, version);
+                snapshot = current;
+                log.info("🔄 Compiled {} security rule(s) (version {})", current.size(), version);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Chemin de la requête dans l'application (sans context path): celui déjà isolé par Spring MVC
+     * s'il existe, sinon calculé ici.
+     */
+    private static ParsedPath pathOf(HttpServletRequest request) {
+        if (ServletRequestPathUtils.hasParsedRequestPath(request)) {
+            return ParsedPath.parse(ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication().value());
+        }
+        return ParsedPath.parse(RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication().value());
+    }
+
+    private boolean allowsUnmatched(RuleSnapshot rules, ParsedPath path) {
+        if (unmatchedPathPolicy != UnmatchedPathPolicy.ALLOW_AUTHENTICATED && LibraryEndpoints.contains(path.value())) {
+            return true;
+        }
+        return switch (unmatchedPathPolicy) {
+            case ALLOW_AUTHENTICATED -> true;
+            case DENY -> rules.size() == 0;
+            case DENY_UNLESS_ROUTE_EXISTS -> rules.size() == 0 || rules.isKnownPath(path);
+        };
+    }
+
+    /**
+     * Authentifié (pas anonyme) et token non révoqué.
+     */
+    private boolean isActive(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated() || trustResolver.isAnonymous(authentication)) {
+            return false;
+        }
+        if (revocationList != null && authentication.getPrincipal() instanceof Jwt jwt && revocationList.isRevoked(jwt)) {
+            log.warn("   🚫 Access DENIED - token revoked (sub: {})", jwt.getSubject());
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean hasAllowedAuthority(RuleSnapshot rules, RuleSnapshot.CompiledRule rule, Authentication auth) {
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if (rules.allowsAuthority(rule, authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rôles sans le préfixe "ROLE_" (uniquement pour les conditions, qui peuvent tester {@code role(...)}).
+     */
+    private static List<String> roleNamesOf(Authentication authentication) {
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
+            String authority = grantedAuthority.getAuthority();
+            roles.add(authority.startsWith("ROLE_") ? authority.substring(5) : authority);
+        }
+        return roles;
+    }
+
+    private static Map<String, Object> claimsOf(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof Jwt jwt) {
+            return jwt.getClaims();
+        }
+        if (principal instanceof OAuth2AuthenticatedPrincipal oauth2) {
+            return oauth2.getAttributes();
+        }
+        return Map.of("sub", authentication.getName());
+    }
+}
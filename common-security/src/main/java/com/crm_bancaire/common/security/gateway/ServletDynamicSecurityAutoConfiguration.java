@@ -0,0 +1,91 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Auto-configuration pour la sécurité dynamique dans un Gateway Spring MVC (servlet).
+ *
+ * Mêmes règles et mêmes décisions que {@link DynamicSecurityAutoConfiguration}, sans WebFlux:
+ * {@link RestClientSecurityLoader} et {@link ServletDynamicAuthorizationManager}.
+ * Activée uniquement par {@link EnableDynamicSecurity}, dont les paramètres sont lus via {@link ImportAware}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(name = {
+    "org.springframework.cloud.client.discovery.DiscoveryClient",
+    "org.springframework.security.web.access.intercept.RequestAuthorizationContext",
+    "org.springframework.web.client.RestClient"
+})
+@Slf4j
+public class ServletDynamicSecurityAutoConfiguration implements ImportAware {
+
+    private long refreshInterval = 300000;
+    private long initialDelay = 10000;
+
+    @Override
+    public void setImportMetadata(AnnotationMetadata importMetadata) {
+        AnnotationAttributes annotation = AnnotationAttributes.fromMap(
+            importMetadata.getAnnotationAttributes(EnableDynamicSecurity.class.getName()));
+        if (annotation != null) {
+            this.refreshInterval = annotation.<Long>getNumber("refreshInterval");
+            this.initialDelay = annotation.<Long>getNumber("initialDelay");
+        }
+    }
+
+    @Bean(name = "dynamicSecurityLoader")
+    @ConditionalOnMissingBean(SecurityRulesLoader.class)
+    public RestClientSecurityLoader dynamicSecurityLoader(DiscoveryClient discoveryClient) {
+        log.info("🔧 Configuring RestClientSecurityLoader");
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofSeconds(5));
+        requestFactory.setReadTimeout(Duration.ofSeconds(5));
+        RestClient restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        return new RestClientSecurityLoader(discoveryClient, restClient, refreshInterval, initialDelay);
+    }
+
+    @Bean
+    public ServletDynamicAuthorizationManager servletDynamicAuthorizationManager(SecurityRulesLoader securityLoader,
+                                                                                 ObjectProvider<TokenRevocationList> revocationList,
+                                                                                 RoleHierarchy roleHierarchy,
+                                                                                 @Value("${common.security.gateway.unmatched-policy:allow-authenticated}") String unmatchedPolicy) {
+        log.info("🔧 Configuring ServletDynamicAuthorizationManager");
+        ServletDynamicAuthorizationManager manager = new ServletDynamicAuthorizationManager(securityLoader,
+            revocationList.getIfAvailable(), roleHierarchy);
+        manager.setUnmatchedPathPolicy(UnmatchedPathPolicy.parse(unmatchedPolicy));
+        if (manager.getUnmatchedPathPolicy() != UnmatchedPathPolicy.ALLOW_AUTHENTICATED) {
+            log.info("🔧 Requests without a matching rule: {}", manager.getUnmatchedPathPolicy());
+        }
+        return manager;
+    }
+
+    /**
+     * Hiérarchie de rôles appliquée aux règles ({@code common.security.roles.hierarchy}).
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RoleHierarchy roleHierarchy(@Value("${common.security.roles.hierarchy:}") String hierarchy) {
+        RoleHierarchy roleHierarchy = RoleHierarchy.parse(hierarchy);
+        if (!roleHierarchy.isEmpty()) {
+            log.info("🔧 Using role hierarchy: {}", roleHierarchy);
+        }
+        return roleHierarchy;
+    }
+}
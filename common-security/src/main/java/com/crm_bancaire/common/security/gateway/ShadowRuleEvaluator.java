@@ -0,0 +1,303 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Évaluation "shadow" d'un snapshot candidat des règles avant sa mise en service.
+ *
+ * Quand le {@link DynamicSecurityLoader} ramène des règles modifiées, {@link DynamicAuthorizationManager}
+ * ne les applique pas directement: le nouveau snapshot devient candidat et une part des requêtes
+ * ({@code sampleRate}) est réévaluée avec l'actif et le candidat, sur un thread dédié (jamais sur
+ * l'event loop). Les décisions différentes et les temps d'évaluation sont comptés.
+ *
+ * Promotion:
+ * - Automatique: après {@code minSamples} échantillons avec un taux de différences ≤ {@code maxDiffRate}
+ * - Manuelle: {@code POST /admin/security/shadow/promote} (ou {@code /reject} pour l'écarter),
+ *   réservé au rôle opérateur ({@link AdminEndpointWebFilter})
+ *
+ * Un candidat plus récent remplace celui en cours (ses statistiques repartent de zéro).
+ * Si la file du thread est pleine, l'échantillon est abandonné (compté dans {@code dropped}).
+ */
+@Slf4j
+public class ShadowRuleEvaluator {
+
+    private static final int MAX_RECENT_DIFFS = 50;
+
+    private final double sampleRate;
+    private final boolean autoPromote;
+    private final long minSamples;
+    private final double maxDiffRate;
+    private final int queueCapacity;
+
+    private final AtomicReference<Candidate> candidate = new AtomicReference<>();
+    private final LongAdder dropped = new LongAdder();
+    private ThreadPoolExecutor executor;
+
+    /**
+     * @param sampleRate    Part des requêtes réévaluées (0..1)
+     * @param autoPromote   Promotion automatique, sinon seulement par un opérateur
+     * @param minSamples    Échantillons requis avant une promotion automatique
+     * @param maxDiffRate   Taux de différences toléré pour une promotion automatique (0 = aucune)
+     * @param queueCapacity Échantillons en attente au maximum
+     */
+    public ShadowRuleEvaluator(double sampleRate, boolean autoPromote, long minSamples, double maxDiffRate,
+                               int queueCapacity) {
+        this.sampleRate = sampleRate;
+        this.autoPromote = autoPromote;
+        this.minSamples = minSamples;
+        this.maxDiffRate = maxDiffRate;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread thread = new Thread(r, "ShadowRuleEvaluator");
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, pool) -> dropped.increment());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Place un snapshot en évaluation, à la place du candidat en cours.
+     */
+    public void propose(RuleSnapshot snapshot, RuleSnapshot active) {
+        Candidate previous = candidate.getAndSet(new Candidate(snapshot, active.getVersion()));
+        if (previous != null) {
+            log.info("🕵️ Candidate rules version {} superseded by version {} after {} sample(s)",
+                previous.snapshot.getVersion(), snapshot.getVersion(), previous.samples.sum());
+        }
+    }
+
+    /**
+     * @return true si la requête courante doit être réévaluée (candidat présent et tirage réussi)
+     */
+    public boolean shouldSample() {
+        return candidate.get() != null && executor != null && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Réévalue une requête avec l'actif et le candidat, sur le thread dédié.
+     *
+     * @param granted Décision pour un snapshot donné, avec les entrées de la requête (rôles, claims...)
+     */
+    public void sample(RuleSnapshot active, String method, String path, Predicate<RuleSnapshot> granted) {
+        Candidate current = candidate.get();
+        if (current == null || executor == null) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                current.record(active, method, path, granted);
+                checkPromotion(current);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Shadow evaluation failed for {} {}: {}", method, path, e.getMessage());
+            }
+        });
+    }
+
+    private void checkPromotion(Candidate current) {
+        long samples = current.samples.sum();
+        if (samples < minSamples || current.ready || current.blocked) {
+            return;
+        }
+        double diffRate = current.diffRate();
+        if (diffRate <= maxDiffRate) {
+            if (autoPromote) {
+                current.ready = true;
+            }
+        } else {
+            current.blocked = true;
+            log.warn("🕵️ Candidate rules version {} differs on {}% of {} sampled request(s) - waiting for operator approval",
+                current.snapshot.getVersion(), String.format("%.2f", diffRate * 100), samples);
+        }
+    }
+
+    /**
+     * Retire le candidat s'il remplit les critères de promotion automatique.
+     *
+     * @return Le snapshot à promouvoir, ou null
+     */
+    RuleSnapshot pollAutoPromotion() {
+        Candidate current = candidate.get();
+        if (current == null || !current.ready || !candidate.compareAndSet(current, null)) {
+            return null;
+        }
+        log.info("🕵️ Candidate rules version {} auto-promoted after {} sample(s), {} diff(s)",
+            current.snapshot.getVersion(), current.samples.sum(), current.diffs());
+        return current.snapshot;
+    }
+
+    /**
+     * Retire le candidat pour une promotion manuelle.
+     *
+     * @return Le snapshot à promouvoir, ou null s'il n'y a pas de candidat
+     */
+    RuleSnapshot takeCandidate() {
+        Candidate current = candidate.getAndSet(null);
+        return current != null ? current.snapshot : null;
+    }
+
+    /**
+     * Écarte le candidat: les règles actives restent en place jusqu'au prochain changement.
+     *
+     * @return La version écartée, ou -1 s'il n'y avait pas de candidat
+     */
+    public long reject() {
+        Candidate current = candidate.getAndSet(null);
+        if (current == null) {
+            return -1;
+        }
+        log.warn("🕵️ Candidate rules version {} rejected after {} sample(s), {} diff(s)",
+            current.snapshot.getVersion(), current.samples.sum(), current.diffs());
+        return current.snapshot.getVersion();
+    }
+
+    /**
+     * Statistiques du candidat en cours, pour {@code GET /admin/security/shadow}.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("sampleRate", sampleRate);
+        statistics.put("autoPromote", autoPromote);
+        statistics.put("minSamples", minSamples);
+        statistics.put("maxDiffRate", maxDiffRate);
+        statistics.put("dropped", dropped.sum());
+        Candidate current = candidate.get();
+        if (current == null) {
+            statistics.put("candidate", null);
+            return statistics;
+        }
+        long samples = current.samples.sum();
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("version", current.snapshot.getVersion());
+        details.put("activeVersion", current.activeVersion);
+        details.put("rules", current.snapshot.size());
+        details.put("proposedAt", current.proposedAtMillis);
+        details.put("samples", samples);
+        details.put("grantedToDenied", current.grantedToDenied.sum());
+        details.put("deniedToGranted", current.deniedToGranted.sum());
+        details.put("diffRate", current.diffRate());
+        details.put("avgActiveNanos", samples > 0 ? current.activeNanos.sum() / samples : 0);
+        details.put("avgCandidateNanos", samples > 0 ? current.candidateNanos.sum() / samples : 0);
+        details.put("status", current.ready ? "ready" : current.blocked ? "awaiting-approval" : "sampling");
+        details.put("recentDiffs", current.recentDiffs());
+        statistics.put("candidate", details);
+        return statistics;
+    }
+
+    /**
+     * Décision différente entre l'actif et le candidat pour une requête échantillonnée.
+     *
+     * @param activePattern    Pattern de la règle active correspondante (null si aucune)
+     * @param candidatePattern Pattern de la règle candidate correspondante (null si aucune)
+     */
+    public record Diff(String method, String path, String activePattern, boolean activeGranted,
+                       String candidatePattern, boolean candidateGranted, long atMillis) {
+    }
+
+    private static final class Candidate {
+        final RuleSnapshot snapshot;
+        final long activeVersion;
+        final long proposedAtMillis = System.currentTimeMillis();
+        final LongAdder samples = new LongAdder();
+        final LongAdder grantedToDenied = new LongAdder();
+        final LongAdder deniedToGranted = new LongAdder();
+        final LongAdder activeNanos = new LongAdder();
+        final LongAdder candidateNanos = new LongAdder();
+        final Deque<Diff> recent = new ArrayDeque<>();
+        volatile boolean ready;
+        volatile boolean blocked;
+
+        Candidate(RuleSnapshot snapshot, long activeVersion) {
+            this.snapshot = snapshot;
+            this.activeVersion = activeVersion;
+        }
+
+        void record(RuleSnapshot active, String method, String path, Predicate<RuleSnapshot> granted) {
+            // Ordre alterné: ni l'actif ni le candidat ne profite toujours du cache CPU chaud
+            boolean activeFirst = (samples.sum() & 1) == 0;
+            long activeTime;
+            long candidateTime;
+            boolean activeGranted;
+            boolean candidateGranted;
+            if (activeFirst) {
+                long t0 = System.nanoTime();
+                activeGranted = granted.test(active);
+                long t1 = System.nanoTime();
+                candidateGranted = granted.test(snapshot);
+                long t2 = System.nanoTime();
+                activeTime = t1 - t0;
+                candidateTime = t2 - t1;
+            } else {
+                long t0 = System.nanoTime();
+                candidateGranted = granted.test(snapshot);
+                long t1 = System.nanoTime();
+                activeGranted = granted.test(active);
+                long t2 = System.nanoTime();
+                candidateTime = t1 - t0;
+                activeTime = t2 - t1;
+            }
+            activeNanos.add(activeTime);
+            candidateNanos.add(candidateTime);
+            samples.increment();
+
+            if (activeGranted != candidateGranted) {
+                (activeGranted ? grantedToDenied : deniedToGranted).increment();
+                Diff diff = new Diff(method, path, patternOf(active, path, method), activeGranted,
+                    patternOf(snapshot, path, method), candidateGranted, System.currentTimeMillis());
+                synchronized (recent) {
+                    if (recent.size() == MAX_RECENT_DIFFS) {
+                        recent.removeFirst();
+                    }
+                    recent.addLast(diff);
+                }
+            }
+        }
+
+        long diffs() {
+            return grantedToDenied.sum() + deniedToGranted.sum();
+        }
+
+        double diffRate() {
+            long samples = this.samples.sum();
+            return samples > 0 ? (double) diffs() / samples : 0;
+        }
+
+        List<Diff> recentDiffs() {
+            synchronized (recent) {
+                return new ArrayList<>(recent);
+            }
+        }
+
+        private static String patternOf(RuleSnapshot rules, String path, String method) {
+            RuleSnapshot.CompiledRule rule = rules.match(path, method);
+            return rule != null ? rule.getPattern() : null;
+        }
+    }
+}
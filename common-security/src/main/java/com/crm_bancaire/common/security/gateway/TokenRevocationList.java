@@ -0,0 +1,252 @@
+package com.crm_bancaire.common.security.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Liste de révocation des tokens ({@code jti} et {@code sid}) vérifiée par le Gateway.
+ *
+ * Pour couper immédiatement un token compromis sans introspection distante à chaque requête:
+ * - Un filtre de Bloom compact répond "sûrement pas révoqué" pour l'immense majorité des requêtes,
+ *   sans verrou ni allocation
+ * - Un ensemble exact confirme les hits du filtre (pas de faux positif au final)
+ * - Chaque entrée expire avec l'{@code exp} du token: inutile de révoquer un token déjà expiré
+ *
+ * Sources: {@link RevocationController} ({@code /admin/security/revocations}) et/ou un fichier
+ * local relu dès qu'il change (lignes {@code <jti|sid> [exp epoch secondes]}, {@code #} pour les commentaires).
+ *
+ * Activation: {@code common.security.gateway.revocation.enabled=true}.
+ */
+@Slf4j
+public class TokenRevocationList {
+
+    private static final long PURGE_INTERVAL_SECONDS = 60;
+
+    public static final int DEFAULT_MAX_ENTRIES = 1_000_000;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final int expectedEntries;
+    private final int maxEntries;
+    private final long defaultTtlMillis;
+    private final Path file;
+    private final long fileCheckIntervalMillis;
+
+    private volatile BloomFilter bloom;
+    private volatile long fileLastModified;
+    private ScheduledExecutorService scheduler;
+
+    public TokenRevocationList(int expectedEntries, long defaultTtlMillis, Path file, long fileCheckIntervalMillis) {
+        this(expectedEntries, DEFAULT_MAX_ENTRIES, defaultTtlMillis, file, fileCheckIntervalMillis);
+    }
+
+    /**
+     * @param expectedEntries  Nombre d'entrées prévu (taille du filtre de Bloom, agrandi si dépassé)
+     * @param maxEntries       Nombre maximal d'entrées non expirées (au-delà, les révocations sont refusées)
+     * @param defaultTtlMillis Durée de vie d'une entrée sans exp connu
+     * @param file             Fichier de révocation surveillé, ou null
+     * @param fileCheckIntervalMillis Intervalle de vérification du fichier
+     */
+    public TokenRevocationList(int expectedEntries, int maxEntries, long defaultTtlMillis, Path file,
+                               long fileCheckIntervalMillis) {
+        this.expectedEntries = Math.max(expectedEntries, 64);
+        this.maxEntries = Math.max(maxEntries, 1);
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.file = file;
+        this.fileCheckIntervalMillis = fileCheckIntervalMillis;
+        this.bloom = new BloomFilter(this.expectedEntries);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "TokenRevocationList");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgeExpired, PURGE_INTERVAL_SECONDS, PURGE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        if (file != null) {
+            reloadFileIfChanged();
+            scheduler.scheduleWithFixedDelay(this::reloadFileIfChanged,
+                fileCheckIntervalMillis, fileCheckIntervalMillis, TimeUnit.MILLISECONDS);
+            log.info("🚫 Watching token revocation file: {}", file);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true si le {@code jti} ou le {@code sid} du token est révoqué
+     */
+    public boolean isRevoked(Jwt jwt) {
+        Map<String, Object> claims = jwt.getClaims();
+        return isRevoked(claims.get("jti")) || isRevoked(claims.get("sid"));
+    }
+
+    /**
+     * Vérification sans verrou ni allocation dans le cas courant (absent du filtre de Bloom).
+     */
+    public boolean isRevoked(Object id) {
+        if (!(id instanceof String value) || !bloom.mightContain(value)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(value);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Révoque un identifiant de token ({@code jti}) ou de session ({@code sid}).
+     *
+     * @param expiresAtMillis Expiration du token (epoch ms), ou 0 pour la durée par défaut
+     * @return false si la liste est pleine ({@code maxEntries} entrées non expirées)
+     */
+    public synchronized boolean revoke(String id, long expiresAtMillis) {
+        long expiresAt = expiresAtMillis > 0 ? expiresAtMillis : System.currentTimeMillis() + defaultTtlMillis;
+        if (expiresAt <= System.currentTimeMillis()) {
+            return true;
+        }
+        if (revoked.size() >= maxEntries && !revoked.containsKey(id)) {
+            purgeExpired();
+            if (revoked.size() >= maxEntries) {
+                log.warn("⚠️ Token revocation list full ({} entries), revocation of {} refused", maxEntries, id);
+                return false;
+            }
+        }
+        revoked.merge(id, expiresAt, Math::max);
+        if (revoked.size() > bloom.capacity) {
+            rebuild();
+        } else {
+            bloom.add(id);
+        }
+        log.debug("🚫 Token id revoked until {}: {}", expiresAt, id);
+        return true;
+    }
+
+    /**
+     * @return Nombre d'entrées révoquées (y compris celles pas encore purgées)
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Retire les entrées expirées et reconstruit le filtre de Bloom (qui ne sait pas supprimer).
+     */
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        bloom = rebuilt;
+    }
+
+    private void reloadFileIfChanged() {
+        try {
+            if (!Files.exists(file)) {
+                return;
+            }
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            if (lastModified == fileLastModified) {
+                return;
+            }
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            int count = 0;
+            for (String line : lines) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = trimmed.split("\\s+");
+                long expiresAt = parts.length > 1 ? Long.parseLong(parts[1]) * 1000 : 0;
+                if (!revoke(parts[0], expiresAt)) {
+                    break;
+                }
+                count++;
+            }
+            fileLastModified = lastModified;
+            log.info("🚫 Loaded {} revocation(s) from {}", count, file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Could not load token revocation file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Filtre de Bloom (~1% de faux positifs à capacité), bits modifiés sans verrou.
+     */
+    static final class BloomFilter {
+
+        final int capacity;
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            // m = -n ln(p) / ln(2)^2 avec p = 1%, k = m/n ln(2)
+            long m = (long) Math.ceil(-capacity * Math.log(0.01) / (Math.log(2) * Math.log(2)));
+            this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+        }
+
+        void add(String value) {
+            long hash = mix(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                bits.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m);
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = mix(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Hash 64 bits dérivé du hashCode (mis en cache par String) avec le finaliseur de MurmurHash3.
+         */
+        private static long mix(String value) {
+            long h = value.hashCode() * 0x9E3779B97F4A7C15L + value.length();
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
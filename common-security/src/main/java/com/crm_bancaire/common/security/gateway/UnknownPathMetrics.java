@@ -0,0 +1,28 @@
+package com.crm_bancaire.common.security.gateway;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Expose {@code security.gateway.unknown-paths.rejected}: requêtes refusées par le Gateway
+ * parce qu'aucune règle ne les couvre ({@link UnmatchedPathPolicy}).
+ *
+ * Le compteur est lu à la demande: aucun coût sur le chemin critique.
+ */
+public class UnknownPathMetrics implements MeterBinder {
+
+    private final DynamicAuthorizationManager authorizationManager;
+
+    public UnknownPathMetrics(DynamicAuthorizationManager authorizationManager) {
+        this.authorizationManager = authorizationManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.gateway.unknown-paths.rejected", authorizationManager,
+                DynamicAuthorizationManager::getRejectedUnknownPaths)
+            .description("Requests rejected at the gateway because no rule covers them")
+            .register(registry);
+    }
+}
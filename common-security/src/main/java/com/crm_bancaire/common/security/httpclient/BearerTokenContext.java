@@ -0,0 +1,179 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Token Bearer à propager sur les appels sortants, pour le thread courant.
+ *
+ * Sur un thread de requête Servlet, le token est lu directement dans l'Authorization header
+ * ({@link RequestContextHolder}). Sur les autres threads (executors, schedulers Reactor, Feign async),
+ * il doit y être transmis:
+ * - automatiquement par Micrometer context-propagation ({@link BearerTokenThreadLocalAccessor})
+ * - ou explicitement avec {@link #wrap(Runnable)} / {@link #runWith(String, Runnable)}
+ *
+ * Dans une chaîne Reactor, le token est aussi lu dans le Context sous la clé {@link #CONTEXT_KEY}.
+ *
+ * Une requête entrante anonyme est transmise comme telle ({@link #ANONYMOUS}): un appel fait pour elle,
+ * même sur un autre thread, ne reçoit jamais le token de service ({@link #isWithinRequest()}).
+ */
+public final class BearerTokenContext {
+
+    /**
+     * Clé du token dans le Context Reactor (identique à celle du ThreadLocalAccessor).
+     */
+    public static final String CONTEXT_KEY = "common.security.bearer-token";
+
+    /**
+     * Clé du header d'identité du Gateway dans le Context Reactor.
+     */
+    public static final String IDENTITY_CONTEXT_KEY = "common.security.identity-header";
+
+    /**
+     * Clé, dans le Context Reactor, du token de la requête entrante auquel le header d'identité est lié.
+     */
+    public static final String IDENTITY_TOKEN_CONTEXT_KEY = "common.security.identity-header.token";
+
+    /**
+     * Valeur liée au thread (ou au Context Reactor) pour une requête entrante sans token.
+     */
+    public static final String ANONYMOUS = "";
+
+    private static final ThreadLocal<String> currentToken = new ThreadLocal<>();
+
+    private BearerTokenContext() {
+    }
+
+    /**
+     * @return Le token (sans "Bearer ") lié au thread, sinon celui de la requête HTTP courante, ou null
+     */
+    public static String getToken() {
+        String token = currentToken.get();
+        if (token != null) {
+            return token.equals(ANONYMOUS) ? null : token;
+        }
+        return fromCurrentRequest();
+    }
+
+    /**
+     * @return true si le thread sert une requête entrante (authentifiée ou anonyme): requête Servlet courante,
+     *         ou token / {@link #ANONYMOUS} transmis depuis une requête
+     */
+    public static boolean isWithinRequest() {
+        return currentToken.get() != null || hasCurrentRequest();
+    }
+
+    /**
+     * @return Le token à transmettre à un autre thread: celui du thread, {@link #ANONYMOUS} dans une requête
+     *         sans token, null hors requête
+     */
+    static String capture() {
+        String token = getToken();
+        return token != null ? token : isWithinRequest() ? ANONYMOUS : null;
+    }
+
+    /**
+     * Lie un token au thread courant ({@link #ANONYMOUS} pour une requête sans token, null pour le retirer).
+     */
+    public static void setToken(String token) {
+        if (token != null) {
+            currentToken.set(token);
+        } else {
+            currentToken.remove();
+        }
+    }
+
+    public static void clear() {
+        currentToken.remove();
+    }
+
+    /**
+     * Exécute une tâche avec le token donné, puis restaure le token précédent.
+     */
+    public static void runWith(String token, Runnable task) {
+        String previous = currentToken.get();
+        setToken(token);
+        try {
+            task.run();
+        } finally {
+            setToken(previous);
+        }
+    }
+
+    /**
+     * Comme {@link #runWith(String, Runnable)}, avec une valeur de retour
+     */
+    public static <T> T callWith(String token, Callable<T> task) throws Exception {
+        String previous = currentToken.get();
+        setToken(token);
+        try {
+            return task.call();
+        } finally {
+            setToken(previous);
+        }
+    }
+
+    /**
+     * Enveloppe une tâche pour qu'elle propage le token courant, quel que soit le thread
+     */
+    public static Runnable wrap(Runnable task) {
+        String captured = capture();
+        return () -> runWith(captured, task);
+    }
+
+    /**
+     * Enveloppe une tâche pour qu'elle propage le token courant, quel que soit le thread
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        String captured = capture();
+        return () -> callWith(captured, task);
+    }
+
+    /**
+     * @return Le header d'identité compact du Gateway reçu par la requête Servlet courante, ou null
+     */
+    public static String getIdentityHeader() {
+        return headerOfCurrentRequest(IdentityHeaderCodec.HEADER_NAME);
+    }
+
+    /**
+     * Extrait le token de l'Authorization header de la requête Servlet courante.
+     */
+    static String fromCurrentRequest() {
+        return extractBearer(headerOfCurrentRequest("Authorization"));
+    }
+
+    private static String headerOfCurrentRequest(String name) {
+        try {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes instanceof ServletRequestAttributes servletAttributes) {
+                return servletAttributes.getRequest().getHeader(name);
+            }
+        } catch (Exception | LinkageError e) {
+            // Pas de requête courante ou pas d'API Servlet (application WebFlux)
+        }
+        return null;
+    }
+
+    private static boolean hasCurrentRequest() {
+        try {
+            return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes;
+        } catch (Exception | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return Le token d'un header "Bearer ...", ou null
+     */
+    public static String extractBearer(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ") && authorizationHeader.length() > 7) {
+            return authorizationHeader.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Intégration Micrometer context-propagation du token Bearer sortant.
+ *
+ * La capture ({@code ContextSnapshot}, {@code contextCapture()} de Reactor) lit le token lié
+ * au thread ou, à défaut, celui de la requête Servlet courante ({@link BearerTokenContext#ANONYMOUS}
+ * pour une requête sans token); il est restauré sur le thread qui exécute l'appel sortant
+ * (executors, schedulers Reactor, Feign async).
+ *
+ * Enregistré automatiquement via {@code META-INF/services/io.micrometer.context.ThreadLocalAccessor}.
+ */
+public class BearerTokenThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    @Override
+    public Object key() {
+        return BearerTokenContext.CONTEXT_KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return BearerTokenContext.capture();
+    }
+
+    @Override
+    public void setValue(String value) {
+        BearerTokenContext.setToken(value);
+    }
+
+    @Override
+    public void setValue() {
+        BearerTokenContext.clear();
+    }
+}
@@ -0,0 +1,45 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Services WebFlux: place le token Bearer de la requête entrante dans le Context Reactor,
+ * où {@link OutboundTokenPropagator} le retrouve pour les appels WebClient, y compris
+ * dans les fan-out parallèles ({@code Flux.flatMap}). Le header d'identité du Gateway l'accompagne.
+ *
+ * Une requête sans token est marquée {@link BearerTokenContext#ANONYMOUS}: ses appels sortants
+ * ne reçoivent pas le token de service.
+ */
+public class BearerTokenWebFilter implements WebFilter, Ordered {
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = BearerTokenContext.extractBearer(
+            exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (token == null) {
+            return chain.filter(exchange)
+                .contextWrite(context -> context.put(BearerTokenContext.CONTEXT_KEY, BearerTokenContext.ANONYMOUS));
+        }
+        String identityHeader = exchange.getRequest().getHeaders().getFirst(IdentityHeaderCodec.HEADER_NAME);
+        return chain.filter(exchange)
+            .contextWrite(context -> {
+                Context withToken = context.put(BearerTokenContext.CONTEXT_KEY, token);
+                return identityHeader != null
+                    ? withToken.put(BearerTokenContext.IDENTITY_CONTEXT_KEY, identityHeader)
+                        .put(BearerTokenContext.IDENTITY_TOKEN_CONTEXT_KEY, token)
+                    : withToken;
+            });
+    }
+}
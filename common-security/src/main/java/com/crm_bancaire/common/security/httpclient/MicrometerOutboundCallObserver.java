@@ -0,0 +1,126 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OutboundCallObserver} Micrometer.
+ *
+ * Métriques (tags à faible cardinalité: client, target, token, status):
+ * - {@code security.outbound.token}: appels par origine du token (user, service, none)
+ * - {@code security.outbound.requests}: latence par service cible, avec histogramme; le tag
+ *   {@code status} isole les 401/403 ({@code 2xx}, {@code 5xx}... sinon)
+ *
+ * Le nombre de cibles distinctes est borné ({@value #MAX_TARGETS}, puis "other") pour qu'une URL
+ * dynamique ne fasse pas exploser le nombre de séries.
+ *
+ * Si un {@link ObservationRegistry} est fourni, chaque appel mesuré est aussi une Observation
+ * {@code security.outbound} (spans de tracing).
+ */
+public class MicrometerOutboundCallObserver implements OutboundCallObserver {
+
+    static final int MAX_TARGETS = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    private final Map<String, String> targets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param observationRegistry Registry des Observations, ou null pour ne pas créer de spans
+     */
+    public MicrometerOutboundCallObserver(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void tokenResolved(String client, String target, TokenSource source) {
+        String tag = targetTag(target);
+        counters.computeIfAbsent(client + '|' + tag + '|' + source.tagValue(), key -> Counter.builder("security.outbound.token")
+                .description("Outbound calls by token source")
+                .tag("client", client)
+                .tag("target", tag)
+                .tag("token", source.tagValue())
+                .register(meterRegistry))
+            .increment();
+    }
+
+    @Override
+    public Call start(String client, String target, TokenSource source) {
+        tokenResolved(client, target, source);
+        String tag = targetTag(target);
+        long startNanos = System.nanoTime();
+
+        Observation observation = null;
+        if (observationRegistry != null && !observationRegistry.isNoop()) {
+            observation = Observation.createNotStarted("security.outbound", observationRegistry)
+                .lowCardinalityKeyValue("client", client)
+                .lowCardinalityKeyValue("target", tag)
+                .lowCardinalityKeyValue("token", source.tagValue())
+                .start();
+        }
+        Observation started = observation;
+
+        return new Call() {
+            @Override
+            public void stop(int status) {
+                record(client, tag, source, statusTag(status), startNanos);
+                if (started != null) {
+                    started.lowCardinalityKeyValue("status", statusTag(status)).stop();
+                }
+            }
+
+            @Override
+            public void error(Throwable error) {
+                record(client, tag, source, "error", startNanos);
+                if (started != null) {
+                    started.lowCardinalityKeyValue("status", "error").error(error).stop();
+                }
+            }
+        };
+    }
+
+    private void record(String client, String target, TokenSource source, String status, long startNanos) {
+        timers.computeIfAbsent(client + '|' + target + '|' + source.tagValue() + '|' + status, key -> Timer.builder("security.outbound.requests")
+                .description("Outbound call latency by target service")
+                .tag("client", client)
+                .tag("target", target)
+                .tag("token", source.tagValue())
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String targetTag(String target) {
+        if (target == null || target.isEmpty()) {
+            return "unknown";
+        }
+        String known = targets.get(target);
+        if (known != null) {
+            return known;
+        }
+        if (targets.size() >= MAX_TARGETS) {
+            return "other";
+        }
+        String previous = targets.putIfAbsent(target, target);
+        return previous != null ? previous : target;
+    }
+
+    private static String statusTag(int status) {
+        if (status == 401 || status == 403 || status == 429) {
+            return String.valueOf(status);
+        }
+        return (status / 100) + "xx";
+    }
+}
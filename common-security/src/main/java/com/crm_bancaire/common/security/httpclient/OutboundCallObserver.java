@@ -0,0 +1,57 @@
+package com.crm_bancaire.common.security.httpclient;
+
+/**
+ * Point d'observation des appels sortants des interceptors Feign, RestTemplate, RestClient et WebClient:
+ * présence du token et latence par client et service cible.
+ *
+ * {@link #NOOP} est utilisé sans Micrometer (aucun coût); sinon {@link MicrometerOutboundCallObserver}.
+ */
+public interface OutboundCallObserver {
+
+    OutboundCallObserver NOOP = new OutboundCallObserver() {
+        @Override
+        public void tokenResolved(String client, String target, TokenSource source) {
+        }
+
+        @Override
+        public Call start(String client, String target, TokenSource source) {
+            return Call.NOOP;
+        }
+    };
+
+    /**
+     * Enregistre l'origine du token d'un appel dont la durée n'est pas mesurable (Feign).
+     */
+    void tokenResolved(String client, String target, TokenSource source);
+
+    /**
+     * Enregistre l'origine du token et démarre la mesure de l'appel.
+     *
+     * @param client Type de client ("feign", "rest-template", "rest-client", "web-client")
+     * @param target Service ou host cible (peut être null)
+     */
+    Call start(String client, String target, TokenSource source);
+
+    /**
+     * Appel en cours de mesure. Exactement une des méthodes doit être appelée.
+     */
+    interface Call {
+
+        Call NOOP = new Call() {
+            @Override
+            public void stop(int status) {
+            }
+
+            @Override
+            public void error(Throwable error) {
+            }
+        };
+
+        /**
+         * @param status Code HTTP de la réponse
+         */
+        void stop(int status);
+
+        void error(Throwable error);
+    }
+}
@@ -0,0 +1,172 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Source unique du token à propager, partagée par les clients Feign, RestTemplate,
+ * RestClient et WebClient.
+ *
+ * Ordre de résolution:
+ * 1. Context Reactor (clé {@link BearerTokenContext#CONTEXT_KEY}) pour WebClient
+ * 2. Token lié au thread ({@link BearerTokenContext}, restauré par context-propagation)
+ * 3. Authorization header de la requête Servlet courante
+ * 4. Token de service ({@link ServiceTokenManager}) s'il est configuré: appels sans utilisateur
+ *    (jobs @Scheduled, consumers de messages)
+ *
+ * Le token de service n'est utilisé que hors de toute requête entrante: une requête anonyme
+ * (ex: {@code @PublicEndpoint}) n'emprunte jamais l'identité du service ({@link BearerTokenContext#isWithinRequest()}).
+ * Il n'est envoyé qu'aux hosts déclarés dans {@code common.security.service-token.audiences}:
+ * aucun token pour un host inconnu.
+ */
+public class OutboundTokenPropagator {
+
+    private final ServiceTokenManager serviceTokenManager;
+    private final Map<String, String> audiences;
+
+    public OutboundTokenPropagator() {
+        this(null, Collections.emptyMap());
+    }
+
+    /**
+     * @param serviceTokenManager Fallback client credentials (null pour désactiver)
+     * @param audiences           Audience du token de service par host cible (ex: "user-service" → "user-api",
+     *                            vide pour l'audience par défaut); seuls ces hosts reçoivent le token de service
+     */
+    public OutboundTokenPropagator(ServiceTokenManager serviceTokenManager, Map<String, String> audiences) {
+        this.serviceTokenManager = serviceTokenManager;
+        this.audiences = audiences;
+    }
+
+    /**
+     * Token résolu et son origine.
+     *
+     * @param value  Le token (sans "Bearer "), ou null
+     * @param source D'où vient le token ({@link TokenSource#NONE} si aucun)
+     */
+    public record ResolvedToken(String value, TokenSource source) {
+
+        static final ResolvedToken NONE = new ResolvedToken(null, TokenSource.NONE);
+
+        static ResolvedToken of(String value, TokenSource source) {
+            return value != null ? new ResolvedToken(value, source) : NONE;
+        }
+    }
+
+    /**
+     * @return Le token (sans "Bearer ") à propager depuis le thread courant, ou null
+     */
+    public String currentToken() {
+        return currentToken(null);
+    }
+
+    /**
+     * @param targetHost Host de l'appel sortant, pour choisir l'audience du token de service (peut être null)
+     * @return Le token (sans "Bearer ") à propager depuis le thread courant, ou null
+     */
+    public String currentToken(String targetHost) {
+        return resolve(targetHost).value();
+    }
+
+    /**
+     * Comme {@link #currentToken(String)}, avec l'origine du token (pour les métriques).
+     */
+    public ResolvedToken resolve(String targetHost) {
+        String token = BearerTokenContext.getToken();
+        if (token != null) {
+            return new ResolvedToken(token, TokenSource.USER);
+        }
+        String audience = serviceAudienceOf(targetHost);
+        if (audience == null || BearerTokenContext.isWithinRequest()) {
+            return ResolvedToken.NONE;
+        }
+        return ResolvedToken.of(serviceTokenManager.getToken(audience), TokenSource.SERVICE);
+    }
+
+    /**
+     * @return Le token lu dans le Context Reactor de l'abonné, sinon depuis le thread courant
+     */
+    public Mono<String> currentTokenReactive() {
+        return currentTokenReactive(null);
+    }
+
+    /**
+     * Comme {@link #currentTokenReactive()}; le token de service est obtenu sans bloquer.
+     */
+    public Mono<String> currentTokenReactive(String targetHost) {
+        return resolveReactive(targetHost).mapNotNull(ResolvedToken::value);
+    }
+
+    /**
+     * Comme {@link #currentTokenReactive(String)}, avec l'origine du token. Ne se termine jamais vide.
+     */
+    public Mono<ResolvedToken> resolveReactive(String targetHost) {
+        return Mono.deferContextual(context -> {
+            String contextToken = context.getOrDefault(BearerTokenContext.CONTEXT_KEY, null);
+            if (contextToken != null) {
+                // ANONYMOUS: requête entrante sans token, pas de token de service
+                return Mono.just(contextToken.equals(BearerTokenContext.ANONYMOUS)
+                    ? ResolvedToken.NONE
+                    : new ResolvedToken(contextToken, TokenSource.USER));
+            }
+            String token = BearerTokenContext.getToken();
+            if (token != null) {
+                return Mono.just(new ResolvedToken(token, TokenSource.USER));
+            }
+            String audience = serviceAudienceOf(targetHost);
+            if (audience == null || BearerTokenContext.isWithinRequest()) {
+                return Mono.just(ResolvedToken.NONE);
+            }
+            return Mono.fromFuture(serviceTokenManager.getTokenAsync(audience))
+                .map(value -> ResolvedToken.of(value, TokenSource.SERVICE))
+                .onErrorReturn(ResolvedToken.NONE);
+        });
+    }
+
+    /**
+     * Header d'identité compact du Gateway à relayer avec le token utilisateur, pour que le
+     * service suivant n'ait pas à décoder le JWT.
+     *
+     * Le header est lié au token de la requête entrante: il n'est relayé que si le token sortant
+     * est ce même token (pas un token lié par {@link BearerTokenContext#runWith} ni un token de service).
+     *
+     * @param outboundToken Token envoyé sur l'appel sortant (sans "Bearer ")
+     * @return Le header reçu par la requête Servlet courante, ou null
+     */
+    public String currentIdentityHeader(String outboundToken) {
+        String identityHeader = BearerTokenContext.getIdentityHeader();
+        if (identityHeader == null || outboundToken == null
+                || !outboundToken.equals(BearerTokenContext.fromCurrentRequest())) {
+            return null;
+        }
+        return identityHeader;
+    }
+
+    /**
+     * Comme {@link #currentIdentityHeader(String)}: header du Context Reactor (relayé seulement avec le token
+     * de la requête entrante qui l'a apporté), sinon de la requête Servlet courante.
+     */
+    public Mono<String> currentIdentityHeaderReactive(String outboundToken) {
+        return Mono.deferContextual(context -> {
+            if (!context.hasKey(BearerTokenContext.IDENTITY_CONTEXT_KEY)) {
+                return Mono.justOrEmpty(currentIdentityHeader(outboundToken));
+            }
+            String inboundToken = context.getOrDefault(BearerTokenContext.IDENTITY_TOKEN_CONTEXT_KEY, null);
+            return outboundToken != null && outboundToken.equals(inboundToken)
+                ? Mono.just(context.<String>get(BearerTokenContext.IDENTITY_CONTEXT_KEY))
+                : Mono.empty();
+        });
+    }
+
+    /**
+     * @return L'audience du token de service pour ce host, ou null s'il ne doit pas en recevoir
+     */
+    private String serviceAudienceOf(String targetHost) {
+        if (serviceTokenManager == null || targetHost == null) {
+            return null;
+        }
+        return audiences.get(targetHost);
+    }
+}
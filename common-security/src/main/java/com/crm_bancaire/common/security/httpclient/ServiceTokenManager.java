@@ -0,0 +1,252 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tokens de service (OAuth2 client credentials) pour les appels inter-services sans utilisateur:
+ * jobs @Scheduled, consumers de messages, démarrage...
+ *
+ * - Un token est mis en cache par audience jusqu'à son expiration
+ * - Il est renouvelé en arrière-plan {@code refreshBefore} avant son {@code exp}: le thread
+ *   appelant reçoit toujours le token encore valide, sans attendre
+ * - Un seul appel au serveur d'autorisation par audience à la fois (single-flight)
+ *
+ * Seul le tout premier appel (aucun token en cache) attend la réponse du serveur.
+ * {@link #getTokenAsync(String)} ne bloque jamais.
+ *
+ * Après un échec, aucune nouvelle requête n'est envoyée pour cette audience pendant un délai
+ * croissant (1s, 2s, 4s... jusqu'à 60s): les appelants sans token reçoivent null immédiatement
+ * au lieu d'attendre le serveur, et une panne du serveur d'autorisation ne se transforme pas
+ * en rafale de requêtes.
+ *
+ * Activation: {@code common.security.service-token.enabled=true}.
+ */
+@Slf4j
+public class ServiceTokenManager {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String DEFAULT_AUDIENCE = "";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final long MIN_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final URI tokenUri;
+    private final String clientId;
+    private final String clientSecret;
+    private final String scope;
+    private final long refreshBeforeMillis;
+    private final HttpClient httpClient;
+
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+
+    /**
+     * @param tokenUri      Endpoint token (ex: {@code .../realms/crm/protocol/openid-connect/token})
+     * @param clientId      Client confidentiel du service
+     * @param clientSecret  Secret du client
+     * @param scope         Scope demandé (null pour aucun)
+     * @param refreshBefore Délai avant {@code exp} à partir duquel le token est renouvelé
+     */
+    public ServiceTokenManager(URI tokenUri, String clientId, String clientSecret, String scope, Duration refreshBefore) {
+        this(tokenUri, clientId, clientSecret, scope, refreshBefore,
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build());
+    }
+
+    public ServiceTokenManager(URI tokenUri, String clientId, String clientSecret, String scope,
+                               Duration refreshBefore, HttpClient httpClient) {
+        this.tokenUri = tokenUri;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.scope = scope;
+        this.refreshBeforeMillis = refreshBefore.toMillis();
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * @return Le token de service pour l'audience par défaut, ou null si indisponible
+     */
+    public String getToken() {
+        return getToken(null);
+    }
+
+    /**
+     * Retourne le token en cache (renouvelé en arrière-plan s'il approche de l'expiration).
+     * N'attend le serveur que si aucun token valide n'existe encore.
+     *
+     * @param audience Audience demandée (null pour l'audience par défaut)
+     * @return Le token d'accès, ou null si le serveur d'autorisation est indisponible
+     */
+    public String getToken(String audience) {
+        String key = audience != null ? audience : DEFAULT_AUDIENCE;
+        String cached = cachedToken(key);
+        if (cached != null) {
+            return cached;
+        }
+        Failure failure = failures.get(key);
+        if (failure != null && failure.isBackingOff()) {
+            log.debug("Service token for audience '{}' unavailable, next attempt in {}ms",
+                key, failure.retryAtMillis() - System.currentTimeMillis());
+            return null;
+        }
+        try {
+            return refresh(key).get(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).value();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("⚠️ Could not obtain service token for audience '{}': {}", key, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Version non bloquante de {@link #getToken(String)} (WebClient, code réactif).
+     */
+    public CompletableFuture<String> getTokenAsync(String audience) {
+        String key = audience != null ? audience : DEFAULT_AUDIENCE;
+        String cached = cachedToken(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return refresh(key).thenApply(CachedToken::value);
+    }
+
+    /**
+     * Token encore valide en cache, avec renouvellement proactif en arrière-plan.
+     */
+    private String cachedToken(String key) {
+        CachedToken token = tokens.get(key);
+        if (token == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now >= token.expiresAtMillis()) {
+            return null;
+        }
+        if (now >= token.expiresAtMillis() - refreshBeforeMillis) {
+            refresh(key);
+        }
+        return token.value();
+    }
+
+    /**
+     * Lance (ou rejoint) le renouvellement du token de cette audience.
+     */
+    private CompletableFuture<CachedToken> refresh(String key) {
+        CompletableFuture<CachedToken> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        Failure failure = failures.get(key);
+        if (failure != null && failure.isBackingOff()) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                "Token endpoint unavailable, next attempt in " + (failure.retryAtMillis() - System.currentTimeMillis()) + "ms"));
+        }
+        CompletableFuture<CachedToken> promise = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing;
+        }
+
+        fetch(key).whenComplete((token, error) -> {
+            if (token != null) {
+                tokens.put(key, token);
+                failures.remove(key);
+                log.debug("🔑 Service token refreshed for audience '{}' (expires in {}s)",
+                    key, (token.expiresAtMillis() - System.currentTimeMillis()) / 1000);
+            } else {
+                Failure next = Failure.after(failures.get(key));
+                failures.put(key, next);
+                log.warn("⚠️ Service token request failed for audience '{}': {} (next attempt in {}s)",
+                    key, error.getMessage(), next.backoffMillis() / 1000);
+            }
+            inFlight.remove(key, promise);
+            if (token != null) {
+                promise.complete(token);
+            } else {
+                promise.completeExceptionally(error);
+            }
+        });
+        return promise;
+    }
+
+    private CompletableFuture<CachedToken> fetch(String audience) {
+        StringBuilder form = new StringBuilder("grant_type=client_credentials")
+            .append("&client_id=").append(encode(clientId))
+            .append("&client_secret=").append(encode(clientSecret));
+        if (scope != null && !scope.isBlank()) {
+            form.append("&scope=").append(encode(scope));
+        }
+        if (!audience.isEmpty()) {
+            form.append("&audience=").append(encode(audience));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(tokenUri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+            .build();
+
+        long requestedAt = System.currentTimeMillis();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenApply(response -> parse(response, requestedAt));
+    }
+
+    private CachedToken parse(HttpResponse<String> response, long requestedAt) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Token endpoint " + tokenUri + " returned HTTP " + response.statusCode());
+        }
+        try {
+            JsonNode body = OBJECT_MAPPER.readTree(response.body());
+            String accessToken = body.path("access_token").asText(null);
+            if (accessToken == null) {
+                throw new IllegalStateException("Token endpoint response has no access_token");
+            }
+            // expires_in est relatif à l'émission: on part de l'heure de la requête, par prudence
+            long expiresIn = body.path("expires_in").asLong(60);
+            return new CachedToken(accessToken, requestedAt + expiresIn * 1000);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid token endpoint response: " + e.getMessage(), e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record CachedToken(String value, long expiresAtMillis) {
+    }
+
+    /**
+     * Dernier échec d'une audience: pas de nouvelle requête avant {@code retryAtMillis}.
+     */
+    private record Failure(long backoffMillis, long retryAtMillis) {
+
+        static Failure after(Failure previous) {
+            long backoff = previous == null ? MIN_BACKOFF_MILLIS : Math.min(previous.backoffMillis() * 2, MAX_BACKOFF_MILLIS);
+            return new Failure(backoff, System.currentTimeMillis() + backoff);
+        }
+
+        boolean isBackingOff() {
+            return System.currentTimeMillis() < retryAtMillis;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Auto-configuration du cœur de propagation du token, partagé par les clients HTTP.
+ *
+ * Elle configure:
+ * - {@link OutboundTokenPropagator} utilisé par les interceptors Feign, RestTemplate, RestClient et WebClient
+ * - {@link OutboundCallObserver} (métriques Micrometer si présent)
+ * - {@link ServiceTokenManager} si {@code common.security.service-token.enabled=true}
+ * - {@link BearerTokenWebFilter} pour les applications WebFlux
+ * - Un TaskDecorator qui transmet le token aux tâches @Async (opt-in, {@code common.security.httpclient.async-propagation})
+ *
+ * Importée par chaque auto-configuration de client HTTP.
+ */
+@Configuration
+@Slf4j
+public class TokenPropagationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboundTokenPropagator outboundTokenPropagator(ObjectProvider<ServiceTokenManager> serviceTokenManager,
+                                                           Environment environment) {
+        Map<String, String> audiences = Binder.get(environment)
+            .bind("common.security.service-token.audiences", Bindable.mapOf(String.class, String.class))
+            .orElse(Collections.emptyMap());
+        return new OutboundTokenPropagator(serviceTokenManager.getIfAvailable(), audiences);
+    }
+
+    /**
+     * Sans Micrometer: aucune mesure.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboundCallObserver outboundCallObserver() {
+        return OutboundCallObserver.NOOP;
+    }
+
+    /**
+     * Métriques des appels sortants, seulement si Micrometer est présent.
+     * Spans (Observations) en plus avec {@code common.security.httpclient.observations=true}.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class OutboundCallMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public OutboundCallObserver outboundCallObserver(
+                ObjectProvider<MeterRegistry> meterRegistry,
+                ObjectProvider<ObservationRegistry> observationRegistry,
+                @Value("${common.security.httpclient.observations:false}") boolean observations) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return OutboundCallObserver.NOOP;
+            }
+            log.info("🔧 Recording outbound call metrics (security.outbound.*)");
+            return new MicrometerOutboundCallObserver(registry, observations ? observationRegistry.getIfAvailable() : null);
+        }
+    }
+
+    /**
+     * Tokens client credentials pour les appels sans utilisateur.
+     * Activation: {@code common.security.service-token.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.security.service-token", name = "enabled", havingValue = "true")
+    static class ServiceTokenConfiguration {
+
+        @Bean
+        public ServiceTokenManager serviceTokenManager(
+                @Value("${common.security.service-token.token-uri}") String tokenUri,
+                @Value("${common.security.service-token.client-id}") String clientId,
+                @Value("${common.security.service-token.client-secret}") String clientSecret,
+                @Value("${common.security.service-token.scope:}") String scope,
+                @Value("${common.security.service-token.refresh-before:60}") long refreshBeforeSeconds) {
+            log.info("🔧 Configuring ServiceTokenManager (client: {}, token endpoint: {})", clientId, tokenUri);
+            return new ServiceTokenManager(URI.create(tokenUri), clientId, clientSecret,
+                scope.isBlank() ? null : scope, Duration.ofSeconds(refreshBeforeSeconds));
+        }
+    }
+
+    /**
+     * Propage le token vers les tâches @Async, sur demande uniquement: un TaskDecorator s'applique
+     * à tous les executors de Spring Boot. Avec @EnableUserContext, préférer
+     * {@code common.security.user-context.async-propagation}, qui transmet le token et le UserContext.
+     * Activation: {@code common.security.httpclient.async-propagation=true}.
+     */
+    @Configuration
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "common.security.httpclient", name = "async-propagation", havingValue = "true")
+    static class AsyncTokenPropagationConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(TaskDecorator.class)
+        public TaskDecorator bearerTokenTaskDecorator() {
+            log.info("🔧 Configuring TaskDecorator for bearer token propagation to @Async tasks");
+            return BearerTokenContext::wrap;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(name = "org.springframework.web.server.WebFilter")
+    static class ReactiveTokenPropagationConfiguration {
+
+        @Bean
+        public BearerTokenWebFilter bearerTokenWebFilter() {
+            log.info("🔧 Configuring BearerTokenWebFilter for JWT propagation in Reactor context");
+            return new BearerTokenWebFilter();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.crm_bancaire.common.security.httpclient;
+
+/**
+ * Origine du token ajouté à un appel sortant.
+ */
+public enum TokenSource {
+
+    /**
+     * Token de l'utilisateur (requête entrante, thread ou Context Reactor)
+     */
+    USER("user"),
+
+    /**
+     * Token de service client credentials ({@link ServiceTokenManager})
+     */
+    SERVICE("service"),
+
+    /**
+     * Aucun token: l'appel part sans Authorization header
+     */
+    NONE("none");
+
+    private final String tagValue;
+
+    TokenSource(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    /**
+     * @return Valeur utilisée dans les tags de métriques
+     */
+    public String tagValue() {
+        return tagValue;
+    }
+}
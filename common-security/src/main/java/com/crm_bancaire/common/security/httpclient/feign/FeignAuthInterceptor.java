@@ -0,0 +1,70 @@
+package com.crm_bancaire.common.security.httpclient.feign;
+
+import com.crm_bancaire.common.security.httpclient.OutboundCallObserver;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator.ResolvedToken;
+import com.crm_bancaire.common.security.httpclient.TokenSource;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Interceptor Feign pour propager automatiquement le JWT Authorization header.
+ *
+ * Lorsqu'un microservice fait un appel Feign vers un autre microservice,
+ * cet interceptor copie automatiquement le header "Authorization: Bearer ..."
+ * de la requête HTTP entrante vers la requête Feign sortante.
+ *
+ * Cela permet de maintenir le contexte d'authentification à travers les appels inter-services.
+ *
+ * Le token est résolu par {@link OutboundTokenPropagator}: les appels faits depuis un executor
+ * ou un client Feign async le propagent aussi (via context-propagation).
+ *
+ * Activation automatique:
+ * - Si Feign est présent dans le classpath
+ * - Via FeignAutoConfiguration
+ */
+@Slf4j
+public class FeignAuthInterceptor implements RequestInterceptor {
+
+    private static final String CLIENT = "feign";
+
+    private final OutboundTokenPropagator tokenPropagator;
+    private final OutboundCallObserver observer;
+
+    public FeignAuthInterceptor() {
+        this(new OutboundTokenPropagator());
+    }
+
+    public FeignAuthInterceptor(OutboundTokenPropagator tokenPropagator) {
+        this(tokenPropagator, OutboundCallObserver.NOOP);
+    }
+
+    public FeignAuthInterceptor(OutboundTokenPropagator tokenPropagator, OutboundCallObserver observer) {
+        this.tokenPropagator = tokenPropagator;
+        this.observer = observer;
+    }
+
+    @Override
+    public void apply(RequestTemplate requestTemplate) {
+        String target = requestTemplate.feignTarget() != null ? requestTemplate.feignTarget().name() : null;
+        ResolvedToken token = tokenPropagator.resolve(target);
+
+        if (token.value() != null) {
+            // Propager l'Authorization header vers le service appelé
+            requestTemplate.header("Authorization", "Bearer " + token.value());
+            String identityHeader = token.source() == TokenSource.USER
+                ? tokenPropagator.currentIdentityHeader(token.value()) : null;
+            if (identityHeader != null) {
+                requestTemplate.header(IdentityHeaderCodec.HEADER_NAME, identityHeader);
+            }
+            log.debug("🔐 Propagating JWT to Feign call: {} {}",
+                requestTemplate.method(), requestTemplate.url());
+        }
+
+        // Un RequestInterceptor ne voit pas la réponse: seule l'origine du token est mesurée
+        // (latence: MicrometerCapability de Feign)
+        observer.tokenResolved(CLIENT, target, token.source());
+    }
+}
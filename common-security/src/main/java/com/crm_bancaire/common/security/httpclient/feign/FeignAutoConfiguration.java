@@ -1,10 +1,14 @@
 package com.crm_bancaire.common.security.httpclient.feign;
 
+import com.crm_bancaire.common.security.httpclient.OutboundCallObserver;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator;
+import com.crm_bancaire.common.security.httpclient.TokenPropagationAutoConfiguration;
 import feign.RequestInterceptor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 /**
  * Auto-configuration pour Feign avec propagation automatique du JWT.
@@ -19,12 +23,14 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 @ConditionalOnClass(RequestInterceptor.class)
+@Import(TokenPropagationAutoConfiguration.class)
 @Slf4j
 public class FeignAutoConfiguration {
 
     @Bean
-    public FeignAuthInterceptor feignAuthInterceptor() {
+    public FeignAuthInterceptor feignAuthInterceptor(OutboundTokenPropagator outboundTokenPropagator,
+                                                     OutboundCallObserver outboundCallObserver) {
         log.info("🔧 Configuring FeignAuthInterceptor for automatic JWT propagation");
-        return new FeignAuthInterceptor();
+        return new FeignAuthInterceptor(outboundTokenPropagator, outboundCallObserver);
     }
 }
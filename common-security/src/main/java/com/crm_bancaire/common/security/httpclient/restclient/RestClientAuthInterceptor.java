@@ -0,0 +1,75 @@
+package com.crm_bancaire.common.security.httpclient.restclient;
+
+import com.crm_bancaire.common.security.httpclient.OutboundCallObserver;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator.ResolvedToken;
+import com.crm_bancaire.common.security.httpclient.TokenSource;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Interceptor pour RestClient (Spring 6.1+) afin de propager automatiquement le JWT.
+ *
+ * Lorsqu'un microservice fait un appel RestClient vers un autre microservice,
+ * cet interceptor copie automatiquement le header "Authorization: Bearer ..."
+ * de la requête HTTP entrante vers la requête RestClient sortante.
+ *
+ * Le token est résolu par {@link OutboundTokenPropagator}: les appels faits depuis un executor
+ * ou un thread Reactor le propagent aussi (via context-propagation).
+ * Présence du token et latence par service cible sont mesurées par {@link OutboundCallObserver}.
+ *
+ * Activation automatique via RestClientAutoConfiguration.
+ */
+@Slf4j
+public class RestClientAuthInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String CLIENT = "rest-client";
+
+    private final OutboundTokenPropagator tokenPropagator;
+    private final OutboundCallObserver observer;
+
+    public RestClientAuthInterceptor() {
+        this(new OutboundTokenPropagator());
+    }
+
+    public RestClientAuthInterceptor(OutboundTokenPropagator tokenPropagator) {
+        this(tokenPropagator, OutboundCallObserver.NOOP);
+    }
+
+    public RestClientAuthInterceptor(OutboundTokenPropagator tokenPropagator, OutboundCallObserver observer) {
+        this.tokenPropagator = tokenPropagator;
+        this.observer = observer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String target = request.getURI().getHost();
+        ResolvedToken token = tokenPropagator.resolve(target);
+
+        if (token.value() != null) {
+            request.getHeaders().set("Authorization", "Bearer " + token.value());
+            String identityHeader = token.source() == TokenSource.USER
+                ? tokenPropagator.currentIdentityHeader(token.value()) : null;
+            if (identityHeader != null) {
+                request.getHeaders().set(IdentityHeaderCodec.HEADER_NAME, identityHeader);
+            }
+            log.debug("🔐 Propagating JWT to RestClient call: {} {}", request.getMethod(), request.getURI());
+        }
+
+        OutboundCallObserver.Call call = observer.start(CLIENT, target, token.source());
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            call.stop(response.getStatusCode().value());
+            return response;
+        } catch (IOException | RuntimeException e) {
+            call.error(e);
+            throw e;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.crm_bancaire.common.security.httpclient.restclient;
 
+import com.crm_bancaire.common.security.httpclient.OutboundCallObserver;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator;
+import com.crm_bancaire.common.security.httpclient.TokenPropagationAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.client.RestClient;
 
 /**
@@ -13,13 +17,15 @@ import org.springframework.web.client.RestClient;
  */
 @Configuration
 @ConditionalOnClass(name = "org.springframework.web.client.RestClient")
+@Import(TokenPropagationAutoConfiguration.class)
 @Slf4j
 public class RestClientAutoConfiguration {
 
     @Bean
-    public RestClientAuthInterceptor restClientAuthInterceptor() {
+    public RestClientAuthInterceptor restClientAuthInterceptor(OutboundTokenPropagator outboundTokenPropagator,
+                                                               OutboundCallObserver outboundCallObserver) {
         log.info("🔧 Configuring RestClientAuthInterceptor for automatic JWT propagation");
-        return new RestClientAuthInterceptor();
+        return new RestClientAuthInterceptor(outboundTokenPropagator, outboundCallObserver);
     }
 
     @Bean
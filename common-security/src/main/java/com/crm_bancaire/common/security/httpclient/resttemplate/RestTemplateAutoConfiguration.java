@@ -1,11 +1,15 @@
 package com.crm_bancaire.common.security.httpclient.resttemplate;
 
+import com.crm_bancaire.common.security.httpclient.OutboundCallObserver;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator;
+import com.crm_bancaire.common.security.httpclient.TokenPropagationAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -14,13 +18,15 @@ import org.springframework.web.client.RestTemplate;
  */
 @Configuration
 @ConditionalOnClass(RestTemplate.class)
+@Import(TokenPropagationAutoConfiguration.class)
 @Slf4j
 public class RestTemplateAutoConfiguration {
 
     @Bean
-    public RestTemplateAuthInterceptor restTemplateAuthInterceptor() {
+    public RestTemplateAuthInterceptor restTemplateAuthInterceptor(OutboundTokenPropagator outboundTokenPropagator,
+                                                                   OutboundCallObserver outboundCallObserver) {
         log.info("🔧 Configuring RestTemplateAuthInterceptor for automatic JWT propagation");
-        return new RestTemplateAuthInterceptor();
+        return new RestTemplateAuthInterceptor(outboundTokenPropagator, outboundCallObserver);
     }
 
     @Bean
@@ -0,0 +1,78 @@
+package com.crm_bancaire.common.security.httpclient.webclient;
+
+import com.crm_bancaire.common.security.httpclient.OutboundCallObserver;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator.ResolvedToken;
+import com.crm_bancaire.common.security.httpclient.TokenSource;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+/**
+ * ExchangeFilterFunction pour WebClient afin de propager automatiquement le JWT.
+ *
+ * Lorsqu'un microservice fait un appel WebClient vers un autre microservice,
+ * ce filter copie automatiquement le header "Authorization: Bearer ..."
+ * de la requête HTTP entrante vers la requête WebClient sortante.
+ *
+ * Le token est lu dans le Context Reactor de l'appel (services WebFlux, {@code contextCapture()}),
+ * puis sur le thread abonné: les fan-out parallèles ({@code Flux.flatMap}) le propagent aussi.
+ *
+ * Activation automatique via WebClientAutoConfiguration.
+ */
+@Slf4j
+public class WebClientAuthFilter implements ExchangeFilterFunction {
+
+    private static final String CLIENT = "web-client";
+
+    private final OutboundTokenPropagator tokenPropagator;
+    private final OutboundCallObserver observer;
+
+    public WebClientAuthFilter() {
+        this(new OutboundTokenPropagator());
+    }
+
+    public WebClientAuthFilter(OutboundTokenPropagator tokenPropagator) {
+        this(tokenPropagator, OutboundCallObserver.NOOP);
+    }
+
+    public WebClientAuthFilter(OutboundTokenPropagator tokenPropagator, OutboundCallObserver observer) {
+        this.tokenPropagator = tokenPropagator;
+        this.observer = observer;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String target = request.url().getHost();
+        return tokenPropagator.resolveReactive(target)
+            .flatMap(token -> (token.source() == TokenSource.USER
+                    ? tokenPropagator.currentIdentityHeaderReactive(token.value())
+                    : Mono.<String>empty())
+                .defaultIfEmpty("")
+                .map(identityHeader -> Tuples.of(token, identityHeader)))
+            .flatMap(resolved -> {
+                ResolvedToken token = resolved.getT1();
+                ClientRequest outgoing = request;
+                if (token.value() != null) {
+                    log.debug("🔐 Propagating JWT to WebClient call: {} {}", request.method(), request.url());
+                    ClientRequest.Builder builder = ClientRequest.from(request)
+                        .header("Authorization", "Bearer " + token.value());
+                    String identityHeader = resolved.getT2();
+                    if (!identityHeader.isEmpty()) {
+                        builder.header(IdentityHeaderCodec.HEADER_NAME, identityHeader);
+                    }
+                    outgoing = builder.build();
+                }
+
+                OutboundCallObserver.Call call = observer.start(CLIENT, target, token.source());
+                return next.exchange(outgoing)
+                    .doOnNext(response -> call.stop(response.statusCode().value()))
+                    .doOnError(call::error);
+            });
+    }
+}
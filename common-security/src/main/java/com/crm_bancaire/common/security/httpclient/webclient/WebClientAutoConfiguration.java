@@ -1,10 +1,14 @@
 package com.crm_bancaire.common.security.httpclient.webclient;
 
+import com.crm_bancaire.common.security.httpclient.OutboundCallObserver;
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator;
+import com.crm_bancaire.common.security.httpclient.TokenPropagationAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
@@ -13,13 +17,15 @@ import org.springframework.web.reactive.function.client.WebClient;
  */
 @Configuration
 @ConditionalOnClass(WebClient.class)
+@Import(TokenPropagationAutoConfiguration.class)
 @Slf4j
 public class WebClientAutoConfiguration {
 
     @Bean
-    public WebClientAuthFilter webClientAuthFilter() {
+    public WebClientAuthFilter webClientAuthFilter(OutboundTokenPropagator outboundTokenPropagator,
+                                                   OutboundCallObserver outboundCallObserver) {
         log.info("🔧 Configuring WebClientAuthFilter for automatic JWT propagation");
-        return new WebClientAuthFilter();
+        return new WebClientAuthFilter(outboundTokenPropagator, outboundCallObserver);
     }
 
     @Bean
@@ -1,7 +1,8 @@
 package com.crm_bancaire.common.security.interceptor;
 
+import com.crm_bancaire.common.security.context.LazyActor;
 import com.crm_bancaire.common.security.context.UserContext;
-import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
 import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -19,6 +20,13 @@ import org.springframework.web.servlet.HandlerInterceptor;
  * 1. **SecurityContext** (requêtes directes depuis le Gateway) - le JWT est déjà parsé
  * 2. **Authorization header** (appels inter-services via Feign) - parse manuellement le JWT
  *
+ * Si le header d'identité compact du Gateway ({@link IdentityHeaderCodec#HEADER_NAME}) est présent
+ * et activé, l'acteur est lu depuis ce header sans décoder le JWT.
+ *
+ * L'extraction est paresseuse: seule une référence vers le {@link Jwt} ou le token brut
+ * est stockée ({@link LazyActor}). Les claims sont décodés au premier accès au
+ * {@link UserContext}; un endpoint qui n'utilise pas l'identité ne fait aucun travail JWT.
+ *
  * L'extraction des claims est déléguée à {@link JwtClaimExtractor}, ce qui permet
  * de supporter différents providers d'authentification.
  *
@@ -36,30 +44,29 @@ public class JwtUserInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         try {
-            // Stratégie 1: Extraction depuis SecurityContext (requêtes directes)
+            // Stratégie 1: JWT déjà parsé dans le SecurityContext (requêtes directes)
+            Jwt jwt = null;
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
-                ActorInfo actor = jwtClaimExtractor.extractFromJwt(jwt);
-                if (actor != null) {
-                    UserContext.setCurrentActor(actor);
-                    log.debug("🔑 Current actor set from SecurityContext: {} ({})", actor.getEmail(), actor.getSub());
-                    return true;
-                }
+            if (authentication != null && authentication.getPrincipal() instanceof Jwt principal) {
+                jwt = principal;
             }
 
-            // Stratégie 2: Extraction depuis Authorization header (appels Feign)
+            // Stratégie 2: token brut dans l'Authorization header (appels Feign)
             String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                ActorInfo actor = jwtClaimExtractor.extractFromToken(token);
-                if (actor != null) {
-                    UserContext.setCurrentActor(actor);
-                    log.debug("🔑 Current actor set from Authorization header: {} ({})", actor.getEmail(), actor.getSub());
-                    return true;
-                }
+            String bearerHeader = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader : null;
+
+            // Header d'identité compact du Gateway (lu en priorité s'il est activé)
+            String identityHeader = request.getHeader(IdentityHeaderCodec.HEADER_NAME);
+
+            if (jwt == null && bearerHeader == null) {
+                log.debug("⚠️ No JWT found in request - UserContext will be empty");
+                return true;
             }
 
-            log.debug("⚠️ No JWT found in request - UserContext will be empty");
+            UserContext.setLazyActor(LazyActor.fromRequest(
+                jwtClaimExtractor, identityHeader, jwt, bearerHeader != null ? bearerHeader.substring(7) : null));
+            log.debug("🔑 JWT reference stored in UserContext (source: {})",
+                jwt != null ? "SecurityContext" : "Authorization header");
 
         } catch (Exception e) {
             log.warn("⚠️ Failed to extract actor info from JWT: {}", e.getMessage());
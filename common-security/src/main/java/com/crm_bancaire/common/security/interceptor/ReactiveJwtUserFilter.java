@@ -0,0 +1,102 @@
+package com.crm_bancaire.common.security.interceptor;
+
+import com.crm_bancaire.common.security.context.LazyActor;
+import com.crm_bancaire.common.security.context.ReactiveUserContext;
+import com.crm_bancaire.common.security.jwt.IdentityHeaderCodec;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * WebFilter qui remplit {@link ReactiveUserContext} pour les services WebFlux.
+ * Équivalent réactif de {@link JwtUserInterceptor}, avec les mêmes deux stratégies:
+ * 1. **SecurityContext** réactif (JWT déjà vérifié par Spring Security)
+ * 2. **Authorization header** (appels inter-services)
+ *
+ * Seule une référence ({@link LazyActor}) est ajoutée au Context Reactor de la requête:
+ * aucun appel bloquant, aucun décodage tant que l'identité n'est pas lue.
+ *
+ * Ordonné après la chaîne Spring Security (ordre -100) pour lire son SecurityContext.
+ */
+@Slf4j
+public class ReactiveJwtUserFilter implements WebFilter, Ordered {
+
+    /**
+     * Après WebFilterChainProxy de Spring Security.
+     */
+    public static final int ORDER = 0;
+
+    private final JwtClaimExtractor jwtClaimExtractor;
+    private final List<PathPattern> pathPatterns;
+
+    public ReactiveJwtUserFilter(JwtClaimExtractor jwtClaimExtractor, String... pathPatterns) {
+        this.jwtClaimExtractor = jwtClaimExtractor;
+        this.pathPatterns = Arrays.stream(pathPatterns)
+            .map(PathPatternParser.defaultInstance::parse)
+            .toList();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String bearerToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        String identityHeader = exchange.getRequest().getHeaders().getFirst(IdentityHeaderCodec.HEADER_NAME);
+
+        return securityContextJwt()
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(jwt -> {
+                if (jwt.isEmpty() && bearerToken == null) {
+                    log.debug("⚠️ No JWT found in request - ReactiveUserContext will be empty");
+                    return chain.filter(exchange);
+                }
+                LazyActor actor = LazyActor.fromRequest(jwtClaimExtractor, identityHeader, jwt.orElse(null), bearerToken);
+                log.debug("🔑 JWT reference stored in Reactor context (source: {})",
+                    jwt.isPresent() ? "SecurityContext" : "Authorization header");
+                return chain.filter(exchange)
+                    .contextWrite(context -> context.put(ReactiveUserContext.CONTEXT_KEY, actor));
+            });
+    }
+
+    private boolean matches(PathContainer path) {
+        for (PathPattern pattern : pathPatterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mono<Jwt> securityContextJwt() {
+        return ReactiveSecurityContextHolder.getContext()
+            .mapNotNull(SecurityContext::getAuthentication)
+            .map(Authentication::getPrincipal)
+            .filter(Jwt.class::isInstance)
+            .cast(Jwt.class);
+    }
+}
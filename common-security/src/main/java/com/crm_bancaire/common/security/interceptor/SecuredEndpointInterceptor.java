@@ -0,0 +1,183 @@
+package com.crm_bancaire.common.security.interceptor;
+
+import com.crm_bancaire.common.security.annotation.SecuredEndpoint;
+import com.crm_bancaire.common.security.condition.RuleCondition;
+import com.crm_bancaire.common.security.context.UserContext;
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import com.crm_bancaire.common.security.role.RoleIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interceptor qui applique {@link SecuredEndpoint} directement dans le microservice.
+ *
+ * Le Gateway applique déjà les règles, mais les appels inter-services (Feign, RestClient...)
+ * ne passent pas par lui. Cet interceptor ferme ce trou sans dupliquer les vérifications
+ * à la main dans les services.
+ *
+ * Les rôles requis de chaque {@link HandlerMethod} sont résolus une seule fois au démarrage
+ * dans une table indexée par identité de {@link Method}, sous forme de bitsets. Par requête,
+ * la vérification se résume à une recherche dans cette table et un ET bit à bit, sans réflexion.
+ * Les rôles requis sont étendus une fois à tous les rôles qui les incluent ({@link RoleHierarchy}):
+ * la hiérarchie ne coûte rien par requête. Tous les rôles du token sont considérés.
+ * Les conditions ({@code condition = "path.id == claim.sub"}) sont compilées au démarrage
+ * et évaluées sur les variables déjà extraites par Spring MVC.
+ *
+ * Doit être enregistré après {@link JwtUserInterceptor}, qui remplit le {@link UserContext}.
+ * Activation via {@code @EnableUserContext(enforceSecuredEndpoints = true)}.
+ */
+@Slf4j
+public class SecuredEndpointInterceptor implements HandlerInterceptor, SmartInitializingSingleton {
+
+    private final ApplicationContext applicationContext;
+    private final boolean enabled;
+    private final RoleHierarchy roleHierarchy;
+
+    private volatile RoleTable roleTable = RoleTable.EMPTY;
+
+    public SecuredEndpointInterceptor(ApplicationContext applicationContext, boolean enabled) {
+        this(applicationContext, enabled, RoleHierarchy.none());
+    }
+
+    public SecuredEndpointInterceptor(ApplicationContext applicationContext, boolean enabled,
+                                      RoleHierarchy roleHierarchy) {
+        this.applicationContext = applicationContext;
+        this.enabled = enabled;
+        this.roleHierarchy = roleHierarchy;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Résout les rôles requis de tous les handlers une fois que les mappings sont enregistrés.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        Map<Method, List<String>> declared = new LinkedHashMap<>();
+        Map<Method, RuleCondition> conditions = new IdentityHashMap<>();
+        List<String> allRoles = new ArrayList<>();
+
+        for (RequestMappingHandlerMapping mapping :
+                applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                SecuredEndpoint securedEndpoint = handlerMethod.getMethodAnnotation(SecuredEndpoint.class);
+                if (securedEndpoint == null) {
+                    continue;
+                }
+                List<String> roles = new ArrayList<>(roleHierarchy.rolesSatisfying(Arrays.asList(securedEndpoint.roles())));
+                declared.put(handlerMethod.getMethod(), roles);
+                allRoles.addAll(roles);
+                if (!securedEndpoint.condition().isBlank()) {
+                    conditions.put(handlerMethod.getMethod(), RuleCondition.compile(securedEndpoint.condition(), roleHierarchy));
+                }
+            }
+        }
+
+        RoleIndex index = RoleIndex.of(allRoles);
+        Map<Method, long[]> masks = new IdentityHashMap<>(declared.size() * 2);
+        declared.forEach((method, roles) -> masks.put(method, index.maskOf(roles)));
+
+        this.roleTable = new RoleTable(index, masks, conditions);
+        log.info("🔒 SecuredEndpointInterceptor resolved {} secured handler(s) over {} role(s), {} condition(s)",
+                masks.size(), index.size(), conditions.size());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        RoleTable table = this.roleTable;
+        long[] requiredMask = table.masks.get(handlerMethod.getMethod());
+        if (requiredMask == null) {
+            return true; // Pas de @SecuredEndpoint sur ce handler
+        }
+
+        ActorInfo actor = UserContext.getCurrentActor();
+        if (actor == null) {
+            log.warn("❌ Access DENIED for {} {} - no authenticated actor", request.getMethod(), request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return false;
+        }
+
+        if (!table.index.matchesAny(requiredMask, actor.getRoles())) {
+            log.warn("❌ Access DENIED for {} {} - roles {} not allowed",
+                    request.getMethod(), request.getRequestURI(), actor.getRoles());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return false;
+        }
+
+        RuleCondition condition = table.conditions.get(handlerMethod.getMethod());
+        if (condition != null && !condition.test(pathVariables(request), claimsOf(actor), actor.getRoles())) {
+            log.warn("❌ Access DENIED for {} {} - condition not met: {}",
+                    request.getMethod(), request.getRequestURI(), condition);
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return false;
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> pathVariables(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map<?, ?> map ? (Map<String, String>) map : Collections.emptyMap();
+    }
+
+    /**
+     * Claims du token courant; {@code sub} est toujours présent (header d'identité sans claims complets).
+     */
+    private static Map<String, Object> claimsOf(ActorInfo actor) {
+        Map<String, Object> claims = UserContext.getClaims();
+        if (claims.containsKey("sub") || actor.getSub() == null) {
+            return claims;
+        }
+        Map<String, Object> withSub = new HashMap<>(claims);
+        withSub.put("sub", actor.getSub());
+        return withSub;
+    }
+
+    /**
+     * Snapshot immuable publié en une seule écriture volatile.
+     */
+    private static final class RoleTable {
+        static final RoleTable EMPTY = new RoleTable(RoleIndex.empty(), Collections.emptyMap(), Collections.emptyMap());
+
+        final RoleIndex index;
+        final Map<Method, long[]> masks;
+        final Map<Method, RuleCondition> conditions;
+
+        RoleTable(RoleIndex index, Map<Method, long[]> masks, Map<Method, RuleCondition> conditions) {
+            this.index = index;
+            this.masks = masks;
+            this.conditions = conditions;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.cache.StripedPool;
+import com.crm_bancaire.common.security.cache.TokenHash;
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Header d'identité compact signé par le Gateway ({@value #HEADER_NAME}).
+ *
+ * Le Gateway a déjà vérifié le JWT et autorisé la requête: il transmet aux services une
+ * identité de quelques centaines d'octets au lieu de leur faire re-décoder le JWT complet (4-8 Ko).
+ *
+ * Format: {@code v2.<payload Base64URL>.<HMAC-SHA256 Base64URL>}, le payload étant les champs
+ * séparés par U+001F: exp, sub, username, email, firstName, lastName, rôles (séparés par des virgules),
+ * décision, liaison au token. Lecture: un HMAC et un découpage de chaîne, sans parsing JSON.
+ *
+ * Le header est lié au token d'accès pour lequel il a été émis (SHA-256 tronqué du token): il n'est
+ * accepté qu'accompagné de ce même token, et ne peut donc pas être rejoué avec un autre token valide.
+ *
+ * Le secret HMAC est partagé entre le Gateway et les services
+ * ({@code common.security.identity-header.secret}).
+ */
+public class IdentityHeaderCodec {
+
+    public static final String HEADER_NAME = "X-Identity";
+
+    private static final String VERSION = "v2.";
+    private static final char SEPARATOR = '\u001F';
+    private static final int FIELD_COUNT = 9;
+    private static final int BINDING_LENGTH = 22;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final StripedPool<Mac> macs;
+    private final long ttlSeconds;
+
+    /**
+     * @param secret Secret HMAC partagé (au moins 32 octets)
+     * @param ttl    Durée de validité maximale d'un header (bornée par l'exp du JWT)
+     */
+    public IdentityHeaderCodec(byte[] secret, Duration ttl) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Identity header secret must be at least 32 bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), "HmacSHA256");
+        this.macs = new StripedPool<>(Runtime.getRuntime().availableProcessors() * 2, () -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+        this.ttlSeconds = ttl.getSeconds();
+    }
+
+    /**
+     * Construit le header pour un acteur authentifié.
+     *
+     * @param actor       Identité extraite du JWT vérifié
+     * @param decision    Décision d'autorisation du Gateway (ex: "roles", "public", "authenticated")
+     * @param accessToken Token d'accès transmis avec le header (sans "Bearer ")
+     */
+    public String encode(ActorInfo actor, String decision, String accessToken) {
+        long now = System.currentTimeMillis() / 1000;
+        long exp = now + ttlSeconds;
+        if (actor.getExpiresAt() > 0) {
+            exp = Math.min(exp, actor.getExpiresAt());
+        }
+
+        StringBuilder payload = new StringBuilder(128).append(exp);
+        appendField(payload, actor.getSub());
+        appendField(payload, actor.getUsername());
+        appendField(payload, actor.getEmail());
+        appendField(payload, actor.getFirstName());
+        appendField(payload, actor.getLastName());
+        // Tous les rôles, séparés par des virgules (le rôle principal en premier)
+        appendField(payload, String.join(",", actor.getRoles()));
+        appendField(payload, decision);
+        appendField(payload, binding(accessToken));
+
+        String encodedPayload = ENCODER.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        String signingInput = VERSION + encodedPayload;
+        return signingInput + '.' + ENCODER.encodeToString(sign(signingInput));
+    }
+
+    /**
+     * Vérifie et lit le header.
+     *
+     * @param accessToken Token d'accès reçu avec le header (sans "Bearer ")
+     * @return L'acteur, ou null si le header est mal formé, falsifié, expiré ou émis pour un autre token
+     */
+    public ActorInfo decode(String header, String accessToken) {
+        if (header == null || accessToken == null || !header.startsWith(VERSION)) {
+            return null;
+        }
+        int dot = header.lastIndexOf('.');
+        if (dot <= VERSION.length()) {
+            return null;
+        }
+
+        String signingInput = header.substring(0, dot);
+        byte[] expected = sign(signingInput);
+        byte[] actual;
+        try {
+            actual = DECODER.decode(header.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+
+        String payload = new String(DECODER.decode(header.substring(VERSION.length(), dot)), StandardCharsets.UTF_8);
+        String[] fields = new String[FIELD_COUNT];
+        int start = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            int end = i == FIELD_COUNT - 1 ? payload.length() : payload.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                return null;
+            }
+            fields[i] = payload.substring(start, end);
+            start = end + 1;
+        }
+
+        long exp;
+        try {
+            exp = Long.parseLong(fields[0]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (exp < System.currentTimeMillis() / 1000) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(fields[8].getBytes(StandardCharsets.US_ASCII),
+                binding(accessToken).getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+
+        List<String> roles = fields[6].isEmpty() ? List.of() : List.of(fields[6].split(","));
+        return ActorInfo.builder()
+            .sub(emptyToNull(fields[1]))
+            .username(emptyToNull(fields[2]))
+            .email(emptyToNull(fields[3]))
+            .firstName(emptyToNull(fields[4]))
+            .lastName(emptyToNull(fields[5]))
+            .role(roles.isEmpty() ? null : roles.get(0))
+            .roles(roles)
+            .expiresAt(exp)
+            .build();
+    }
+
+    private byte[] sign(String signingInput) {
+        Mac mac = macs.acquire();
+        try {
+            // Header ASCII (Base64URL): pas de conversion de charset nécessaire
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            macs.release(mac);
+        }
+    }
+
+    /**
+     * Liaison au token: SHA-256 du token, tronqué à 22 caractères Base64URL (132 bits).
+     */
+    private static String binding(String accessToken) {
+        return TokenHash.sha256(accessToken).substring(0, BINDING_LENGTH);
+    }
+
+    private static void appendField(StringBuilder payload, String value) {
+        payload.append(SEPARATOR);
+        if (value != null) {
+            payload.append(value.replace(SEPARATOR, ' '));
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
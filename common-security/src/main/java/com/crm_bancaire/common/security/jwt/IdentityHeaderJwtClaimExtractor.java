@@ -0,0 +1,61 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Décorateur de {@link JwtClaimExtractor} qui lit l'identité depuis le header compact signé
+ * par le Gateway ({@link IdentityHeaderCodec#HEADER_NAME}), sans décoder le JWT.
+ *
+ * Le JWT reste utilisé en repli (header absent ou invalide) et pour les claims arbitraires
+ * ({@code UserContext.getClaim(...)}), que le header ne transporte pas.
+ *
+ * Activation: {@code common.security.identity-header.enabled=true}.
+ */
+public class IdentityHeaderJwtClaimExtractor implements JwtClaimExtractor {
+
+    private final JwtClaimExtractor delegate;
+    private final IdentityHeaderCodec codec;
+
+    public IdentityHeaderJwtClaimExtractor(JwtClaimExtractor delegate, IdentityHeaderCodec codec) {
+        this.delegate = delegate;
+        this.codec = codec;
+    }
+
+    public JwtClaimExtractor getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ActorInfo extractFromIdentityHeader(String header, String token) {
+        return codec.decode(header, token);
+    }
+
+    @Override
+    public ActorInfo extractFromJwt(Jwt jwt) {
+        return delegate.extractFromJwt(jwt);
+    }
+
+    @Override
+    public ActorInfo extractFromToken(String token) {
+        return delegate.extractFromToken(token);
+    }
+
+    @Override
+    public ActorInfo extractFromClaims(String token, Supplier<Map<String, Object>> claims) {
+        return delegate.extractFromClaims(token, claims);
+    }
+
+    @Override
+    public Map<String, Object> extractClaimsFromJwt(Jwt jwt) {
+        return delegate.extractClaimsFromJwt(jwt);
+    }
+
+    @Override
+    public Map<String, Object> extractClaimsFromToken(String token) {
+        return delegate.extractClaimsFromToken(token);
+    }
+}
@@ -0,0 +1,126 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Interface pour extraire les informations utilisateur depuis un JWT.
+ *
+ * Cette interface permet de supporter différents providers d'authentification
+ * (Keycloak, Auth0, Okta, custom JWT, etc.) en créant une implémentation custom.
+ *
+ * Par défaut, {@link KeycloakJwtClaimExtractor} est utilisé.
+ *
+ * Pour utiliser un autre provider, créez une implémentation de cette interface
+ * et annotez-la avec @Component. Elle sera automatiquement détectée et utilisée.
+ *
+ * Exemple avec Auth0:
+ * <pre>
+ * &#64;Component
+ * public class Auth0JwtClaimExtractor implements JwtClaimExtractor {
+ *     &#64;Override
+ *     public ActorInfo extractFromJwt(Jwt jwt) {
+ *         return ActorInfo.builder()
+ *             .sub(jwt.getClaimAsString("sub"))
+ *             .email(jwt.getClaimAsString("email"))
+ *             .username(jwt.getClaimAsString("nickname"))  // Auth0 utilise "nickname"
+ *             .firstName(jwt.getClaimAsString("given_name"))
+ *             .lastName(jwt.getClaimAsString("family_name"))
+ *             .role(extractAuth0Role(jwt))
+ *             .build();
+ *     }
+ *
+ *     private String extractAuth0Role(Jwt jwt) {
+ *         // Auth0 met les rôles dans un namespace custom
+ *         List&lt;String&gt; roles = jwt.getClaimAsStringList("https://myapp.com/roles");
+ *         return roles != null && !roles.isEmpty() ? roles.get(0) : "USER";
+ *     }
+ * }
+ * </pre>
+ */
+public interface JwtClaimExtractor {
+
+    /**
+     * Extrait les informations utilisateur depuis un objet Jwt (SecurityContext).
+     *
+     * Utilisé lorsque le JWT est déjà parsé par Spring Security.
+     *
+     * @param jwt Le JWT parsé par Spring Security
+     * @return Les informations de l'utilisateur, ou null si l'extraction échoue
+     */
+    ActorInfo extractFromJwt(Jwt jwt);
+
+    /**
+     * Extrait les informations utilisateur depuis un token JWT brut (String).
+     *
+     * Utilisé pour les appels inter-services (Feign) où le JWT est dans le header Authorization.
+     *
+     * @param token Le token JWT brut (sans "Bearer ")
+     * @return Les informations de l'utilisateur, ou null si l'extraction échoue
+     */
+    ActorInfo extractFromToken(String token);
+
+    /**
+     * Retourne tous les claims d'un objet Jwt (SecurityContext).
+     *
+     * Utilisé par {@code UserContext.getClaim(...)} pour l'accès à des claims arbitraires.
+     *
+     * @param jwt Le JWT parsé par Spring Security
+     * @return Les claims, ou null si l'extraction échoue
+     */
+    default Map<String, Object> extractClaimsFromJwt(Jwt jwt) {
+        return jwt.getClaims();
+    }
+
+    /**
+     * Retourne tous les claims d'un token JWT brut (String).
+     *
+     * Utilisé par {@code UserContext.getClaim(...)} pour l'accès à des claims arbitraires.
+     *
+     * @param token Le token JWT brut (sans "Bearer ")
+     * @return Les claims, ou null si l'extraction échoue
+     */
+    default Map<String, Object> extractClaimsFromToken(String token) {
+        try {
+            return JwtPayloadDecoder.decodeAll(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Extrait les informations utilisateur d'un token brut à partir de ses claims déjà décodés.
+     *
+     * Utilisé par {@code UserContext} pour que l'acteur et {@code getClaim(...)} partagent un seul
+     * décodage du payload. {@code claims} n'est appelé que si l'acteur n'est pas déjà connu
+     * (ex: cache par token); il retourne null si le token est invalide.
+     *
+     * Par défaut, l'acteur est lu par {@link #extractFromToken(String)}: une implémentation custom
+     * garde sa propre lecture du token brut, sans partage du décodage.
+     *
+     * @param token  Le token brut (sans "Bearer ")
+     * @param claims Les claims du token, décodés une seule fois à la demande
+     * @return Les informations de l'utilisateur, ou null si l'extraction échoue
+     */
+    default ActorInfo extractFromClaims(String token, Supplier<Map<String, Object>> claims) {
+        return extractFromToken(token);
+    }
+
+    /**
+     * Extrait les informations utilisateur depuis le header d'identité compact signé par le Gateway.
+     *
+     * Par défaut, le header est ignoré (null): seul {@link IdentityHeaderJwtClaimExtractor}
+     * le vérifie et le lit.
+     *
+     * @param header La valeur du header {@link IdentityHeaderCodec#HEADER_NAME}
+     * @param token  Le token d'accès reçu avec le header (sans "Bearer "), auquel il doit être lié
+     * @return Les informations de l'utilisateur, ou null si le header n'est pas pris en charge, invalide
+     *         ou émis pour un autre token
+     */
+    default ActorInfo extractFromIdentityHeader(String header, String token) {
+        return null;
+    }
+}
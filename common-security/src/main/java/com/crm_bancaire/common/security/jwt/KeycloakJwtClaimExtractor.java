@@ -0,0 +1,209 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.cache.ExpiringCache;
+import com.crm_bancaire.common.security.cache.TokenHash;
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Implémentation par défaut pour extraire les claims depuis un JWT Keycloak.
+ *
+ * Cette classe extrait les informations utilisateur selon la structure standard de Keycloak:
+ * - Claims standards: sub, email, preferred_username, given_name, family_name
+ * - Rôles: resource_access.{client}.roles, le premier étant le rôle principal (client par défaut: oauth2-pkce,
+ *   configurable via {@code common.security.jwt.client-id})
+ *
+ * Cette implémentation est automatiquement utilisée par défaut via UserContextAutoConfiguration.
+ *
+ * Les tokens bruts (appels Feign) sont décodés en streaming par {@link JwtPayloadDecoder},
+ * qui ne lit que ces claims et saute le reste du payload.
+ *
+ * Les tokens bruts sont aussi mis en cache: un même token est généralement réutilisé
+ * pour de nombreux appels pendant sa durée de vie. Le cache est indexé par l'empreinte SHA-256 du token
+ * entier ({@link TokenHash}: deux tokens différents, même non signés, ne partagent jamais une entrée), borné (propriété {@code common.security.jwt.cache-size}, 0 pour désactiver) et chaque entrée
+ * expire au claim {@code exp}. Un hit évite tout décodage Base64 et parsing JSON.
+ *
+ * Pour utiliser un autre provider d'authentification, créez votre propre @Component
+ * qui implémente {@link JwtClaimExtractor} et il remplacera automatiquement celui-ci.
+ */
+@Slf4j
+public class KeycloakJwtClaimExtractor implements JwtClaimExtractor {
+
+    public static final String DEFAULT_CLIENT_NAME = "oauth2-pkce";
+    private static final String DEFAULT_ROLE = "USER";
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static final String SUB = "sub";
+    private static final String EMAIL = "email";
+    private static final String USERNAME = "preferred_username";
+    private static final String FIRST_NAME = "given_name";
+    private static final String LAST_NAME = "family_name";
+
+    private final String clientName;
+    private final JwtPayloadDecoder payloadDecoder;
+    private final ExpiringCache<String, ActorInfo> tokenCache;
+
+    public KeycloakJwtClaimExtractor() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize Nombre maximum de tokens en cache (0 ou moins pour désactiver le cache)
+     */
+    public KeycloakJwtClaimExtractor(int cacheSize) {
+        this(cacheSize, DEFAULT_CLIENT_NAME);
+    }
+
+    /**
+     * @param cacheSize  Nombre maximum de tokens en cache (0 ou moins pour désactiver le cache)
+     * @param clientName Client Keycloak dont les rôles sont lus dans resource_access
+     */
+    public KeycloakJwtClaimExtractor(int cacheSize, String clientName) {
+        this.clientName = clientName;
+        this.payloadDecoder = new JwtPayloadDecoder(clientName, SUB, EMAIL, USERNAME, FIRST_NAME, LAST_NAME);
+        this.tokenCache = cacheSize > 0 ? new ExpiringCache<>(cacheSize) : null;
+    }
+
+    /**
+     * @return Le cache des tokens bruts, ou null s'il est désactivé
+     */
+    public ExpiringCache<String, ActorInfo> getTokenCache() {
+        return tokenCache;
+    }
+
+    @Override
+    public ActorInfo extractFromJwt(Jwt jwt) {
+        try {
+            List<String> roles = extractRolesFromJwt(jwt);
+            return ActorInfo.builder()
+                .sub(jwt.getClaimAsString(SUB))
+                .email(jwt.getClaimAsString(EMAIL))
+                .username(jwt.getClaimAsString(USERNAME))
+                .firstName(jwt.getClaimAsString(FIRST_NAME))
+                .lastName(jwt.getClaimAsString(LAST_NAME))
+                .role(roles.get(0))
+                .roles(roles)
+                .expiresAt(jwt.getExpiresAt() != null ? jwt.getExpiresAt().getEpochSecond() : 0)
+                .build();
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to extract actor info from Jwt object: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public ActorInfo extractFromToken(String token) {
+        return cached(token, () -> parseToken(token));
+    }
+
+    /**
+     * Comme {@link #extractFromToken(String)}, mais à partir des claims déjà décodés par l'appelant
+     * (aucun second parsing): sert à {@code UserContext} quand l'acteur et les claims sont lus.
+     */
+    @Override
+    public ActorInfo extractFromClaims(String token, Supplier<Map<String, Object>> claims) {
+        return cached(token, () -> {
+            Map<String, Object> decoded = claims.get();
+            return decoded != null ? fromClaims(decoded) : null;
+        });
+    }
+
+    private ActorInfo cached(String token, Supplier<ActorInfo> parser) {
+        if (tokenCache == null) {
+            return parser.get();
+        }
+
+        // Empreinte du token entier: la signature seule est vide pour un token non signé (alg: none)
+        String hash = TokenHash.sha256(token);
+        ActorInfo cached = tokenCache.get(hash);
+        if (cached != null) {
+            // Copie défensive: ActorInfo est mutable et partagé entre requêtes
+            return cached.toBuilder().build();
+        }
+
+        ActorInfo actor = parser.get();
+        if (actor != null && actor.getExpiresAt() > 0) {
+            tokenCache.put(hash, actor, actor.getExpiresAt() * 1000);
+            return actor.toBuilder().build();
+        }
+        return actor;
+    }
+
+    private ActorInfo fromClaims(Map<String, Object> claims) {
+        List<String> roles = extractRoles(claims.get("resource_access"));
+        Object exp = claims.get("exp");
+        return ActorInfo.builder()
+            .sub(asString(claims.get(SUB)))
+            .email(asString(claims.get(EMAIL)))
+            .username(asString(claims.get(USERNAME)))
+            .firstName(asString(claims.get(FIRST_NAME)))
+            .lastName(asString(claims.get(LAST_NAME)))
+            .role(roles.get(0))
+            .roles(roles)
+            .expiresAt(exp instanceof Number number ? number.longValue() : 0)
+            .build();
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private ActorInfo parseToken(String token) {
+        try {
+            JwtPayloadDecoder.Claims claims = payloadDecoder.decode(token);
+            List<String> roles = claims.getRoles();
+
+            return ActorInfo.builder()
+                .sub(claims.get(SUB))
+                .email(claims.get(EMAIL))
+                .username(claims.get(USERNAME))
+                .firstName(claims.get(FIRST_NAME))
+                .lastName(claims.get(LAST_NAME))
+                .role(roles.isEmpty() ? DEFAULT_ROLE : roles.get(0))
+                .roles(roles.isEmpty() ? List.of(DEFAULT_ROLE) : List.copyOf(roles))
+                .expiresAt(claims.getExpiresAt())
+                .build();
+
+        } catch (Exception e) {
+            log.warn("⚠️ Erreur lors de l'extraction du JWT depuis le token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Extrait les rôles depuis l'objet Jwt (SecurityContext).
+     *
+     * Structure Keycloak: resource_access.{client-name}.roles (le premier est le rôle principal)
+     */
+    private List<String> extractRolesFromJwt(Jwt jwt) {
+        return extractRoles(jwt.getClaim("resource_access"));
+    }
+
+    private List<String> extractRoles(Object resourceAccess) {
+        try {
+            if (resourceAccess instanceof Map<?, ?> resourceMap) {
+                Object clientData = resourceMap.get(clientName);
+                if (clientData instanceof Map<?, ?> clientMap) {
+                    Object roles = clientMap.get("roles");
+                    if (roles instanceof List<?> rolesList && !rolesList.isEmpty()) {
+                        List<String> names = new ArrayList<>(rolesList.size());
+                        for (Object role : rolesList) {
+                            names.add(role.toString());
+                        }
+                        return names;
+                    }
+                }
+            }
+            return List.of(DEFAULT_ROLE);
+        } catch (Exception e) {
+            log.debug("Could not extract roles from JWT, using default: {}", DEFAULT_ROLE);
+            return List.of(DEFAULT_ROLE);
+        }
+    }
+}
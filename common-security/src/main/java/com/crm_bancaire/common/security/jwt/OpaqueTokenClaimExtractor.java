@@ -0,0 +1,263 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.cache.ExpiringCache;
+import com.crm_bancaire.common.security.cache.TokenHash;
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Décorateur de {@link JwtClaimExtractor} pour les tokens opaques (non-JWT), résolus par
+ * introspection RFC 7662 auprès du serveur d'autorisation.
+ *
+ * Les tokens JWT sont délégués tels quels; seuls les tokens opaques sont introspectés:
+ * - Résultats mis en cache par empreinte SHA-256 du token ({@link TokenHash})
+ * - Token actif: gardé jusqu'à son {@code exp}, au plus {@code maxTtl} (une révocation
+ *   côté serveur est donc vue après {@code maxTtl} au pire)
+ * - Token inactif: mémorisé {@code negativeTtl} pour qu'un token invalide rejoué en boucle
+ *   ne martèle pas le serveur d'autorisation
+ * - Single-flight: des requêtes concurrentes sur le même token inconnu partagent un seul appel
+ * - Les erreurs réseau ne sont pas mises en cache
+ *
+ * Les claims introspectés sont convertis en acteur par le délégué (via un {@link Jwt} synthétique),
+ * de sorte qu'un extracteur custom s'applique aussi aux tokens opaques.
+ *
+ * Activation: {@code common.security.opaque-token.enabled=true}.
+ */
+@Slf4j
+public class OpaqueTokenClaimExtractor implements JwtClaimExtractor {
+
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() {
+    };
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final List<String> TIMESTAMP_CLAIMS = List.of("exp", "iat", "nbf");
+    private static final Introspection INACTIVE = new Introspection(null, null);
+
+    private final JwtClaimExtractor delegate;
+    private final URI introspectionUri;
+    private final String authorization;
+    private final HttpClient httpClient;
+    private final long maxTtlMillis;
+    private final long negativeTtlMillis;
+
+    private final ExpiringCache<String, Introspection> cache;
+    private final Map<String, CompletableFuture<Introspection>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate         Extracteur utilisé pour les JWT et pour convertir les claims introspectés
+     * @param introspectionUri Endpoint d'introspection (ex: {@code .../protocol/openid-connect/token/introspect})
+     * @param clientId         Client autorisé à introspecter
+     * @param clientSecret     Secret du client
+     * @param cacheSize        Nombre maximum de tokens en cache
+     * @param maxTtl           Durée maximale de cache d'un token actif
+     * @param negativeTtl      Durée de cache d'un token inactif
+     */
+    public OpaqueTokenClaimExtractor(JwtClaimExtractor delegate, URI introspectionUri, String clientId,
+                                     String clientSecret, int cacheSize, Duration maxTtl, Duration negativeTtl) {
+        this(delegate, introspectionUri, clientId, clientSecret, cacheSize, maxTtl, negativeTtl,
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build());
+    }
+
+    public OpaqueTokenClaimExtractor(JwtClaimExtractor delegate, URI introspectionUri, String clientId,
+                                     String clientSecret, int cacheSize, Duration maxTtl, Duration negativeTtl,
+                                     HttpClient httpClient) {
+        this.delegate = delegate;
+        this.introspectionUri = introspectionUri;
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+            (encode(clientId) + ":" + encode(clientSecret)).getBytes(StandardCharsets.UTF_8));
+        this.httpClient = httpClient;
+        this.maxTtlMillis = maxTtl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.cache = new ExpiringCache<>(cacheSize);
+    }
+
+    public JwtClaimExtractor getDelegate() {
+        return delegate;
+    }
+
+    public ExpiringCache<String, ?> getIntrospectionCache() {
+        return cache;
+    }
+
+    @Override
+    public ActorInfo extractFromIdentityHeader(String header, String token) {
+        return delegate.extractFromIdentityHeader(header, token);
+    }
+
+    @Override
+    public ActorInfo extractFromJwt(Jwt jwt) {
+        return delegate.extractFromJwt(jwt);
+    }
+
+    @Override
+    public ActorInfo extractFromToken(String token) {
+        if (isJwt(token)) {
+            return delegate.extractFromToken(token);
+        }
+        ActorInfo actor = introspect(token).actor();
+        // Copie défensive: ActorInfo est mutable et partagé entre requêtes
+        return actor != null ? actor.toBuilder().build() : null;
+    }
+
+    @Override
+    public ActorInfo extractFromClaims(String token, Supplier<Map<String, Object>> claims) {
+        if (isJwt(token)) {
+            return delegate.extractFromClaims(token, claims);
+        }
+        // Introspection en cache: claims et acteur viennent de la même réponse
+        return extractFromToken(token);
+    }
+
+    @Override
+    public Map<String, Object> extractClaimsFromJwt(Jwt jwt) {
+        return delegate.extractClaimsFromJwt(jwt);
+    }
+
+    @Override
+    public Map<String, Object> extractClaimsFromToken(String token) {
+        return isJwt(token) ? delegate.extractClaimsFromToken(token) : introspect(token).claims();
+    }
+
+    /**
+     * Résultat d'introspection en cache, ou appel au serveur (partagé entre requêtes concurrentes).
+     * Un échec réseau donne un résultat inactif, non mis en cache.
+     */
+    private Introspection introspect(String token) {
+        String hash = TokenHash.sha256(token);
+        Introspection cached = cache.get(hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Introspection> promise = new CompletableFuture<>();
+        CompletableFuture<Introspection> existing = inFlight.putIfAbsent(hash, promise);
+        if (existing == null) {
+            fetch(token).whenComplete((result, error) -> {
+                if (result != null) {
+                    cache.put(hash, result, expiresAtMillis(result));
+                }
+                inFlight.remove(hash, promise);
+                if (result != null) {
+                    promise.complete(result);
+                } else {
+                    promise.completeExceptionally(error);
+                }
+            });
+            existing = promise;
+        }
+
+        try {
+            return existing.get(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("⚠️ Token introspection failed: {}", e.getMessage());
+        }
+        return INACTIVE;
+    }
+
+    /**
+     * Expiration de l'entrée de cache: {@code exp} plafonné à {@code maxTtl}, ou {@code negativeTtl}
+     * pour un token inactif.
+     */
+    private long expiresAtMillis(Introspection result) {
+        long now = System.currentTimeMillis();
+        if (result.actor() == null) {
+            return now + negativeTtlMillis;
+        }
+        long maxExpiresAt = now + maxTtlMillis;
+        long exp = result.actor().getExpiresAt();
+        return exp > 0 ? Math.min(exp * 1000, maxExpiresAt) : maxExpiresAt;
+    }
+
+    private CompletableFuture<Introspection> fetch(String token) {
+        HttpRequest request = HttpRequest.newBuilder(introspectionUri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", authorization)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("token=" + encode(token) + "&token_type_hint=access_token"))
+            .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenApply(this::parse);
+    }
+
+    private Introspection parse(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Introspection endpoint " + introspectionUri
+                + " returned HTTP " + response.statusCode());
+        }
+        Map<String, Object> claims;
+        try {
+            claims = OBJECT_MAPPER.readValue(response.body(), CLAIMS_TYPE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid introspection response: " + e.getMessage(), e);
+        }
+        if (!Boolean.TRUE.equals(claims.get("active"))) {
+            log.debug("🔒 Opaque token reported inactive by introspection endpoint");
+            return INACTIVE;
+        }
+        // Le délégué convertit les claims comme ceux d'un JWT (rôles, username...)
+        Jwt jwt = Jwt.withTokenValue("opaque")
+            .header("alg", "none")
+            .claims(values -> {
+                values.putAll(claims);
+                for (String timestamp : TIMESTAMP_CLAIMS) {
+                    if (claims.get(timestamp) instanceof Number seconds) {
+                        values.put(timestamp, Instant.ofEpochSecond(seconds.longValue()));
+                    }
+                }
+            })
+            .build();
+        ActorInfo actor = delegate.extractFromJwt(jwt);
+        if (actor == null) {
+            log.warn("⚠️ Could not extract actor info from introspected token claims");
+            return INACTIVE;
+        }
+        return new Introspection(Collections.unmodifiableMap(claims), actor);
+    }
+
+    /**
+     * Un JWT compact a exactement deux points; un token opaque n'en a généralement aucun.
+     */
+    static boolean isJwt(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        return second > 0 && token.indexOf('.', second + 1) < 0;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Résultat d'introspection: claims et acteur, ou les deux null pour un token inactif.
+     */
+    private record Introspection(Map<String, Object> claims, ActorInfo actor) {
+    }
+}
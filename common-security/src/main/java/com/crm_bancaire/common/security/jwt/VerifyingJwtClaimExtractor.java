@@ -0,0 +1,85 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Décorateur de {@link JwtClaimExtractor} qui vérifie la signature des tokens bruts
+ * (Authorization header des appels inter-services) avant d'en extraire les claims.
+ *
+ * Sans ce mode, {@link JwtClaimExtractor#extractFromToken(String)} fait confiance au payload
+ * non vérifié. Avec ce mode, un token invalide, expiré ou signé par une clé inconnue
+ * donne un acteur null. Les objets {@link Jwt} du SecurityContext sont déjà vérifiés par
+ * Spring Security et sont simplement délégués.
+ *
+ * Les tokens opaques (non-JWT) n'ont pas de signature à vérifier: ils sont délégués tels quels,
+ * pour être introspectés par {@link OpaqueTokenClaimExtractor} (ou rejetés par l'extracteur JWT).
+ *
+ * Activation: {@code common.security.jwt.verification.enabled=true}.
+ */
+@Slf4j
+public class VerifyingJwtClaimExtractor implements JwtClaimExtractor {
+
+    private final JwtClaimExtractor delegate;
+    private final JwtSignatureVerifier verifier;
+
+    public VerifyingJwtClaimExtractor(JwtClaimExtractor delegate, JwtSignatureVerifier verifier) {
+        this.delegate = delegate;
+        this.verifier = verifier;
+    }
+
+    public JwtClaimExtractor getDelegate() {
+        return delegate;
+    }
+
+    public JwtSignatureVerifier getVerifier() {
+        return verifier;
+    }
+
+    @Override
+    public ActorInfo extractFromIdentityHeader(String header, String token) {
+        return delegate.extractFromIdentityHeader(header, token);
+    }
+
+    @Override
+    public ActorInfo extractFromJwt(Jwt jwt) {
+        return delegate.extractFromJwt(jwt);
+    }
+
+    @Override
+    public ActorInfo extractFromToken(String token) {
+        return isVerified(token) ? delegate.extractFromToken(token) : null;
+    }
+
+    @Override
+    public ActorInfo extractFromClaims(String token, Supplier<Map<String, Object>> claims) {
+        return isVerified(token) ? delegate.extractFromClaims(token, claims) : null;
+    }
+
+    @Override
+    public Map<String, Object> extractClaimsFromJwt(Jwt jwt) {
+        return delegate.extractClaimsFromJwt(jwt);
+    }
+
+    @Override
+    public Map<String, Object> extractClaimsFromToken(String token) {
+        return isVerified(token) ? delegate.extractClaimsFromToken(token) : null;
+    }
+
+    private boolean isVerified(String token) {
+        if (!OpaqueTokenClaimExtractor.isJwt(token)) {
+            return true;
+        }
+        try {
+            verifier.verify(token);
+            return true;
+        } catch (Exception e) {
+            log.warn("⚠️ Rejected unverified JWT from Authorization header: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.crm_bancaire.common.security.scanner;
+
+import com.crm_bancaire.common.security.annotation.PublicEndpoint;
+import com.crm_bancaire.common.security.annotation.SecuredEndpoint;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.beans.factory.aot.BeanRegistrationAotContribution;
+import org.springframework.beans.factory.aot.BeanRegistrationAotProcessor;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Hints AOT pour les controllers scannés par {@link SecurityRulesScanner}: en native image,
+ * {@code getDeclaredMethods()} ne voit que les méthodes enregistrées. Chaque {@code @RestController}
+ * portant {@code @SecuredEndpoint} ou {@code @PublicEndpoint} est enregistré pour l'introspection
+ * de ses méthodes, ce qui conserve aussi leurs annotations.
+ *
+ * Enregistré par {@code META-INF/spring/aot.factories}; sans effet hors AOT.
+ */
+public class SecuredControllerAotProcessor implements BeanRegistrationAotProcessor {
+
+    // Par nom: spring-web n'est pas forcément présent (dépendance provided)
+    private static final String REST_CONTROLLER = "org.springframework.web.bind.annotation.RestController";
+
+    @Override
+    public BeanRegistrationAotContribution processAheadOfTime(RegisteredBean registeredBean) {
+        Class<?> beanClass = registeredBean.getBeanClass();
+        if (!MergedAnnotations.from(beanClass).isPresent(REST_CONTROLLER) || !hasSecurityAnnotations(beanClass)) {
+            return null;
+        }
+        return (generationContext, beanRegistrationCode) -> generationContext.getRuntimeHints().reflection()
+            .registerType(beanClass, MemberCategory.INTROSPECT_DECLARED_METHODS);
+    }
+
+    private static boolean hasSecurityAnnotations(Class<?> beanClass) {
+        for (Method method : ReflectionUtils.getDeclaredMethods(beanClass)) {
+            if (method.isAnnotationPresent(SecuredEndpoint.class) || method.isAnnotationPresent(PublicEndpoint.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,8 +2,10 @@ package com.crm_bancaire.common.security.scanner;
 
 import com.crm_bancaire.common.security.annotation.PublicEndpoint;
 import com.crm_bancaire.common.security.annotation.SecuredEndpoint;
+import com.crm_bancaire.common.security.condition.RuleCondition;
 import com.crm_bancaire.common.security.dto.EndpointRule;
 import com.crm_bancaire.common.security.dto.SecurityRules;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
@@ -138,15 +140,39 @@ public class SecurityRulesScanner {
                 .methods(httpMethods);
 
         if (publicEndpoint != null) {
-            builder.isPublic(true).roles(Collections.emptyList());
+            builder.isPublic(true).roles(Collections.emptyList())
+                    .rateLimit(publicEndpoint.rateLimit())
+                    .rateLimitPeriod(publicEndpoint.rateLimitPeriod())
+                    .cacheTtl(publicEndpoint.cacheTtl());
         } else if (securedEndpoint != null) {
             List<String> roles = Arrays.asList(securedEndpoint.roles());
-            builder.isPublic(false).roles(roles);
+            builder.isPublic(false).roles(roles)
+                    .condition(validCondition(securedEndpoint.condition(), method))
+                    .rateLimit(securedEndpoint.rateLimit())
+                    .rateLimitPeriod(securedEndpoint.rateLimitPeriod());
         }
 
         return builder.build();
     }
 
+    /**
+     * Vérifie la syntaxe d'une condition au démarrage du service plutôt qu'au chargement par le Gateway.
+     *
+     * @return La condition, ou null si vide
+     */
+    private String validCondition(String condition, Method method) {
+        if (condition == null || condition.isBlank()) {
+            return null;
+        }
+        try {
+            RuleCondition.compile(condition, RoleHierarchy.none());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid @SecuredEndpoint condition on "
+                    + method.getDeclaringClass().getSimpleName() + "." + method.getName() + ": " + e.getMessage(), e);
+        }
+        return condition;
+    }
+
     public SecurityRules getSecurityRules() {
         return securityRules;
     }
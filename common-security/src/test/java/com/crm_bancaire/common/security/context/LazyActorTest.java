@@ -0,0 +1,83 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import com.crm_bancaire.common.security.jwt.JwtClaimExtractor;
+import com.crm_bancaire.common.security.jwt.JwtPayloadDecoder;
+import com.crm_bancaire.common.security.jwt.KeycloakJwtClaimExtractor;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyActorTest {
+
+    private static final long EXP = Instant.now().plusSeconds(3600).getEpochSecond();
+
+    private static final String TOKEN = token("{\"sub\":\"u-42\",\"email\":\"jane@bank.test\","
+        + "\"preferred_username\":\"jane\",\"iat\":1700000000,\"nbf\":1700000000,\"exp\":" + EXP + ","
+        + "\"resource_access\":{\"oauth2-pkce\":{\"roles\":[\"ADVISOR\",\"USER\"]}}}");
+
+    @Test
+    void customExtractorResolvesActorFromAuthorizationHeader() {
+        LazyActor lazy = LazyActor.fromJwt(new SubOnlyExtractor(), null, TOKEN);
+
+        ActorInfo actor = lazy.getActor();
+
+        assertThat(actor).isNotNull();
+        assertThat(actor.getSub()).isEqualTo("u-42");
+        assertThat(lazy.getClaims()).containsEntry("email", "jane@bank.test");
+    }
+
+    @Test
+    void keycloakExtractorResolvesActorAndClaimsFromAuthorizationHeader() {
+        LazyActor lazy = LazyActor.fromJwt(new KeycloakJwtClaimExtractor(), null, TOKEN);
+
+        ActorInfo actor = lazy.getActor();
+
+        assertThat(actor.getSub()).isEqualTo("u-42");
+        assertThat(actor.getUsername()).isEqualTo("jane");
+        assertThat(actor.getRoles()).containsExactly("ADVISOR", "USER");
+        assertThat(actor.getExpiresAt()).isEqualTo(EXP);
+        assertThat(((Number) lazy.getClaims().get("exp")).longValue()).isEqualTo(EXP);
+    }
+
+    @Test
+    void invalidTokenResolvesToNullActorAndEmptyClaims() {
+        LazyActor lazy = LazyActor.fromJwt(new SubOnlyExtractor(), null, "not-a-jwt");
+
+        assertThat(lazy.getActor()).isNull();
+        assertThat(lazy.getClaims()).isEmpty();
+    }
+
+    private static String token(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".c2lnbmF0dXJl";
+    }
+
+    /**
+     * Extracteur custom minimal, qui ne redéfinit pas {@code extractFromClaims}.
+     */
+    private static final class SubOnlyExtractor implements JwtClaimExtractor {
+
+        @Override
+        public ActorInfo extractFromJwt(Jwt jwt) {
+            return ActorInfo.builder().sub(jwt.getSubject()).build();
+        }
+
+        @Override
+        public ActorInfo extractFromToken(String token) {
+            try {
+                Map<String, Object> claims = JwtPayloadDecoder.decodeAll(token);
+                return ActorInfo.builder().sub((String) claims.get("sub")).build();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.crm_bancaire.common.security.context;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveUserContextTest {
+
+    @Test
+    void unresolvedActorIsDecodedOffTheCallingThread() {
+        AtomicReference<String> resolvingThread = new AtomicReference<>();
+        LazyActor lazy = new LazyActor(() -> {
+            resolvingThread.set(Thread.currentThread().getName());
+            return ActorInfo.builder().sub("u-42").build();
+        }, Map::of);
+
+        String sub = ReactiveUserContext.currentUserSub().contextWrite(ReactiveUserContext.withLazyActor(lazy)).block();
+
+        assertThat(sub).isEqualTo("u-42");
+
+        assertThat(resolvingThread.get()).startsWith("boundedElastic");
+    }
+
+    @Test
+    void unresolvedClaimsAreDecodedOffTheCallingThread() {
+        AtomicReference<String> resolvingThread = new AtomicReference<>();
+        LazyActor lazy = new LazyActor(() -> null, () -> {
+            resolvingThread.set(Thread.currentThread().getName());
+            return Map.of("tenant_id", "t1");
+        });
+
+        Object tenant = ReactiveUserContext.getClaim("tenant_id").contextWrite(ReactiveUserContext.withLazyActor(lazy)).block();
+
+        assertThat(tenant).isEqualTo("t1");
+
+        assertThat(resolvingThread.get()).startsWith("boundedElastic");
+    }
+
+    @Test
+    void resolvedActorIsReturnedInPlace() {
+        ActorInfo actor = ActorInfo.builder().sub("u-42").build();
+
+        assertThat(ReactiveUserContext.currentActor().contextWrite(ReactiveUserContext.withActor(actor)).block())
+            .isSameAs(actor);
+    }
+
+    @Test
+    void noActorWithoutContext() {
+        assertThat(ReactiveUserContext.currentActor().block()).isNull();
+        assertThat(ReactiveUserContext.hasRole("ADMIN").block()).isFalse();
+    }
+}
@@ -0,0 +1,24 @@
+package com.crm_bancaire.common.security.context;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.core.task.TaskDecorator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserContextAutoConfigurationTest {
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+        .withUserConfiguration(UserContextAutoConfiguration.class);
+
+    @Test
+    void noTaskDecoratorByDefault() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(TaskDecorator.class));
+    }
+
+    @Test
+    void taskDecoratorWhenAsyncPropagationEnabled() {
+        runner.withPropertyValues("common.security.user-context.async-propagation=true")
+            .run(context -> assertThat(context).getBean(TaskDecorator.class).isInstanceOf(UserContextTaskDecorator.class));
+    }
+}
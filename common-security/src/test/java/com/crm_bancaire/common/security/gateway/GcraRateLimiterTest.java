@@ -0,0 +1,82 @@
+package com.crm_bancaire.common.security.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GcraRateLimiterTest {
+
+    @Test
+    void burstUpToLimitThenRejects() {
+        GcraRateLimiter limiter = new GcraRateLimiter(4, 60_000);
+
+        assertThat(limiter.tryAcquire("k", 3, 60_000)).isZero();
+        assertThat(limiter.tryAcquire("k", 3, 60_000)).isZero();
+        assertThat(limiter.tryAcquire("k", 3, 60_000)).isZero();
+        assertThat(limiter.tryAcquire("k", 3, 60_000)).isPositive();
+        assertThat(limiter.getAllowedCount()).isEqualTo(3);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sweepKeepsActiveKeysAndRemovesIdleOnes() throws InterruptedException {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 60_000);
+        limiter.tryAcquire("active", 1, 60_000);
+        limiter.tryAcquire("idle", 1, 5);
+        Thread.sleep(20);
+
+        // Un balayage par stripe (le nombre de stripes est arrondi à 2)
+        limiter.evictIdleStripe();
+        limiter.evictIdleStripe();
+
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("active", 1, 60_000)).isPositive();
+    }
+
+    @Test
+    void concurrentSweepNeverGrantsMoreThanLimit() throws Exception {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 60_000);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicBoolean sweeping = new AtomicBoolean(true);
+        Thread sweeper = new Thread(() -> {
+            while (sweeping.get()) {
+                limiter.evictIdleStripe();
+            }
+        });
+        sweeper.start();
+        try {
+            for (int round = 0; round < 2_000; round++) {
+                String key = "key-" + round;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return limiter.tryAcquire(key, 1, 60_000);
+                    }));
+                }
+                start.countDown();
+                int granted = 0;
+                for (Future<Long> result : results) {
+                    if (result.get() == 0) {
+                        granted++;
+                    }
+                }
+                assertThat(granted).as("granted for %s", key).isEqualTo(1);
+            }
+        } finally {
+            sweeping.set(false);
+            sweeper.join();
+            executor.shutdown();
+        }
+    }
+}
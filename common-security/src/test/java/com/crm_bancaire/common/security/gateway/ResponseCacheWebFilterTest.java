@@ -0,0 +1,84 @@
+package com.crm_bancaire.common.security.gateway;
+
+import com.crm_bancaire.common.security.dto.EndpointRule;
+import com.crm_bancaire.common.security.role.RoleHierarchy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheWebFilterTest {
+
+    private static final int MAX_ENTRY_BYTES = 64;
+
+    private ResponseCache cache;
+    private ResponseCacheWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DynamicAuthorizationManager manager = mock(DynamicAuthorizationManager.class);
+        EndpointRule rule = EndpointRule.builder()
+            .basePath("/public").path("/agencies").methods(List.of("GET")).isPublic(true).cacheTtl(60)
+            .build();
+        when(manager.getRuleSnapshot())
+            .thenReturn(RuleSnapshot.compile(Map.of("agency-service", List.of(rule)), RoleHierarchy.none(), 1));
+        cache = new ResponseCache(1024, MAX_ENTRY_BYTES);
+        filter = new ResponseCacheWebFilter(manager, cache);
+    }
+
+    @Test
+    void smallChunkedResponseIsCachedAndServed() {
+        MockServerWebExchange first = exchange();
+        filter.filter(first, chunkedBody("[\"paris\",", "\"lyon\"]")).block();
+
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("[\"paris\",\"lyon\"]");
+        assertThat(cache.get("GET /public/agencies")).isNotNull();
+
+        MockServerWebExchange second = exchange();
+        filter.filter(second, exchange -> {
+            throw new AssertionError("cache hit must not call the service");
+        }).block();
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("[\"paris\",\"lyon\"]");
+    }
+
+    @Test
+    void largeChunkedResponseStreamsThroughWithoutBeingCached() {
+        String chunk = "x".repeat(40);
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, chunkedBody(chunk, chunk, chunk)).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(chunk.repeat(3));
+        assertThat(cache.get("GET /public/agencies")).isNull();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/public/agencies"));
+    }
+
+    /**
+     * Service qui répond 200 en plusieurs buffers, sans {@code Content-Length}.
+     */
+    private static WebFilterChain chunkedBody(String... chunks) {
+        return (ServerWebExchange exchange) -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            Flux<DataBuffer> body = Flux.fromArray(chunks)
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+            return exchange.getResponse().writeWith(body);
+        };
+    }
+}
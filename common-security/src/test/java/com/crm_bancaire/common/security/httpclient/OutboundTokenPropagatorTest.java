@@ -0,0 +1,130 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import com.crm_bancaire.common.security.httpclient.OutboundTokenPropagator.ResolvedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OutboundTokenPropagatorTest {
+
+    private static final String USER_TOKEN = "user.jwt.token";
+
+    private ServiceTokenManager serviceTokenManager;
+    private OutboundTokenPropagator propagator;
+
+    @BeforeEach
+    void setUp() {
+        serviceTokenManager = mock(ServiceTokenManager.class);
+        when(serviceTokenManager.getToken("user-api")).thenReturn("service-token");
+        when(serviceTokenManager.getTokenAsync("user-api")).thenReturn(CompletableFuture.completedFuture("service-token"));
+        propagator = new OutboundTokenPropagator(serviceTokenManager, Map.of("user-service", "user-api"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        BearerTokenContext.clear();
+    }
+
+    @Test
+    void serviceTokenOutsideAnyRequestForConfiguredHost() {
+        ResolvedToken token = propagator.resolve("user-service");
+
+        assertThat(token.value()).isEqualTo("service-token");
+        assertThat(token.source()).isEqualTo(TokenSource.SERVICE);
+    }
+
+    @Test
+    void noServiceTokenForUnknownHost() {
+        assertThat(propagator.resolve("api.partner.example").source()).isEqualTo(TokenSource.NONE);
+        assertThat(propagator.resolve(null).source()).isEqualTo(TokenSource.NONE);
+        verifyNoInteractions(serviceTokenManager);
+    }
+
+    @Test
+    void userTokenOfAuthenticatedRequest() {
+        bindRequest("Bearer " + USER_TOKEN);
+
+        ResolvedToken token = propagator.resolve("user-service");
+
+        assertThat(token.value()).isEqualTo(USER_TOKEN);
+        assertThat(token.source()).isEqualTo(TokenSource.USER);
+    }
+
+    @Test
+    void noServiceTokenForAnonymousRequest() {
+        bindRequest(null);
+
+        assertThat(propagator.resolve("user-service").source()).isEqualTo(TokenSource.NONE);
+        verifyNoInteractions(serviceTokenManager);
+    }
+
+    @Test
+    void anonymousRequestStaysAnonymousOnAnotherThread() throws Exception {
+        bindRequest(null);
+        Callable<ResolvedToken> task = BearerTokenContext.wrap(() -> propagator.resolve("user-service"));
+        RequestContextHolder.resetRequestAttributes();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ResolvedToken resolved;
+        try {
+            resolved = executor.submit(task).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(resolved.source()).isEqualTo(TokenSource.NONE);
+        verifyNoInteractions(serviceTokenManager);
+    }
+
+    @Test
+    void reactiveServiceTokenWithoutRequestContext() {
+        ResolvedToken token = propagator.resolveReactive("user-service").block();
+
+        assertThat(token.value()).isEqualTo("service-token");
+        assertThat(token.source()).isEqualTo(TokenSource.SERVICE);
+    }
+
+    @Test
+    void reactiveUserTokenFromContext() {
+        ResolvedToken token = propagator.resolveReactive("user-service")
+            .contextWrite(Context.of(BearerTokenContext.CONTEXT_KEY, USER_TOKEN))
+            .block();
+
+        assertThat(token.value()).isEqualTo(USER_TOKEN);
+        assertThat(token.source()).isEqualTo(TokenSource.USER);
+    }
+
+    @Test
+    void reactiveAnonymousRequestGetsNoServiceToken() {
+        ResolvedToken token = propagator.resolveReactive("user-service")
+            .contextWrite(Context.of(BearerTokenContext.CONTEXT_KEY, BearerTokenContext.ANONYMOUS))
+            .block();
+
+        assertThat(token.source()).isEqualTo(TokenSource.NONE);
+        verifyNoInteractions(serviceTokenManager);
+    }
+
+    private static void bindRequest(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/public/offers");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
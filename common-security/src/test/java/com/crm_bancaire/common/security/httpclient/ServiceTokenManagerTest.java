@@ -0,0 +1,76 @@
+package com.crm_bancaire.common.security.httpclient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServiceTokenManagerTest {
+
+    private HttpClient httpClient;
+    private ServiceTokenManager manager;
+
+    @BeforeEach
+    void setUp() {
+        httpClient = mock(HttpClient.class);
+        manager = new ServiceTokenManager(URI.create("http://auth.test/token"), "order-service", "secret", null,
+            Duration.ofSeconds(60), httpClient);
+    }
+
+    @Test
+    void concurrentCallersShareOneTokenRequest() {
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        doReturn(pending).when(httpClient).sendAsync(any(), any());
+
+        CompletableFuture<String> first = manager.getTokenAsync("user-api");
+        CompletableFuture<String> second = manager.getTokenAsync("user-api");
+        pending.complete(response(200, "{\"access_token\":\"svc-1\",\"expires_in\":300}"));
+
+        assertThat(first.join()).isEqualTo("svc-1");
+        assertThat(second.join()).isEqualTo("svc-1");
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void cachedTokenIsReusedUntilRefreshWindow() {
+        doReturn(CompletableFuture.completedFuture(response(200, "{\"access_token\":\"svc-1\",\"expires_in\":300}")))
+            .when(httpClient).sendAsync(any(), any());
+
+        assertThat(manager.getToken("user-api")).isEqualTo("svc-1");
+        assertThat(manager.getToken("user-api")).isEqualTo("svc-1");
+
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void failureBacksOffWithoutNewRequest() {
+        doReturn(CompletableFuture.completedFuture(response(503, "")))
+            .when(httpClient).sendAsync(any(), any());
+
+        assertThat(manager.getToken("user-api")).isNull();
+        assertThat(manager.getToken("user-api")).isNull();
+        assertThat(manager.getTokenAsync("user-api")).isCompletedExceptionally();
+
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status, String body) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body);
+        return response;
+    }
+}
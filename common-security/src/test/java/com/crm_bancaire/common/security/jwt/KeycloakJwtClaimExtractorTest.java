@@ -0,0 +1,45 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeycloakJwtClaimExtractorTest {
+
+    private static final long EXP = Instant.now().plusSeconds(3600).getEpochSecond();
+
+    private final KeycloakJwtClaimExtractor extractor = new KeycloakJwtClaimExtractor();
+
+    @Test
+    void unsignedTokensDoNotShareACacheEntry() {
+        ActorInfo alice = extractor.extractFromToken(token("alice", ""));
+        ActorInfo bob = extractor.extractFromToken(token("bob", ""));
+
+        assertThat(alice.getSub()).isEqualTo("alice");
+        assertThat(bob.getSub()).isEqualTo("bob");
+        assertThat(extractor.getTokenCache().size()).isEqualTo(2);
+    }
+
+    @Test
+    void sameTokenIsServedFromCache() {
+        String token = token("alice", "c2lnbmF0dXJl");
+
+        ActorInfo first = extractor.extractFromToken(token);
+        ActorInfo second = extractor.extractFromToken(token);
+
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+        assertThat(extractor.getTokenCache().size()).isEqualTo(1);
+    }
+
+    private static String token(String sub, String signature) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(("{\"sub\":\"" + sub + "\",\"exp\":" + EXP + "}").getBytes(StandardCharsets.UTF_8))
+            + "." + signature;
+    }
+}
@@ -0,0 +1,142 @@
+package com.crm_bancaire.common.security.jwt;
+
+import com.crm_bancaire.common.security.context.UserContext.ActorInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpaqueTokenClaimExtractorTest {
+
+    private static final long EXP = Instant.now().plusSeconds(3600).getEpochSecond();
+    private static final String ACTIVE = "{\"active\":true,\"sub\":\"alice\",\"email\":\"alice@bank.test\","
+        + "\"resource_access\":{\"crm-app\":{\"roles\":[\"AGENT\"]}},\"iat\":" + (EXP - 3600) + ",\"exp\":" + EXP + "}";
+
+    private HttpClient httpClient;
+    private OpaqueTokenClaimExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        httpClient = mock(HttpClient.class);
+        extractor = new OpaqueTokenClaimExtractor(new KeycloakJwtClaimExtractor(100, "crm-app"),
+            URI.create("http://auth.test/introspect"), "gateway", "secret", 100,
+            Duration.ofMinutes(5), Duration.ofSeconds(30), httpClient);
+    }
+
+    @Test
+    void activeTokenIsConvertedByDelegateWithNumericTimestamps() {
+        doReturn(CompletableFuture.completedFuture(response(200, ACTIVE))).when(httpClient).sendAsync(any(), any());
+
+        ActorInfo actor = extractor.extractFromToken("opaque-token");
+
+        assertThat(actor).isNotNull();
+        assertThat(actor.getSub()).isEqualTo("alice");
+        assertThat(actor.getEmail()).isEqualTo("alice@bank.test");
+        assertThat(actor.getRoles()).contains("AGENT");
+        assertThat(actor.getExpiresAt()).isEqualTo(EXP);
+        Map<String, Object> claims = extractor.extractClaimsFromToken("opaque-token");
+        assertThat(((Number) claims.get("exp")).longValue()).isEqualTo(EXP);
+    }
+
+    @Test
+    void introspectionResultIsCached() {
+        doReturn(CompletableFuture.completedFuture(response(200, ACTIVE))).when(httpClient).sendAsync(any(), any());
+
+        ActorInfo first = extractor.extractFromToken("opaque-token");
+        ActorInfo second = extractor.extractFromToken("opaque-token");
+
+        // Copie défensive: même contenu, instances distinctes
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void inactiveTokenIsRejectedAndNegativelyCached() {
+        doReturn(CompletableFuture.completedFuture(response(200, "{\"active\":false}")))
+            .when(httpClient).sendAsync(any(), any());
+
+        assertThat(extractor.extractFromToken("revoked-token")).isNull();
+        assertThat(extractor.extractFromToken("revoked-token")).isNull();
+
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void networkErrorIsNotCached() {
+        doReturn(CompletableFuture.completedFuture(response(503, "")))
+            .when(httpClient).sendAsync(any(), any());
+
+        assertThat(extractor.extractFromToken("opaque-token")).isNull();
+        assertThat(extractor.extractFromToken("opaque-token")).isNull();
+
+        verify(httpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void concurrentRequestsShareOneIntrospection() throws Exception {
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        doReturn(pending).when(httpClient).sendAsync(any(), any());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ActorInfo> first = executor.submit(() -> extractor.extractFromToken("opaque-token"));
+            Future<ActorInfo> second = executor.submit(() -> extractor.extractFromToken("opaque-token"));
+            Thread.sleep(100);
+            pending.complete(response(200, ACTIVE));
+
+            assertThat(first.get().getSub()).isEqualTo("alice");
+            assertThat(second.get().getSub()).isEqualTo("alice");
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void jwtIsDelegatedWithoutIntrospection() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String jwt = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(("{\"sub\":\"bob\",\"exp\":" + EXP + "}").getBytes(StandardCharsets.UTF_8))
+            + ".c2lnbmF0dXJl";
+
+        ActorInfo actor = extractor.extractFromToken(jwt);
+
+        assertThat(actor.getSub()).isEqualTo("bob");
+        verify(httpClient, never()).sendAsync(any(), any());
+    }
+
+    @Test
+    void jwtShapeIsDetected() {
+        assertThat(OpaqueTokenClaimExtractor.isJwt("a.b.c")).isTrue();
+        assertThat(OpaqueTokenClaimExtractor.isJwt("opaque-token")).isFalse();
+        assertThat(OpaqueTokenClaimExtractor.isJwt("a.b")).isFalse();
+        assertThat(OpaqueTokenClaimExtractor.isJwt("a.b.c.d")).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status, String body) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body);
+        return response;
+    }
+}